@@ -0,0 +1,35 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+public class AppendBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> cList() {
+        return cList.append(cList);
+    }
+
+    @Benchmark
+    public List<Integer> arrayList() {
+        List<Integer> result = new ArrayList<>(arrayList);
+        result.addAll(arrayList);
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> linkedList() {
+        List<Integer> result = new LinkedList<>(linkedList);
+        result.addAll(linkedList);
+        return result;
+    }
+
+    @Benchmark
+    public scala.collection.immutable.List<Integer> scalaList() {
+        return ScalaLists.append(scalaList, scalaList);
+    }
+}
@@ -0,0 +1,33 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * The bookkeeping cost of the asynchronous operations, with functions whose futures are already completed.
+ */
+public class AsyncBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> cListMapAsync() {
+        return cList.mapAsync(64, Runnable::run, x -> CompletableFuture.completedFuture(x + 1)).join();
+    }
+
+    @Benchmark
+    public CList<Integer> cListTraverse() {
+        return cList.traverse(x -> CompletableFuture.completedFuture(x + 1)).join();
+    }
+
+    @Benchmark
+    public List<Integer> arrayListAllOf() {
+        List<CompletableFuture<Integer>> futures = arrayList.stream()
+                .map(x -> CompletableFuture.completedFuture(x + 1))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,76 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The CONS and the CHUNKED representation of the same list compared.
+ * Run with -prof gc for the memory per element: gc.alloc.rate.norm of the construction benchmarks divided by size.
+ */
+public class ChunkedBenchmark extends SizedCollections {
+
+    private CList<Integer> chunkedList;
+
+    @Setup(Level.Trial)
+    public void setUpChunked() {
+        chunkedList = CList.fromArray(array, CList.Representation.CHUNKED);
+    }
+
+    @Benchmark
+    public CList<Integer> consFromArray() {
+        return CList.fromArray(array, CList.Representation.CONS);
+    }
+
+    @Benchmark
+    public CList<Integer> chunkedFromArray() {
+        return CList.fromArray(array, CList.Representation.CHUNKED);
+    }
+
+    @Benchmark
+    public long consFoldLeft() {
+        return cList.foldLeft(0L, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long chunkedFoldLeft() {
+        return chunkedList.foldLeft(0L, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long consHeadTail() {
+        long sum = 0;
+        for (CList<Integer> xs = cList; xs.nonEmpty(); xs = xs.tail())
+            sum += xs.head();
+        return sum;
+    }
+
+    @Benchmark
+    public long chunkedHeadTail() {
+        long sum = 0;
+        for (CList<Integer> xs = chunkedList; xs.nonEmpty(); xs = xs.tail())
+            sum += xs.head();
+        return sum;
+    }
+
+    @Benchmark
+    public CList<Integer> consMap() {
+        return cList.map(x -> x + 1);
+    }
+
+    @Benchmark
+    public CList<Integer> chunkedMap() {
+        return chunkedList.map(x -> x + 1);
+    }
+
+    @Benchmark
+    public CList<Integer> consReverse() {
+        return cList.reverse();
+    }
+
+    @Benchmark
+    public CList<Integer> chunkedReverse() {
+        return chunkedList.reverse();
+    }
+}
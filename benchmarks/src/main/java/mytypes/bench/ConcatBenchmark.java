@@ -0,0 +1,54 @@
+package mytypes.bench;
+
+import mytypes.CChain;
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concatenating the list cut into chunks of 10 elements.
+ * A left fold with CList.append is quadratic and left out, it does not finish for the larger sizes.
+ */
+public class ConcatBenchmark extends SizedCollections {
+
+    private CList<CList<Integer>> chunks;
+    private List<List<Integer>> arrayChunks;
+
+    @Setup(Level.Trial)
+    public void cutIntoChunks() {
+        CList.Builder<CList<Integer>> builder = CList.builder();
+        arrayChunks = new ArrayList<>();
+        for (int i = 0; i < size; i += 10) {
+            builder.add(cList.drop(i).take(10));
+            arrayChunks.add(arrayList.subList(i, Math.min(size, i + 10)));
+        }
+        chunks = builder.result();
+    }
+
+    @Benchmark
+    public CList<Integer> cListFlatten() {
+        return chunks.flatMap(chunk -> chunk);
+    }
+
+    @Benchmark
+    public CList<Integer> cChainFoldLeft() {
+        return chunks.foldLeft(CChain.<Integer>empty(), CChain::append).toCList();
+    }
+
+    @Benchmark
+    public CChain<Integer> cChainFoldLeftWithoutToCList() {
+        return chunks.foldLeft(CChain.<Integer>empty(), CChain::append);
+    }
+
+    @Benchmark
+    public List<Integer> arrayListAddAll() {
+        List<Integer> result = new ArrayList<>();
+        for (List<Integer> chunk : arrayChunks)
+            result.addAll(chunk);
+        return result;
+    }
+}
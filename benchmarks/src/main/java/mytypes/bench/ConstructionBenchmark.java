@@ -0,0 +1,39 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static mytypes.CList.clist;
+
+public class ConstructionBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> cListFromList() {
+        return clist(arrayList);
+    }
+
+    @Benchmark
+    public CList<Integer> cListFromVarargs() {
+        return clist(array);
+    }
+
+    @Benchmark
+    public List<Integer> arrayList() {
+        return new ArrayList<>(Arrays.asList(array));
+    }
+
+    @Benchmark
+    public List<Integer> linkedList() {
+        return new LinkedList<>(Arrays.asList(array));
+    }
+
+    @Benchmark
+    public scala.collection.immutable.List<Integer> scalaList() {
+        return ScalaLists.fromArray(array);
+    }
+}
@@ -0,0 +1,62 @@
+package mytypes.bench;
+
+import mytypes.AtomicCList;
+import mytypes.CList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+import static mytypes.CList.cons;
+
+/**
+ * A push followed by a pop on a stack shared by all benchmark threads: AtomicCList against a CList updated under
+ * synchronized and against ConcurrentLinkedDeque. Run with -t to vary the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Threads(8)
+public class ContentionBenchmark {
+
+    private static final Integer ELEM = 42;
+
+    private final AtomicCList<Integer> atomic = new AtomicCList<>();
+    private final ConcurrentLinkedDeque<Integer> deque = new ConcurrentLinkedDeque<>();
+    private CList<Integer> locked = CList.clist();
+
+    @Benchmark
+    public Integer atomicCList() {
+        atomic.push(ELEM);
+        return atomic.popOption().orElse(null);
+    }
+
+    @Benchmark
+    public Integer atomicCListUpdate() {
+        atomic.updateAndGet(xs -> cons(ELEM, xs));
+        return atomic.getAndTransform(xs -> xs.isEmpty() ? xs : xs.tail()).headOption().orElse(null);
+    }
+
+    @Benchmark
+    public Integer synchronizedCList() {
+        synchronized (this) {
+            locked = cons(ELEM, locked);
+        }
+        synchronized (this) {
+            if (locked.isEmpty())
+                return null;
+            Integer head = locked.head();
+            locked = locked.tail();
+            return head;
+        }
+    }
+
+    @Benchmark
+    public Integer concurrentLinkedDeque() {
+        deque.push(ELEM);
+        return deque.pollFirst();
+    }
+}
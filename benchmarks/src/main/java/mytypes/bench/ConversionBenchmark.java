@@ -0,0 +1,49 @@
+package mytypes.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conversion into java.util.List and java.util.Set.
+ */
+public class ConversionBenchmark extends SizedCollections {
+
+    @Benchmark
+    public List<Integer> cListToList() {
+        return cList.toList();
+    }
+
+    @Benchmark
+    public Set<Integer> cListToSet() {
+        return cList.toSet();
+    }
+
+    @Benchmark
+    public List<Integer> linkedListToList() {
+        return new ArrayList<>(linkedList);
+    }
+
+    @Benchmark
+    public Set<Integer> linkedListToSet() {
+        return new HashSet<>(linkedList);
+    }
+
+    @Benchmark
+    public Set<Integer> arrayListToSet() {
+        return new HashSet<>(arrayList);
+    }
+
+    @Benchmark
+    public List<Integer> scalaListToList() {
+        return ScalaLists.toJavaList(scalaList);
+    }
+
+    @Benchmark
+    public Set<Integer> scalaListToSet() {
+        return ScalaLists.toJavaSet(scalaList);
+    }
+}
@@ -0,0 +1,71 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static mytypes.CList.clist;
+
+/**
+ * equals between two structurally equal but distinct instances, and hashCode.
+ */
+public class EqualityBenchmark extends SizedCollections {
+
+    private CList<Integer> otherCList;
+    private List<Integer> otherArrayList;
+    private List<Integer> otherLinkedList;
+    private scala.collection.immutable.List<Integer> otherScalaList;
+
+    @Setup(Level.Trial)
+    public void setUpCopies() {
+        otherCList = clist(arrayList);
+        otherArrayList = new ArrayList<>(arrayList);
+        otherLinkedList = new LinkedList<>(arrayList);
+        otherScalaList = ScalaLists.fromArray(array);
+    }
+
+    @Benchmark
+    public boolean cListEquals() {
+        return cList.equals(otherCList);
+    }
+
+    @Benchmark
+    public int cListHashCode() {
+        return cList.hashCode();
+    }
+
+    @Benchmark
+    public boolean arrayListEquals() {
+        return arrayList.equals(otherArrayList);
+    }
+
+    @Benchmark
+    public int arrayListHashCode() {
+        return arrayList.hashCode();
+    }
+
+    @Benchmark
+    public boolean linkedListEquals() {
+        return linkedList.equals(otherLinkedList);
+    }
+
+    @Benchmark
+    public int linkedListHashCode() {
+        return linkedList.hashCode();
+    }
+
+    @Benchmark
+    public boolean scalaListEquals() {
+        return scalaList.equals(otherScalaList);
+    }
+
+    @Benchmark
+    public int scalaListHashCode() {
+        return scalaList.hashCode();
+    }
+}
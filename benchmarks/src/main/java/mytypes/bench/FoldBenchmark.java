@@ -0,0 +1,58 @@
+package mytypes.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Iterator;
+import java.util.ListIterator;
+
+public class FoldBenchmark extends SizedCollections {
+
+    @Benchmark
+    public long cListFoldLeft() {
+        return cList.foldLeft(0L, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long cListFoldRight() {
+        return cList.foldRight(0L, (x, acc) -> acc + x);
+    }
+
+    @Benchmark
+    public long arrayListFoldLeft() {
+        return arrayList.stream().reduce(0L, (acc, x) -> acc + x, Long::sum);
+    }
+
+    @Benchmark
+    public long arrayListFoldRight() {
+        long acc = 0L;
+        for (int i = arrayList.size() - 1; i >= 0; i--)
+            acc = acc + arrayList.get(i);
+        return acc;
+    }
+
+    @Benchmark
+    public long linkedListFoldLeft() {
+        long acc = 0L;
+        for (Iterator<Integer> it = linkedList.iterator(); it.hasNext(); )
+            acc = acc + it.next();
+        return acc;
+    }
+
+    @Benchmark
+    public long linkedListFoldRight() {
+        long acc = 0L;
+        for (ListIterator<Integer> it = linkedList.listIterator(linkedList.size()); it.hasPrevious(); )
+            acc = acc + it.previous();
+        return acc;
+    }
+
+    @Benchmark
+    public long scalaListFoldLeft() {
+        return ScalaLists.foldLeft(scalaList, 0L, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long scalaListFoldRight() {
+        return ScalaLists.foldRight(scalaList, 0L, (x, acc) -> acc + x);
+    }
+}
@@ -0,0 +1,61 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Grouping and deduplicating 1000 distinct keys, sequentially, in parallel and with java.util.stream.
+ */
+public class GroupingBenchmark extends SizedCollections {
+
+    @Benchmark
+    public Map<Integer, CList<Integer>> cListGroupBy() {
+        return cList.groupBy(x -> x % 1000);
+    }
+
+    @Benchmark
+    public Map<Integer, CList<Integer>> parCListGroupBy() {
+        return cList.par().groupBy(x -> x % 1000);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> arrayListStreamGroupingBy() {
+        return arrayList.stream().collect(Collectors.groupingBy(x -> x % 1000));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> cListCountBy() {
+        return cList.countBy(x -> x % 1000);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> parCListCountBy() {
+        return cList.par().countBy(x -> x % 1000);
+    }
+
+    @Benchmark
+    public CList<Integer> cListDistinctBy() {
+        return cList.distinctBy(x -> x % 1000);
+    }
+
+    @Benchmark
+    public CList<Integer> parCListDistinct() {
+        return cList.par().distinct();
+    }
+
+    @Benchmark
+    public List<Integer> arrayListDistinct() {
+        return new ArrayList<>(new LinkedHashSet<>(arrayList));
+    }
+
+    @Benchmark
+    public CList<Integer> cListDiffHalf() {
+        return cList.diff(cList.take(size / 2));
+    }
+}
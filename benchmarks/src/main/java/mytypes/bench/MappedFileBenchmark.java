@@ -0,0 +1,58 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import mytypes.CListFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opening and traversing a CList file, compared with rebuilding the list on the heap.
+ */
+public class MappedFileBenchmark extends SizedCollections {
+
+    private Path file;
+    private CList<Integer> mapped;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("clist", ".bin");
+        CListFile.write(cList, file);
+        mapped = CListFile.map(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public CList<Integer> open() throws IOException {
+        return CListFile.map(file);
+    }
+
+    @Benchmark
+    public CList<Integer> openAndDropHalf() throws IOException {
+        return CListFile.<Integer>map(file).drop(size / 2);
+    }
+
+    @Benchmark
+    public CList<Integer> rebuildOnHeap() throws IOException {
+        return CList.fromIterable(CListFile.<Integer>map(file));
+    }
+
+    @Benchmark
+    public long mappedFoldLeft() {
+        return mapped.foldLeft(0L, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long cListFoldLeft() {
+        return cList.foldLeft(0L, (acc, x) -> acc + x);
+    }
+}
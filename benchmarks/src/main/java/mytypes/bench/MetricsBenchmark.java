@@ -0,0 +1,73 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import mytypes.CListMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static mytypes.CList.cons;
+
+/**
+ * The cost of the CListMetrics instrumentation of reverse and equals: disabled, reporting to a registry
+ * of LongAdders, and emitting JFR events (without a recording, so shouldCommit is false).
+ * uninstrumentedReverse is the same loop as CList.reverse without the instrumentation.
+ */
+public class MetricsBenchmark extends SizedCollections {
+
+    @Param({"disabled", "registry", "jfr"})
+    public String metrics;
+
+    private CList<Integer> copy;
+
+    @Setup(Level.Trial)
+    public void enableMetrics() {
+        copy = CList.fromIterable(arrayList);
+        CListMetrics.setMinSize(0);
+        if (metrics.equals("registry")) {
+            LongAdder sink = new LongAdder();
+            CListMetrics.install(new CListMetrics.Registry() {
+                @Override
+                public CListMetrics.Counter counter(String name) {
+                    return sink::increment;
+                }
+
+                @Override
+                public CListMetrics.Histogram histogram(String name) {
+                    return sink::add;
+                }
+            });
+        } else if (metrics.equals("jfr")) {
+            CListMetrics.enableJfr(true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void disableMetrics() {
+        CListMetrics.disable();
+        CListMetrics.setMinSize(CListMetrics.DEFAULT_MIN_SIZE);
+    }
+
+    @Benchmark
+    public CList<Integer> reverse() {
+        return cList.reverse();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public CList<Integer> uninstrumentedReverse() {
+        CList<Integer> acc = CList.clist();
+        for (CList<Integer> xs = cList; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        return acc;
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return cList.equals(copy);
+    }
+}
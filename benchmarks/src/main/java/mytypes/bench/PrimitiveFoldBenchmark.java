@@ -0,0 +1,42 @@
+package mytypes.bench;
+
+import mytypes.IntCList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Summing a boxed CList&lt;Integer&gt; against the primitive IntCList.
+ */
+public class PrimitiveFoldBenchmark extends SizedCollections {
+
+    private IntCList intCList;
+
+    @Setup(Level.Trial)
+    public void setUpIntCList() {
+        intCList = cList.mapToInt(x -> x);
+    }
+
+    @Benchmark
+    public int cListFoldLeft() {
+        return cList.foldLeft(0, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public int intCListFoldLeft() {
+        return intCList.foldLeft(0, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public int intCListSum() {
+        return intCList.sum();
+    }
+
+    @Benchmark
+    public int arraySum() {
+        int sum = 0;
+        for (Integer x : array)
+            sum += x;
+        return sum;
+    }
+}
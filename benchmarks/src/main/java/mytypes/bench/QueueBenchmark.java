@@ -0,0 +1,50 @@
+package mytypes.bench;
+
+import mytypes.CQueue;
+import mytypes.RealTimeCQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayDeque;
+
+/**
+ * Enqueueing all elements one by one and draining the queue again.
+ */
+public class QueueBenchmark extends SizedCollections {
+
+    @Benchmark
+    public long cQueue() {
+        CQueue<Integer> q = CQueue.empty();
+        for (Integer elem : array)
+            q = q.enqueue(elem);
+        long sum = 0;
+        while (q.nonEmpty()) {
+            sum += q.head();
+            q = q.tail();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long realTimeCQueue() {
+        RealTimeCQueue<Integer> q = RealTimeCQueue.empty();
+        for (Integer elem : array)
+            q = q.enqueue(elem);
+        long sum = 0;
+        while (q.nonEmpty()) {
+            sum += q.head();
+            q = q.tail();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayDeque() {
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        for (Integer elem : array)
+            q.add(elem);
+        long sum = 0;
+        while (!q.isEmpty())
+            sum += q.poll();
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+public class ReverseBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> cList() {
+        return cList.reverse();
+    }
+
+    @Benchmark
+    public List<Integer> arrayList() {
+        List<Integer> result = new ArrayList<>(arrayList);
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> linkedList() {
+        LinkedList<Integer> result = new LinkedList<>();
+        for (Integer x : linkedList)
+            result.addFirst(x);
+        return result;
+    }
+
+    @Benchmark
+    public scala.collection.immutable.List<Integer> scalaList() {
+        return scalaList.reverse();
+    }
+}
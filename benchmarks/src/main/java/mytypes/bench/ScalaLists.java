@@ -0,0 +1,76 @@
+package mytypes.bench;
+
+import scala.Function1;
+import scala.Function2;
+import scala.Tuple2;
+import scala.collection.GenTraversableOnce;
+import scala.collection.IterableLike;
+import scala.collection.JavaConverters;
+import scala.collection.generic.CanBuildFrom;
+import scala.collection.immutable.List;
+import scala.collection.immutable.List$;
+import scala.collection.immutable.Nil$;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Calls into scala.collection.immutable.List with the implicit CanBuildFrom arguments made explicit,
+ * so the benchmarks can compare against it from Java.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class ScalaLists {
+
+    private static final CanBuildFrom CBF = List$.MODULE$.canBuildFrom();
+
+    private ScalaLists() {
+    }
+
+    static <A> List<A> empty() {
+        return (List) Nil$.MODULE$;
+    }
+
+    static <A> List<A> fromArray(A[] elems) {
+        List<A> result = empty();
+        for (int i = elems.length - 1; i >= 0; i--)
+            result = result.$colon$colon(elems[i]);
+        return result;
+    }
+
+    static <A, B> List<B> map(List<A> xs, Function1<A, B> f) {
+        return (List<B>) xs.map(f, (CanBuildFrom<List<A>, B, List<B>>) CBF);
+    }
+
+    static <A> List<A> filter(List<A> xs, Function1<A, Object> p) {
+        return (List<A>) xs.filter(p);
+    }
+
+    static <A, B> List<B> flatMap(List<A> xs, Function1<A, GenTraversableOnce<B>> f) {
+        return (List<B>) xs.flatMap(f, (CanBuildFrom<List<A>, B, List<B>>) CBF);
+    }
+
+    static <A> List<A> append(List<A> xs, List<A> ys) {
+        return ys.$colon$colon$colon(xs);
+    }
+
+    static <A, B> B foldLeft(List<A> xs, B zero, Function2<B, A, B> op) {
+        return xs.foldLeft(zero, op);
+    }
+
+    static <A, B> B foldRight(List<A> xs, B zero, Function2<A, B, B> op) {
+        return xs.foldRight(zero, op);
+    }
+
+    static <A> List<Tuple2<A, Object>> zipWithIndex(List<A> xs) {
+        return (List<Tuple2<A, Object>>) ((IterableLike) xs).zipWithIndex(CBF);
+    }
+
+    static <A> java.util.List<A> toJavaList(List<A> xs) {
+        return new ArrayList<>(JavaConverters.seqAsJavaListConverter(xs).asJava());
+    }
+
+    static <A> Set<A> toJavaSet(List<A> xs) {
+        return new HashSet<>(JavaConverters.setAsJavaSetConverter(xs.<A>toSet()).asJava());
+    }
+}
@@ -0,0 +1,40 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Searches that are decided by the first, the middle or no element of the list.
+ */
+public class SearchBenchmark extends SizedCollections {
+
+    @Benchmark
+    public boolean cListExistsFirst() {
+        return cList.exists(x -> x == 0);
+    }
+
+    @Benchmark
+    public boolean cListExistsMiddle() {
+        return cList.exists(x -> x == size / 2);
+    }
+
+    @Benchmark
+    public boolean cListContainsNone() {
+        return cList.contains(-1);
+    }
+
+    @Benchmark
+    public boolean arrayListContainsNone() {
+        return arrayList.contains(-1);
+    }
+
+    @Benchmark
+    public CList<Integer> cListTakeWhileHalf() {
+        return cList.takeWhile(x -> x < size / 2);
+    }
+
+    @Benchmark
+    public CList.Pair<CList<Integer>, CList<Integer>> cListSplitAtHalf() {
+        return cList.splitAt(size / 2);
+    }
+}
@@ -0,0 +1,56 @@
+package mytypes.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.*;
+
+/**
+ * Java serialization of a CList, written through its serialization proxy, against the default serialization of ArrayList.
+ */
+public class SerializationBenchmark extends SizedCollections {
+
+    private byte[] serializedCList;
+    private byte[] serializedArrayList;
+
+    @Setup(Level.Trial)
+    public void serializeCollections() throws IOException {
+        serializedCList = serialize(cList);
+        serializedArrayList = serialize(arrayList);
+    }
+
+    private static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(obj);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] cListWrite() throws IOException {
+        return serialize(cList);
+    }
+
+    @Benchmark
+    public byte[] arrayListWrite() throws IOException {
+        return serialize(arrayList);
+    }
+
+    @Benchmark
+    public Object cListRead() throws IOException, ClassNotFoundException {
+        return deserialize(serializedCList);
+    }
+
+    @Benchmark
+    public Object arrayListRead() throws IOException, ClassNotFoundException {
+        return deserialize(serializedArrayList);
+    }
+}
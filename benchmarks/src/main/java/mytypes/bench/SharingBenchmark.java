@@ -0,0 +1,48 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import static mytypes.CList.clist;
+
+/**
+ * Allocation of operations that can share the unchanged suffix of their input.
+ * Compare gc.alloc.rate.norm of the sharing cases with filterEveryOther, which cannot share anything.
+ */
+public class SharingBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> filterAllSurvive() {
+        return cList.filter(x -> x >= 0);
+    }
+
+    @Benchmark
+    public CList<Integer> filterMostSurvive() {
+        return cList.filter(x -> x >= 5);
+    }
+
+    @Benchmark
+    public CList<Integer> filterEveryOther() {
+        return cList.filter(x -> x % 2 == 0);
+    }
+
+    @Benchmark
+    public CList<Integer> mapIdentity() {
+        return cList.map(x -> x);
+    }
+
+    @Benchmark
+    public CList<Integer> mapFirstElement() {
+        return cList.map(x -> x == 0 ? Integer.valueOf(-1) : x);
+    }
+
+    @Benchmark
+    public CList<Integer> takeAll() {
+        return cList.take(size);
+    }
+
+    @Benchmark
+    public CList<Integer> appendEmpty() {
+        return cList.append(clist());
+    }
+}
@@ -0,0 +1,45 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static mytypes.CList.clist;
+
+/**
+ * Common state of all benchmarks: the same elements held in a CList and in the collections it is compared with.
+ * The elements are shared between all collections, so only the collection structure differs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public abstract class SizedCollections {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    protected Integer[] array;
+    protected List<Integer> arrayList;
+    protected LinkedList<Integer> linkedList;
+    protected CList<Integer> cList;
+    protected scala.collection.immutable.List<Integer> scalaList;
+
+    @Setup(Level.Trial)
+    public void setUpCollections() {
+        array = new Integer[size];
+        for (int i = 0; i < size; i++)
+            array[i] = i;
+        arrayList = new ArrayList<>(Arrays.asList(array));
+        linkedList = new LinkedList<>(arrayList);
+        cList = clist(arrayList);
+        scalaList = ScalaLists.fromArray(array);
+    }
+}
@@ -0,0 +1,60 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import mytypes.CTreeSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static mytypes.CList.clist;
+
+/**
+ * Sorting a shuffled CList, compared with sorting a copy of an ArrayList and with building a CTreeSet.
+ */
+public class SortBenchmark extends SizedCollections {
+
+    private List<Integer> shuffledList;
+    private CList<Integer> shuffled;
+
+    @Setup(Level.Trial)
+    public void shuffle() {
+        shuffledList = new ArrayList<>(arrayList);
+        Collections.shuffle(shuffledList, new Random(42));
+        shuffled = clist(shuffledList);
+    }
+
+    @Benchmark
+    public CList<Integer> cListSorted() {
+        return shuffled.sorted();
+    }
+
+    @Benchmark
+    public CList<Integer> cListSortBy() {
+        return shuffled.sortBy(x -> -x);
+    }
+
+    @Benchmark
+    public CList<Integer> cListSortedAlreadySorted() {
+        return cList.sorted();
+    }
+
+    @Benchmark
+    public List<Integer> arrayListCopyAndSort() {
+        List<Integer> copy = new ArrayList<>(shuffledList);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public CTreeSet<Integer> cTreeSet() {
+        CTreeSet<Integer> result = CTreeSet.empty();
+        for (CList<Integer> xs = shuffled; xs.nonEmpty(); xs = xs.tail())
+            result = result.added(xs.head());
+        return result;
+    }
+}
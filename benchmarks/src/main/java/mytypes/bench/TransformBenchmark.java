@@ -0,0 +1,49 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static mytypes.CList.clist;
+
+/**
+ * A map/filter/flatMap chain, as typically found in our pipelines.
+ */
+public class TransformBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Integer> cList() {
+        return cList.map(x -> x + 1)
+                .filter(x -> x % 2 == 0)
+                .flatMap(x -> clist(x, -x));
+    }
+
+    @Benchmark
+    public List<Integer> arrayList() {
+        return arrayList.stream()
+                .map(x -> x + 1)
+                .filter(x -> x % 2 == 0)
+                .flatMap(x -> Arrays.asList(x, -x).stream())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> linkedList() {
+        return linkedList.stream()
+                .map(x -> x + 1)
+                .filter(x -> x % 2 == 0)
+                .flatMap(x -> Arrays.asList(x, -x).stream())
+                .collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    @Benchmark
+    public scala.collection.immutable.List<Integer> scalaList() {
+        scala.collection.immutable.List<Integer> mapped = ScalaLists.map(scalaList, x -> x + 1);
+        scala.collection.immutable.List<Integer> filtered = ScalaLists.filter(mapped, x -> x % 2 == 0);
+        return ScalaLists.flatMap(filtered, x -> ScalaLists.<Integer>empty().$colon$colon(-x).$colon$colon(x));
+    }
+}
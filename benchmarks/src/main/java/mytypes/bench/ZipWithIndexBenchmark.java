@@ -0,0 +1,49 @@
+package mytypes.bench;
+
+import mytypes.CList;
+import mytypes.ObjIntPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import scala.Tuple2;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import mytypes.CList.Pair;
+
+public class ZipWithIndexBenchmark extends SizedCollections {
+
+    @Benchmark
+    public CList<Pair<Integer, Integer>> cList() {
+        return cList.zipWithIndex();
+    }
+
+    @Benchmark
+    public CList<ObjIntPair<Integer>> cListZipWithIntIndex() {
+        return cList.zipWithIntIndex();
+    }
+
+    @Benchmark
+    public long cListFoldLeftIndexed() {
+        return cList.foldLeftIndexed(0L, (acc, x, i) -> acc + (long) x * i);
+    }
+
+    @Benchmark
+    public long cListZipWithIndexFoldLeft() {
+        return cList.zipWithIndex().foldLeft(0L, (acc, p) -> acc + (long) p._1 * p._2);
+    }
+
+    @Benchmark
+    public List<Map.Entry<Integer, Integer>> arrayList() {
+        List<Map.Entry<Integer, Integer>> result = new ArrayList<>(arrayList.size());
+        for (int i = 0; i < arrayList.size(); i++)
+            result.add(new SimpleImmutableEntry<>(arrayList.get(i), i));
+        return result;
+    }
+
+    @Benchmark
+    public scala.collection.immutable.List<Tuple2<Integer, Object>> scalaList() {
+        return ScalaLists.zipWithIndex(scalaList);
+    }
+}
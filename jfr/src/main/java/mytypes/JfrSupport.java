@@ -0,0 +1,49 @@
+package mytypes;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder side of CListMetrics. jdk.jfr is not part of the Java 8 platform, so this class lives in
+ * its own module; CListMetrics loads it by name when it is on the class path and jdk.jfr exists.
+ */
+final class JfrSupport implements CListMetrics.EventSupport {
+
+    @Name("mytypes.CListOperation")
+    @Label("CList Operation")
+    @Category({"mytypes", "CList"})
+    @Description("An expensive operation on a long CList")
+    static final class CListOperationEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Size")
+        @Description("The number of elements of the list the operation was called on")
+        int size;
+    }
+
+    JfrSupport() {
+    }
+
+    @Override
+    public Object begin() {
+        CListOperationEvent event = new CListOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(Object begun, CListMetrics.Operation op, int size) {
+        CListOperationEvent event = (CListOperationEvent) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = op.metricName;
+            event.size = size;
+            event.commit();
+        }
+    }
+}
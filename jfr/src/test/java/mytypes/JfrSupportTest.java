@@ -0,0 +1,61 @@
+package mytypes;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JfrSupportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void disable() {
+        CListMetrics.disable();
+    }
+
+    private static CList<Integer> range(int n) {
+        CList.Builder<Integer> result = CList.builder();
+        for (int i = 0; i < n; i++)
+            result.add(i % 100);
+        return result.result();
+    }
+
+    @Test
+    public void test01_JFR_events_should_record_operation_and_size() throws Exception {
+        Path file = folder.newFile("clist.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable("mytypes.CListOperation");
+            recording.start();
+            assertThat(CListMetrics.enableJfr(true), is(true));
+            range(3000).reverse();
+            range(3000).toList();
+            CListMetrics.enableJfr(false);
+            range(3000).reverse();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<String> operations = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("mytypes.CListOperation")) {
+                operations.add(event.getString("operation"));
+                assertThat(event.getInt("size"), is(3000));
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        expected.add("clist.reverse");
+        expected.add("clist.toList");
+        assertThat(operations, is(expected));
+    }
+}
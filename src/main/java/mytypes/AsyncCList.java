@@ -0,0 +1,202 @@
+package mytypes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * The asynchronous operations of CList: mapAsync, traverse and sequence.
+ * <p>
+ * Results are stored by index and the result list is built once all of them are there, so it keeps the order
+ * of the input whatever order the futures complete in. The first failure completes the result exceptionally
+ * and cancels the futures still running; cancelling the result does the same.
+ * <p>
+ * Nothing here blocks or holds a monitor: the state is kept in atomics and every step runs as a completion
+ * callback or an executor task, so the operations also work on virtual threads without pinning their carriers.
+ */
+final class AsyncCList {
+
+    private AsyncCList() {
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(t);
+        return result;
+    }
+
+    /**
+     * Cancels the futures in running once result completes without a value.
+     */
+    private static void cancelOnFailure(CompletableFuture<?> result, AtomicReferenceArray<CompletableFuture<?>> running) {
+        result.whenComplete((r, t) -> {
+            if (t != null)
+                for (int i = 0; i < running.length(); i++) {
+                    CompletableFuture<?> f = running.get(i);
+                    if (f != null)
+                        f.cancel(true);
+                }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CList<T> resultList(Object[] results) {
+        return CList.fromArray((T[]) results);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> CompletableFuture<CList<T>> sequence(CList<? extends CompletableFuture<? extends T>> futures) {
+        Object[] fs = futures.toArray();
+        int n = fs.length;
+        if (n == 0)
+            return CompletableFuture.completedFuture(CList.nil());
+        CompletableFuture<CList<T>> result = new CompletableFuture<>();
+        AtomicReferenceArray<CompletableFuture<?>> running = new AtomicReferenceArray<>(n);
+        Object[] results = new Object[n];
+        AtomicInteger remaining = new AtomicInteger(n);
+        cancelOnFailure(result, running);
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            CompletableFuture<? extends T> f = (CompletableFuture<? extends T>) fs[i];
+            running.set(i, f);
+            f.whenComplete((x, t) -> {
+                if (t != null)
+                    result.completeExceptionally(unwrap(t));
+                else {
+                    results[index] = x;
+                    if (remaining.decrementAndGet() == 0)     // orders the writes to results before the read
+                        result.complete(resultList(results));
+                }
+            });
+        }
+        return result;
+    }
+
+    static <A, B> CompletableFuture<CList<B>> traverse(CList<A> xs, Function<? super A, ? extends CompletableFuture<? extends B>> f) {
+        CList.Builder<CompletableFuture<? extends B>> futures = CList.builder();
+        for (CList<A> ys = xs; ys.nonEmpty(); ys = ys.tail()) {
+            CompletableFuture<? extends B> future;
+            try {
+                future = f.apply(ys.head());
+                if (future == null)
+                    throw new NullPointerException("the function returned null instead of a CompletableFuture");
+            } catch (Throwable t) {
+                future = failed(t);
+            }
+            futures.add(future);
+            if (future.isCompletedExceptionally())
+                break;
+        }
+        return sequence(futures.result());
+    }
+
+    static <A, B> CompletableFuture<CList<B>> mapAsync(CList<A> xs, int parallelism, Executor executor,
+                                                       Function<? super A, ? extends CompletableFuture<? extends B>> f) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        Object[] elems = xs.toArray();
+        if (elems.length == 0)
+            return CompletableFuture.completedFuture(CList.nil());
+        MapAsync<A, B> run = new MapAsync<>(elems, executor, f);
+        for (int i = Math.min(parallelism, elems.length); i > 0; i--)
+            run.launch();
+        return run.result;
+    }
+
+    /**
+     * One mapAsync call. Each of the parallelism workers takes the next index, calls f on the executor and
+     * continues when the future completes; a worker whose future is already done continues in a loop, so
+     * synchronous functions and direct executors do not grow the stack.
+     */
+    private static final class MapAsync<A, B> {
+        final Object[] elems;
+        final Executor executor;
+        final Function<? super A, ? extends CompletableFuture<? extends B>> f;
+        final CompletableFuture<CList<B>> result = new CompletableFuture<>();
+        final AtomicReferenceArray<CompletableFuture<?>> running;
+        final Object[] results;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining;
+
+        MapAsync(Object[] elems, Executor executor, Function<? super A, ? extends CompletableFuture<? extends B>> f) {
+            this.elems = elems;
+            this.executor = executor;
+            this.f = f;
+            this.running = new AtomicReferenceArray<>(elems.length);
+            this.results = new Object[elems.length];
+            this.remaining = new AtomicInteger(elems.length);
+            cancelOnFailure(result, running);
+        }
+
+        void launch() {
+            try {
+                executor.execute(this::work);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void work() {
+            while (!result.isDone()) {
+                int i = next.getAndIncrement();
+                if (i >= elems.length)
+                    return;
+                CompletableFuture<? extends B> future;
+                try {
+                    future = f.apply((A) elems[i]);
+                    if (future == null)
+                        throw new NullPointerException("the function returned null instead of a CompletableFuture");
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    return;
+                }
+                running.set(i, future);
+                if (result.isDone()) {      // failed meanwhile, after the running futures were cancelled
+                    future.cancel(true);
+                    return;
+                }
+                if (!future.isDone()) {
+                    future.whenComplete((x, t) -> {
+                        if (complete(i, x, t))
+                            launch();
+                    });
+                    return;
+                }
+                Object x;
+                try {
+                    x = future.join();
+                } catch (Throwable t) {
+                    complete(i, null, t);
+                    return;
+                }
+                if (!complete(i, x, null))
+                    return;
+            }
+        }
+
+        /**
+         * Records the outcome of element i, returns true if the worker should go on with the next element.
+         */
+        private boolean complete(int i, Object x, Throwable t) {
+            running.set(i, null);
+            if (t != null) {
+                result.completeExceptionally(unwrap(t));
+                return false;
+            }
+            results[i] = x;
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(resultList(results));
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package mytypes;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.UnaryOperator;
+
+import static mytypes.CList.cell;
+
+/**
+ * AtomicCList is a lock-free holder of a CList shared between threads; used through push and pop it is a
+ * Treiber stack.
+ * <p>
+ * Since a CList is immutable, an update computes the new list from a snapshot of the current one and installs
+ * it with a single compare-and-set, which is retried on a fresh snapshot if another thread got in between.
+ * get() is a single volatile read and therefore wait-free; the list it returns never changes.
+ * <p>
+ * After a failed compare-and-set a thread backs off for a random number of spins before it retries, doubling
+ * the limit up to MAX_BACKOFF while it keeps failing, so contended threads spread out instead of invalidating
+ * each other's cache line on every attempt. The spinning does not touch the list at all.
+ * <p>
+ * The update functions may be called several times under contention and must be free of side effects.
+ */
+public final class AtomicCList<A> {
+
+    static final int MIN_BACKOFF = 1 << 4;
+    static final int MAX_BACKOFF = 1 << 12;
+
+    private static final AtomicReferenceFieldUpdater<AtomicCList<?>, CList<?>> LIST = updater();
+
+    private volatile CList<A> list;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AtomicReferenceFieldUpdater<AtomicCList<?>, CList<?>> updater() {
+        return (AtomicReferenceFieldUpdater) AtomicReferenceFieldUpdater.newUpdater(AtomicCList.class, CList.class, "list");
+    }
+
+    public AtomicCList() {
+        this(CList.nil());
+    }
+
+    public AtomicCList(CList<A> initial) {
+        this.list = initial;
+    }
+
+    /**
+     * The current list, wait-free.
+     */
+    public CList<A> get() {
+        return list;
+    }
+
+    public void set(CList<A> xs) {
+        list = xs;
+    }
+
+    public boolean compareAndSet(CList<A> expected, CList<A> update) {
+        return LIST.compareAndSet(this, expected, update);
+    }
+
+    public CList<A> getAndSet(CList<A> xs) {
+        @SuppressWarnings("unchecked")
+        CList<A> previous = (CList<A>) LIST.getAndSet(this, xs);
+        return previous;
+    }
+
+    /**
+     * Spins for a random number of steps below limit, returns the limit for the next attempt, and yields once
+     * the limit is at its maximum.
+     * A step is a round of xorshift, as in Exchanger. The sources are compiled for Java 8, so
+     * Thread.onSpinWait is not available to mark the loop as a spin.
+     */
+    static int backoff(int limit) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int spins = random.nextInt(limit);
+        int h = random.nextInt() | 1;
+        for (int i = 0; i < spins; i++) {
+            h ^= h << 1;
+            h ^= h >>> 3;
+            h ^= h << 10;
+        }
+        // h starts odd and xorshift maps nonzero values to nonzero values, so h == 0 never holds: it is only
+        // there to use h, or the JIT could remove the loop as dead code.
+        if (h == 0 || limit == MAX_BACKOFF)
+            Thread.yield();
+        return Math.min(limit << 1, MAX_BACKOFF);
+    }
+
+    public void push(A elem) {
+        int limit = MIN_BACKOFF;
+        for (CList<A> current = list; ; current = list) {
+            if (compareAndSet(current, cell(elem, current)))
+                return;
+            limit = backoff(limit);
+        }
+    }
+
+    /**
+     * Pushes the elements of xs in one step, so the head of xs becomes the head of the list.
+     */
+    public void pushAll(CList<A> xs) {
+        if (xs.nonEmpty())
+            updateAndGet(current -> xs.append(current));
+    }
+
+    /**
+     * Removes the head of the list and returns it.
+     */
+    public A pop() {
+        int limit = MIN_BACKOFF;
+        for (CList<A> current = list; ; current = list) {
+            if (current.isEmpty())
+                throw new NoSuchElementException("pop on empty AtomicCList");
+            if (compareAndSet(current, current.tail()))
+                return current.head();
+            limit = backoff(limit);
+        }
+    }
+
+    public Optional<A> popOption() {
+        int limit = MIN_BACKOFF;
+        for (CList<A> current = list; ; current = list) {
+            if (current.isEmpty())
+                return Optional.empty();
+            if (compareAndSet(current, current.tail()))
+                return Optional.ofNullable(current.head());
+            limit = backoff(limit);
+        }
+    }
+
+    /**
+     * Replaces the list by f(list) and returns the new list.
+     */
+    public CList<A> updateAndGet(UnaryOperator<CList<A>> f) {
+        int limit = MIN_BACKOFF;
+        for (CList<A> current = list; ; current = list) {
+            CList<A> update = f.apply(current);
+            if (update == current || compareAndSet(current, update))
+                return update;
+            limit = backoff(limit);
+        }
+    }
+
+    /**
+     * Replaces the list by f(list) and returns the list it replaced.
+     */
+    public CList<A> getAndTransform(UnaryOperator<CList<A>> f) {
+        int limit = MIN_BACKOFF;
+        for (CList<A> current = list; ; current = list) {
+            CList<A> update = f.apply(current);
+            if (update == current || compareAndSet(current, update))
+                return current;
+            limit = backoff(limit);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AtomicCList(" + list + ")";
+    }
+}
@@ -0,0 +1,275 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static mytypes.CList.Pair.pair;
+
+/**
+ * CChain is a catenable sequence, a binary tree of non-empty CList chunks like Cats' Chain.
+ * <p>
+ * append, prepend and their single element variants only allocate one node, so folding any number of lists
+ * together with CChain::append is linear in the number of lists, however the fold is nested. uncons, iteration
+ * and toCList walk the tree with an explicit stack and take linear time in total; toCList shares the last chunk.
+ * <p>
+ * Empty chains are never children of an Append node, so a chain is empty if and only if it is the Empty singleton.
+ */
+public abstract class CChain<A> implements Iterable<A> {
+
+    private static final CChain<?> EMPTY = new Empty<>();
+
+    private static final class Empty<A> extends CChain<A> {
+    }
+
+    private static final class Chunk<A> extends CChain<A> {
+        final CList<A> elems;      // never empty
+
+        Chunk(CList<A> elems) {
+            this.elems = elems;
+        }
+    }
+
+    private static final class Append<A> extends CChain<A> {
+        final CChain<A> left;      // never empty
+        final CChain<A> right;     // never empty
+
+        Append(CChain<A> left, CChain<A> right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private CChain() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CChain<T> empty() {
+        return (CChain<T>) EMPTY;
+    }
+
+    public static <T> CChain<T> one(T elem) {
+        return new Chunk<>(CList.cell(elem, CList.nil()));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> CChain<T> cchain(T... elems) {
+        return fromCList(CList.clist(elems));
+    }
+
+    /**
+     * The chain of the elements of xs, in O(1); the list is shared.
+     */
+    public static <T> CChain<T> fromCList(CList<T> xs) {
+        return xs.isEmpty() ? empty() : new Chunk<>(xs);
+    }
+
+    /**
+     * The concatenation of the lists in O(k) for k lists, independent of their lengths.
+     */
+    public static <T> CChain<T> concat(Iterable<? extends CList<T>> lists) {
+        CChain<T> result = empty();
+        for (CList<T> xs : lists)
+            result = result.append(xs);
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public boolean nonEmpty() {
+        return this != EMPTY;
+    }
+
+    /**
+     * The number of elements, in O(n) the first time the chunks are measured, see CList.length.
+     */
+    public int size() {
+        int size = 0;
+        for (Iterator<CList<A>> it = chunks(); it.hasNext(); )
+            size += it.next().length();
+        return size;
+    }
+
+    public CChain<A> append(CChain<A> other) {
+        if (other.isEmpty())
+            return this;
+        if (isEmpty())
+            return other;
+        return new Append<>(this, other);
+    }
+
+    public CChain<A> append(CList<A> other) {
+        return append(fromCList(other));
+    }
+
+    public CChain<A> prepend(CChain<A> other) {
+        return other.append(this);
+    }
+
+    public CChain<A> prepend(CList<A> other) {
+        return fromCList(other).append(this);
+    }
+
+    public CChain<A> appended(A elem) {
+        return append(one(elem));
+    }
+
+    public CChain<A> prepended(A elem) {
+        return one(elem).append(this);
+    }
+
+    /**
+     * The first element and the chain of the other elements.
+     * The left spine walked down to the first chunk is rebuilt right-nested, so draining a chain with repeated
+     * uncons visits every node only once, even if it was built by left-nested appends.
+     */
+    public Optional<CList.Pair<A, CChain<A>>> uncons() {
+        if (isEmpty())
+            return Optional.empty();
+        ArrayDeque<CChain<A>> rights = new ArrayDeque<>();
+        CChain<A> c = this;
+        while (c instanceof Append) {
+            rights.push(((Append<A>) c).right);
+            c = ((Append<A>) c).left;
+        }
+        CList<A> chunk = ((Chunk<A>) c).elems;
+        CChain<A> rest = empty();
+        while (!rights.isEmpty())
+            rest = rights.removeLast().append(rest);
+        return Optional.of(pair(chunk.head(), fromCList(chunk.tail()).append(rest)));
+    }
+
+    public Optional<A> headOption() {
+        CChain<A> c = this;
+        while (c instanceof Append)
+            c = ((Append<A>) c).left;
+        return c.isEmpty() ? Optional.empty() : Optional.ofNullable(((Chunk<A>) c).elems.head());
+    }
+
+    /**
+     * The chunks in order, with an explicit stack of the right subtrees still to visit.
+     */
+    private Iterator<CList<A>> chunks() {
+        return new Iterator<CList<A>>() {
+            private final ArrayDeque<CChain<A>> stack = new ArrayDeque<>();
+
+            {
+                if (nonEmpty())
+                    stack.push(CChain.this);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public CList<A> next() {
+                if (stack.isEmpty())
+                    throw new NoSuchElementException();
+                CChain<A> c = stack.pop();
+                while (c instanceof Append) {
+                    stack.push(((Append<A>) c).right);
+                    c = ((Append<A>) c).left;
+                }
+                return ((Chunk<A>) c).elems;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        Iterator<CList<A>> chunks = chunks();
+        return new Iterator<A>() {
+            private CList<A> rest = CList.nil();
+
+            @Override
+            public boolean hasNext() {
+                return rest.nonEmpty() || chunks.hasNext();
+            }
+
+            @Override
+            public A next() {
+                if (rest.isEmpty())
+                    rest = chunks.next();
+                A elem = rest.head();
+                rest = rest.tail();
+                return elem;
+            }
+        };
+    }
+
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = zero;
+        for (Iterator<CList<A>> it = chunks(); it.hasNext(); )
+            acc = it.next().foldLeft(acc, op);
+        return acc;
+    }
+
+    public void foreach(Consumer<A> c) {
+        for (Iterator<CList<A>> it = chunks(); it.hasNext(); )
+            it.next().foreach(c);
+    }
+
+    public <B> CChain<B> map(Function<A, B> f) {
+        CChain<B> result = empty();
+        for (Iterator<CList<A>> it = chunks(); it.hasNext(); )
+            result = result.append(it.next().map(f));
+        return result;
+    }
+
+    /**
+     * The elements as a CList, in time linear in the number of elements; the last chunk is shared.
+     */
+    public CList<A> toCList() {
+        CList.Builder<A> result = CList.builder();
+        Iterator<CList<A>> it = chunks();
+        while (it.hasNext()) {
+            CList<A> chunk = it.next();
+            if (!it.hasNext())
+                return result.prependTo(chunk);
+            result.addAll(chunk);
+        }
+        return result.result();
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>();
+        foreach(result::add);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CChain)) return false;
+        Iterator<?> ys = ((CChain<?>) o).iterator();
+        for (A elem : this)
+            if (!ys.hasNext() || !Objects.equals(elem, ys.next()))
+                return false;
+        return !ys.hasNext();
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (A elem : this)
+            h = 31 * h + Objects.hashCode(elem);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CChain(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
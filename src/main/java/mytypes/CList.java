@@ -1,23 +1,51 @@
 package mytypes;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static mytypes.CList.Pair.pair;
 
 /**
  * CList is a ConsList.
  */
-public abstract class CList<A> {
+public abstract class CList<A> implements Iterable<A>, Serializable {
 
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Pairs are used as map keys, so the hash is cached like the hash of a Cons.
+     * The elements may be null.
+     */
     @SuppressWarnings("WeakerAccess")
-    public static class Pair<T, U> {
+    public static class Pair<T, U> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         public final T _1;
         public final U _2;
+        private transient int hash;     // 0 = not computed yet
 
         public Pair(T _1, U _2) {
             this._1 = _1;
@@ -38,14 +66,19 @@ public abstract class CList<A> {
 
             Pair<?, ?> pair = (Pair<?, ?>) o;
 
-            return _1.equals(pair._1) && _2.equals(pair._2);
+            if (hash != 0 && pair.hash != 0 && hash != pair.hash)
+                return false;
+            return Objects.equals(_1, pair._1) && Objects.equals(_2, pair._2);
         }
 
         @Override
         public int hashCode() {
-            int result = _1.hashCode();
-            result = 31 * result + _2.hashCode();
-            return result;
+            int h = hash;
+            if (h == 0) {
+                h = 31 * Objects.hashCode(_1) + Objects.hashCode(_2);
+                hash = h;
+            }
+            return h;
         }
 
         @Override
@@ -54,31 +87,261 @@ public abstract class CList<A> {
         }
     }
 
+    /**
+     * A function of an element and its index.
+     */
+    @FunctionalInterface
+    public interface IndexedFunction<A, B> {
+        B apply(A elem, int index);
+    }
+
+    /**
+     * The operator of foldLeftIndexed: the accumulator, an element and its index.
+     */
+    @FunctionalInterface
+    public interface IndexedFoldFunction<B, A> {
+        B apply(B acc, A elem, int index);
+    }
+
+
+    /**
+     * Builds a CList front to back, like Scala's ListBuffer.
+     * The elements are buffered in arrays, and result() creates the cells from the back, so every cell is
+     * immutable with final fields and knows its length from the start; the returned CList is safe under racy
+     * publication like any other CList. result() takes O(n) and resets the builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder<A> {
+
+        private static final int MIN_CHUNK = 16;
+        private static final int MAX_CHUNK = 1 << 12;
+
+        private final ArrayList<Object[]> chunks = new ArrayList<>();     // full chunks, in order
+        private Object[] current = new Object[MIN_CHUNK];
+        private int count;          // elements in current
+        private int size;
+
+        public Builder<A> add(A elem) {
+            if (count == current.length) {
+                chunks.add(current);
+                current = new Object[Math.min(current.length << 1, MAX_CHUNK)];
+                count = 0;
+            }
+            current[count++] = elem;
+            size++;
+            return this;
+        }
+
+        public Builder<A> addAll(CList<? extends A> elems) {
+            for (CList<? extends A> xs = elems; xs.nonEmpty(); xs = xs.tail())
+                add(xs.head());
+            return this;
+        }
+
+        public Builder<A> addAll(Iterator<? extends A> elems) {
+            while (elems.hasNext())
+                add(elems.next());
+            return this;
+        }
+
+        public Builder<A> addAll(Iterable<? extends A> elems) {
+            return addAll(elems.iterator());
+        }
+
+        /**
+         * Moves the chunks of other to the end of this builder, copying at most one partial chunk of each;
+         * other is reset.
+         */
+        Builder<A> appendAll(Builder<A> other) {
+            if (other.size == 0)
+                return this;
+            if (count > 0)
+                chunks.add(count == current.length ? current : Arrays.copyOf(current, count));
+            chunks.addAll(other.chunks);
+            current = other.current;
+            count = other.count;
+            size += other.size;
+            other.reset();
+            return this;
+        }
+
+        private void reset() {
+            chunks.clear();
+            current = new Object[MIN_CHUNK];
+            count = 0;
+            size = 0;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public CList<A> result() {
+            return prependTo(nil());
+        }
+
+        /**
+         * Returns the elements added so far followed by tail. tail itself is shared, not copied.
+         */
+        @SuppressWarnings("unchecked")
+        public CList<A> prependTo(CList<A> tail) {
+            CList<A> result = tail;
+            for (int i = count - 1; i >= 0; i--)
+                result = new Cons<>((A) current[i], result);
+            for (int c = chunks.size() - 1; c >= 0; c--) {
+                Object[] chunk = chunks.get(c);
+                for (int i = chunk.length - 1; i >= 0; i--)
+                    result = new Cons<>((A) chunk[i], result);
+            }
+            reset();
+            return result;
+        }
+    }
 
     protected static CList NIL = new Nil();      // neutral value of concatenation
 
+    /**
+     * NIL with the element type of the caller.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CList<T> nil() {
+        return NIL;
+    }
+
+    /**
+     * Copies xs, so a left-nested fold with op is quadratic; fold into a CChain instead.
+     */
     protected static <T> CList<T> op(CList<T> xs, CList<T> ys) {      // concatenation
         return xs.append(ys);
     }
 
     public static <T> CList<T> clist(T... elems) {
-        return clist(Arrays.asList(elems));
+        return fromArray(elems);
     }
 
     public static <T> CList<T> clist(List<T> elems) {
         if (elems == null || elems.isEmpty()) {
             return NIL;
         } else {
-            T head = elems.get(0);
-            List<T> tail = elems.subList(1, elems.size());
-            return Cons.<T>cons(head, clist(tail));
+            return fromIterable(elems);
+        }
+    }
+
+    /**
+     * The node layouts a list can be built with. CONS allocates one cell per element; CHUNKED allocates one node
+     * per up to 16 elements, which holds them in an array, so it takes less memory per element and is faster to
+     * fold, while head and tail stay O(1). Lists of both representations are equal if they have equal elements.
+     */
+    public enum Representation {
+        CONS, CHUNKED
+    }
+
+    private static volatile Representation defaultRepresentation =
+            representation(System.getProperty("mytypes.clist.representation", "CONS"));
+
+    /**
+     * The Representation named by the system property, CONS with a warning if it names none.
+     */
+    static Representation representation(String name) {
+        try {
+            return Representation.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Logger.getLogger(CList.class.getName()).warning("mytypes.clist.representation: unknown representation "
+                    + name + ", using CONS");
+            return Representation.CONS;
         }
     }
 
+    /**
+     * The representation of the lists built by clist, fromArray, fromIterable and fromIterator; CONS unless the
+     * system property mytypes.clist.representation says otherwise.
+     */
+    public static Representation defaultRepresentation() {
+        return defaultRepresentation;
+    }
+
+    public static void setDefaultRepresentation(Representation representation) {
+        defaultRepresentation = Objects.requireNonNull(representation);
+    }
+
+    public static <T> CList<T> fromArray(T[] elems) {
+        return fromArray(elems, defaultRepresentation);
+    }
+
+    public static <T> CList<T> fromArray(T[] elems, Representation representation) {
+        if (representation == Representation.CHUNKED)
+            return ChunkedCList.ofArray(elems);
+        Builder<T> builder = new Builder<>();
+        for (T elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static <T> CList<T> fromIterable(Iterable<? extends T> elems) {
+        return fromIterator(elems.iterator());
+    }
+
+    public static <T> CList<T> fromIterator(Iterator<? extends T> elems) {
+        return fromIterator(elems, defaultRepresentation);
+    }
+
+    public static <T> CList<T> fromIterator(Iterator<? extends T> elems, Representation representation) {
+        if (representation == Representation.CHUNKED)
+            return ChunkedCList.ofIterator(elems);
+        return new Builder<T>().addAll(elems).result();
+    }
+
+    /**
+     * A list of the elements in the CHUNKED representation, whatever the default representation is.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> CList<T> chunked(T... elems) {
+        return fromArray(elems, Representation.CHUNKED);
+    }
+
+    /**
+     * A list whose cells are hash-consed by the global Interner, so that equal interned lists are identical.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> CList<T> interned(T... elems) {
+        return Interner.global().clist(elems);
+    }
+
+    /**
+     * A cell interned by interner, for Interner only.
+     */
+    static <T> CList<T> internedCell(T head, CList<T> tail, Interner interner) {
+        return new InternedCons<>(head, tail, interner);
+    }
+
+    /**
+     * The Interner that created the cell xs, null if xs is not an interned cell.
+     */
+    static Interner internerOf(CList<?> xs) {
+        return xs instanceof Cons ? ((Cons<?>) xs).interner() : null;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
     public static <T> Cons cons(T head, CList<T> tail) {
         return new Cons<T>(head, tail);
     }
 
+    /**
+     * cons with a typed result, for the classes of this package.
+     */
+    static <T> CList<T> cell(T head, CList<T> tail) {
+        return new Cons<>(head, tail);
+    }
+
     public abstract A head();
 
     public abstract CList<A> tail();
@@ -131,10 +394,412 @@ public abstract class CList<A> {
 
     public abstract <B> CList<B> flatMap(Function<A, CList<B>> f);
 
+    public IntCList mapToInt(ToIntFunction<A> f) {
+        IntCList.Builder result = IntCList.builder();
+        for (A x : this)
+            result.add(f.applyAsInt(x));
+        return result.result();
+    }
+
+    public LongCList mapToLong(ToLongFunction<A> f) {
+        LongCList.Builder result = LongCList.builder();
+        for (A x : this)
+            result.add(f.applyAsLong(x));
+        return result.result();
+    }
+
+    public DoubleCList mapToDouble(ToDoubleFunction<A> f) {
+        DoubleCList.Builder result = DoubleCList.builder();
+        for (A x : this)
+            result.add(f.applyAsDouble(x));
+        return result.result();
+    }
+
     public abstract CList<A> flatten();
 
     public CList<A> concat() { return flatten(); }
 
+    // --- searching and prefixes, they stop at the first decisive element
+
+    public Optional<A> find(Predicate<A> p) {
+        for (A x : this)
+            if (p.test(x))
+                return Optional.ofNullable(x);
+        return Optional.empty();
+    }
+
+    /**
+     * The result of f for the first element for which it is present, Java's stand-in for a partial function.
+     */
+    public <B> Optional<B> collectFirst(Function<A, Optional<B>> f) {
+        for (A x : this) {
+            Optional<B> result = f.apply(x);
+            if (result.isPresent())
+                return result;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The longest prefix of elements satisfying p. Returns this list if all elements satisfy p.
+     */
+    public CList<A> takeWhile(Predicate<A> p) {
+        return span(p)._1;
+    }
+
+    /**
+     * The suffix behind the longest prefix of elements satisfying p, shared with this list.
+     */
+    public CList<A> dropWhile(Predicate<A> p) {
+        CList<A> xs = this;
+        while (xs.nonEmpty() && p.test(xs.head()))
+            xs = xs.tail();
+        return xs;
+    }
+
+    /**
+     * (takeWhile(p), dropWhile(p)) in one pass; the second list is shared with this list.
+     */
+    public Pair<CList<A>, CList<A>> span(Predicate<A> p) {
+        Builder<A> prefix = new Builder<>();
+        CList<A> xs = this;
+        for (; xs.nonEmpty() && p.test(xs.head()); xs = xs.tail())
+            prefix.add(xs.head());
+        return xs.isEmpty() ? pair(this, xs) : pair(prefix.result(), xs);
+    }
+
+    /**
+     * (take(n), drop(n)) in one pass; the second list is shared with this list.
+     */
+    public Pair<CList<A>, CList<A>> splitAt(int n) {
+        Builder<A> prefix = new Builder<>();
+        CList<A> xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            prefix.add(xs.head());
+        return xs.isEmpty() ? pair(this, xs) : pair(prefix.result(), xs);
+    }
+
+    public boolean startsWith(CList<A> prefix) {
+        CList<A> xs = this;
+        CList<A> ys = prefix;
+        for (; xs.nonEmpty() && ys.nonEmpty(); xs = xs.tail(), ys = ys.tail()) {
+            if (xs == ys)
+                return true;
+            if (!Objects.equals(xs.head(), ys.head()))
+                return false;
+        }
+        return ys.isEmpty();
+    }
+
+    public Optional<A> lastOption() {
+        if (isEmpty())
+            return Optional.empty();
+        CList<A> xs = this;
+        while (xs.tail().nonEmpty())
+            xs = xs.tail();
+        return Optional.ofNullable(xs.head());
+    }
+
+    /**
+     * Whether both lists have the same length and p holds for all pairs of corresponding elements.
+     */
+    public <B> boolean corresponds(CList<B> that, BiPredicate<A, B> p) {
+        Iterator<A> xs = iterator();
+        Iterator<B> ys = that.iterator();
+        while (xs.hasNext() && ys.hasNext())
+            if (!p.test(xs.next(), ys.next()))
+                return false;
+        return !xs.hasNext() && !ys.hasNext();
+    }
+
+    // --- grouping and multiset algebra, one pass over the list with a hash table
+
+    /**
+     * The initial capacity of a hash table for n entries that is never resized.
+     */
+    static int hashCapacity(int n) {
+        return Math.max(16, (int) (n / .75f) + 1);
+    }
+
+    /**
+     * The keys are ordered by their first occurrence, the groups keep the order of the list.
+     * The builders of the groups are replaced by their results in place, in the same map.
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, CList<A>> groupBy(Function<A, K> key) {
+        Map<K, Object> groups = new LinkedHashMap<>(hashCapacity(length()));
+        for (A x : this)
+            ((Builder<A>) groups.computeIfAbsent(key.apply(x), k -> new Builder<A>())).add(x);
+        groups.replaceAll((k, group) -> ((Builder<A>) group).result());
+        return (Map<K, CList<A>>) (Map<K, ?>) groups;
+    }
+
+    /**
+     * groupBy(key), with every group mapped by f and reduced with reduce, without building the groups.
+     */
+    public <K, B> Map<K, B> groupMapReduce(Function<A, K> key, Function<A, B> f, BinaryOperator<B> reduce) {
+        Map<K, B> result = new LinkedHashMap<>(hashCapacity(length()));
+        for (A x : this)
+            result.merge(key.apply(x), f.apply(x), reduce);
+        return result;
+    }
+
+    /**
+     * Counts in an int[] cell per key, like occurrences, and boxes every count once at the end.
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, Integer> countBy(Function<A, K> key) {
+        Map<K, Object> counts = new LinkedHashMap<>(hashCapacity(length()));
+        for (A x : this)
+            ((int[]) counts.computeIfAbsent(key.apply(x), k -> new int[1]))[0]++;
+        counts.replaceAll((k, count) -> ((int[]) count)[0]);
+        return (Map<K, Integer>) (Map<K, ?>) counts;
+    }
+
+    /**
+     * (filter(p), filterNot(p)) in one pass. A list whose elements all go to one side is returned as it is.
+     */
+    public Pair<CList<A>, CList<A>> partition(Predicate<A> p) {
+        Builder<A> accepted = new Builder<>();
+        Builder<A> rejected = new Builder<>();
+        for (A x : this)
+            (p.test(x) ? accepted : rejected).add(x);
+        if (rejected.isEmpty())
+            return pair(this, rejected.result());
+        if (accepted.isEmpty())
+            return pair(accepted.result(), this);
+        return pair(accepted.result(), rejected.result());
+    }
+
+    /**
+     * The first occurrence of every element. Built on filter, so the longest suffix without duplicates is shared.
+     */
+    public CList<A> distinct() {
+        Set<A> seen = new HashSet<>(hashCapacity(length()));
+        return filter(seen::add);
+    }
+
+    /**
+     * The first element of every key.
+     */
+    public <K> CList<A> distinctBy(Function<A, K> key) {
+        Set<K> seen = new HashSet<>(hashCapacity(length()));
+        return filter(x -> seen.add(key.apply(x)));
+    }
+
+    /**
+     * The number of occurrences of every element of xs.
+     */
+    private static <T> Map<T, int[]> occurrences(CList<T> xs) {
+        Map<T, int[]> counts = new HashMap<>(hashCapacity(xs.length()));
+        for (T x : xs)
+            counts.computeIfAbsent(x, y -> new int[1])[0]++;
+        return counts;
+    }
+
+    /**
+     * The multiset difference, like Scala's diff: every element of that removes one occurrence from this list,
+     * the first one. The remaining elements keep their order.
+     */
+    public CList<A> diff(CList<A> that) {
+        if (isEmpty() || that.isEmpty())
+            return this;
+        Map<A, int[]> remove = occurrences(that);
+        return filter(x -> {
+            int[] count = remove.get(x);
+            return count == null || count[0]-- <= 0;
+        });
+    }
+
+    /**
+     * The multiset intersection, like Scala's intersect: every element of this list is kept as often as it
+     * occurs in that, the first occurrences first.
+     */
+    public CList<A> intersect(CList<A> that) {
+        if (isEmpty())
+            return this;
+        Map<A, int[]> keep = occurrences(that);
+        return filter(x -> {
+            int[] count = keep.get(x);
+            return count != null && count[0]-- > 0;
+        });
+    }
+
+    /**
+     * The multiset union: this list followed by the elements of that which are not matched by an occurrence here,
+     * so every element occurs as often as in the one of the two lists in which it occurs more often.
+     */
+    public CList<A> union(CList<A> that) {
+        return append(that.diff(this));
+    }
+
+    // --- ordering
+
+    /**
+     * Arrays of at least this many elements are sorted in parallel on the common ForkJoinPool.
+     */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    /**
+     * Sorts the array with a stable merge sort, in parallel for large arrays.
+     */
+    static <T> void sort(T[] array, Comparator<? super T> order) {
+        if (array.length >= PARALLEL_SORT_THRESHOLD)
+            Arrays.parallelSort(array, order);
+        else
+            Arrays.sort(array, order);
+    }
+
+    Object[] toArray() {
+        Object[] result = new Object[length()];
+        int i = 0;
+        for (A x : this)
+            result[i++] = x;
+        return result;
+    }
+
+    /**
+     * The elements in the order of order; equal elements keep their order in this list. Like sortBy, the result
+     * is built with fromArray, so it has the default representation.
+     */
+    @SuppressWarnings("unchecked")
+    public CList<A> sorted(Comparator<? super A> order) {
+        if (isEmpty() || tail().isEmpty())
+            return this;
+        A[] elems = (A[]) toArray();
+        sort(elems, order);
+        return fromArray(elems);
+    }
+
+    /**
+     * The elements in their natural order, they must be Comparable.
+     */
+    @SuppressWarnings("unchecked")
+    public CList<A> sorted() {
+        return sorted((Comparator<? super A>) Comparator.naturalOrder());
+    }
+
+    public <K extends Comparable<? super K>> CList<A> sortBy(Function<A, K> key) {
+        return sortBy(key, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts by the keys of the elements; key is applied once per element, not once per comparison.
+     * The result is built like the one of sorted, in the default representation.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <K> CList<A> sortBy(Function<A, K> key, Comparator<? super K> order) {
+        if (isEmpty() || tail().isEmpty())
+            return this;
+        Pair<K, A>[] keyed = new Pair[length()];
+        int i = 0;
+        for (A x : this)
+            keyed[i++] = pair(key.apply(x), x);
+        sort(keyed, (x, y) -> order.compare(x._1, y._1));
+        A[] elems = (A[]) new Object[keyed.length];
+        for (i = 0; i < keyed.length; i++)
+            elems[i] = keyed[i]._2;
+        return fromArray(elems);
+    }
+
+    /**
+     * Sorts with lessThan, which must be a strict order.
+     */
+    public CList<A> sortWith(BiPredicate<A, A> lessThan) {
+        return sorted((x, y) -> lessThan.test(x, y) ? -1 : lessThan.test(y, x) ? 1 : 0);
+    }
+
+    public boolean isSorted(Comparator<? super A> order) {
+        if (isEmpty())
+            return true;
+        Iterator<A> xs = iterator();
+        A prev = xs.next();
+        while (xs.hasNext()) {
+            A x = xs.next();
+            if (order.compare(prev, x) > 0)
+                return false;
+            prev = x;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean isSorted() {
+        return isSorted((Comparator<? super A>) Comparator.naturalOrder());
+    }
+
+    /**
+     * The first of the smallest elements.
+     */
+    public A min(Comparator<? super A> order) {
+        if (isEmpty())
+            throw new NoSuchElementException("min of empty CList");
+        Iterator<A> xs = iterator();
+        A min = xs.next();
+        while (xs.hasNext()) {
+            A x = xs.next();
+            if (order.compare(x, min) < 0)
+                min = x;
+        }
+        return min;
+    }
+
+    /**
+     * The first of the largest elements.
+     */
+    public A max(Comparator<? super A> order) {
+        if (isEmpty())
+            throw new NoSuchElementException("max of empty CList");
+        Iterator<A> xs = iterator();
+        A max = xs.next();
+        while (xs.hasNext()) {
+            A x = xs.next();
+            if (order.compare(x, max) > 0)
+                max = x;
+        }
+        return max;
+    }
+
+    /**
+     * The first element with the smallest key; key is applied once per element.
+     */
+    public <K extends Comparable<? super K>> A minBy(Function<A, K> key) {
+        if (isEmpty())
+            throw new NoSuchElementException("minBy of empty CList");
+        Iterator<A> xs = iterator();
+        A min = xs.next();
+        K minKey = key.apply(min);
+        while (xs.hasNext()) {
+            A x = xs.next();
+            K k = key.apply(x);
+            if (k.compareTo(minKey) < 0) {
+                min = x;
+                minKey = k;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * The first element with the largest key; key is applied once per element.
+     */
+    public <K extends Comparable<? super K>> A maxBy(Function<A, K> key) {
+        if (isEmpty())
+            throw new NoSuchElementException("maxBy of empty CList");
+        Iterator<A> xs = iterator();
+        A max = xs.next();
+        K maxKey = key.apply(max);
+        while (xs.hasNext()) {
+            A x = xs.next();
+            K k = key.apply(x);
+            if (k.compareTo(maxKey) > 0) {
+                max = x;
+                maxKey = k;
+            }
+        }
+        return max;
+    }
+
     public abstract CList<A> take(int n);
 
     public abstract CList<A> drop(int n);
@@ -145,11 +810,134 @@ public abstract class CList<A> {
 
     public abstract void foreach(Consumer<A> c);
 
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private CList<A> rest = CList.this;
+
+            @Override
+            public boolean hasNext() {
+                return rest.nonEmpty();
+            }
+
+            @Override
+            public A next() {
+                A elem = rest.head();
+                rest = rest.tail();
+                return elem;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super A> action) {
+        for (A x : this)
+            action.accept(x);
+    }
+
+    @Override
+    public Spliterator<A> spliterator() {
+        return new CListSpliterator<>(this);
+    }
+
+    /**
+     * A lazy view on this list: chained transformations on it run fused in one traversal, see CListView.
+     */
+    public CListView<A> view() {
+        return CListView.of(this);
+    }
+
+    /**
+     * A parallel view on this list: its bulk operations run on a ForkJoinPool, see ParCList.
+     */
+    public ParCList<A> par() {
+        return new ParCList<>(this);
+    }
+
+    // --- asynchronous operations, the results keep the order of the list, see AsyncCList
+
+    /**
+     * Maps the elements with the asynchronous function f, calling f on executor with at most parallelism
+     * futures in flight at a time. The first failure fails the result and cancels the futures still running.
+     * For blocking calls, pass an executor with a thread per task, e.g. one of virtual threads.
+     */
+    public <B> CompletableFuture<CList<B>> mapAsync(int parallelism, Executor executor,
+                                                    Function<A, CompletableFuture<B>> f) {
+        return AsyncCList.mapAsync(this, parallelism, executor, f);
+    }
+
+    /**
+     * Calls f on all elements right away, on the calling thread, and collects the results like sequence.
+     * f is not called any more once a call failed.
+     */
+    public <B> CompletableFuture<CList<B>> traverse(Function<A, CompletableFuture<B>> f) {
+        return AsyncCList.traverse(this, f);
+    }
+
+    /**
+     * The future of the list of the results of futures. Fails with the first failure and then cancels the
+     * futures not done yet.
+     */
+    public static <T> CompletableFuture<CList<T>> sequence(CList<CompletableFuture<T>> futures) {
+        return AsyncCList.sequence(futures);
+    }
+
+    /**
+     * The list equal to this one from the global Interner, see CList.interned.
+     */
+    public CList<A> intern() {
+        return Interner.global().intern(this);
+    }
+
+    public CStream<A> toCStream() {
+        return CStream.fromCList(this);
+    }
+
+    public CVector<A> toCVector() {
+        return CVector.fromCList(this);
+    }
+
+    public CSet<A> toCSet() {
+        return CSet.fromCList(this);
+    }
+
+    public CChain<A> toCChain() {
+        return CChain.fromCList(this);
+    }
+
+    /**
+     * A queue with the head of this list in front. The list is not copied, but its length is computed,
+     * which is O(1) for the lists built by cons and Builder.
+     */
+    public CQueue<A> toCQueue() {
+        return CQueue.fromCList(this);
+    }
+
+    /**
+     * Maps every element to an entry in one pass; later elements win over earlier ones with the same key.
+     */
+    public <K, V> CMap<K, V> toCMap(Function<A, K> key, Function<A, V> value) {
+        CMap.Builder<K, V> builder = CMap.builder();
+        for (A x : this)
+            builder.put(key.apply(x), value.apply(x));
+        return builder.result();
+    }
+
+    public Stream<A> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<A> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     public <B, C> CList<C> zipWith(BiFunction<A, B, C> f, CList<B> that) {
-        if (this.isEmpty() || that.isEmpty())
-            return NIL;
-        else
-            return cons(f.apply(this.head(), that.head()), tail().zipWith(f, that.tail()));
+        Iterator<A> xs = iterator();
+        Iterator<B> ys = that.iterator();
+        Builder<C> result = new Builder<>();
+        while (xs.hasNext() && ys.hasNext())
+            result.add(f.apply(xs.next(), ys.next()));
+        return result.result();
     }
 
     public <B> CList<Pair<A, B>> zip(CList<B> that) {
@@ -161,23 +949,171 @@ public abstract class CList<A> {
     }
 
     private static <T> CList<Pair<T,Integer>> zipWithIndex(CList<T> cl, int index) {
-        if (cl.isEmpty())
-            return NIL;
-        else {
-            Pair<T, Integer> head = pair(cl.head(), index);
-            CList<Pair<T, Integer>> tail = zipWithIndex(cl.tail(), index + 1);
-            return cons(head, tail);
+        Builder<Pair<T, Integer>> result = new Builder<>();
+        for (T x : cl)
+            result.add(pair(x, index++));
+        return result.result();
+    }
+
+    /**
+     * Like zipWithIndex, but with one ObjIntPair per element instead of a Pair and a boxed Integer.
+     */
+    public CList<ObjIntPair<A>> zipWithIntIndex() {
+        Builder<ObjIntPair<A>> result = new Builder<>();
+        int index = 0;
+        for (A x : this)
+            result.add(new ObjIntPair<>(x, index++));
+        return result.result();
+    }
+
+    // --- indexed operations, they do not allocate anything per element
+
+    public void foreachIndexed(ObjIntConsumer<A> c) {
+        int index = 0;
+        for (A x : this)
+            c.accept(x, index++);
+    }
+
+    public <B> CList<B> mapIndexed(IndexedFunction<A, B> f) {
+        Builder<B> result = new Builder<>();
+        int index = 0;
+        for (A x : this)
+            result.add(f.apply(x, index++));
+        return result.result();
+    }
+
+    public <B> B foldLeftIndexed(B zero, IndexedFoldFunction<B, A> op) {
+        B acc = zero;
+        int index = 0;
+        for (A x : this)
+            acc = op.apply(acc, x, index++);
+        return acc;
+    }
+
+    /**
+     * The index of the first element equal to elem, or -1.
+     */
+    public int indexOf(A elem) {
+        return indexWhere(x -> Objects.equals(x, elem), 0);
+    }
+
+    public int indexOf(A elem, int from) {
+        return indexWhere(x -> Objects.equals(x, elem), from);
+    }
+
+    /**
+     * The index of the first element satisfying p, or -1.
+     */
+    public int indexWhere(Predicate<A> p) {
+        return indexWhere(p, 0);
+    }
+
+    public int indexWhere(Predicate<A> p, int from) {
+        int index = Math.max(from, 0);
+        for (A x : drop(index)) {
+            if (p.test(x))
+                return index;
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * The index of the last element equal to elem, or -1.
+     */
+    public int lastIndexOf(A elem) {
+        return lastIndexWhere(x -> Objects.equals(x, elem));
+    }
+
+    public int lastIndexWhere(Predicate<A> p) {
+        int last = -1;
+        int index = 0;
+        for (A x : this) {
+            if (p.test(x))
+                last = index;
+            index++;
         }
+        return last;
     }
 
     protected static void println(String message) {
         System.out.println(message);
         System.out.flush();
     }
+
+    /**
+     * All CLists are serialized as a SerializationProxy, so deserialization never recurses along the tails.
+     */
+    protected final Object writeReplace() throws ObjectStreamException {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("CList is deserialized through its SerializationProxy");
+    }
+
+    /**
+     * Writes the length of the list and then its elements one after the other.
+     * Lists of Integer, Long, Double or String elements are written as primitives or UTF-8 without further tags,
+     * other lists with a tag per element: Integer, Long, Double, String and null are again written compactly,
+     * any other element with writeObject. The empty list is read back as the Nil singleton.
+     */
+    private static final class SerializationProxy implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+        private static final byte TAG_OBJECT = 6;
+
+        private CList<?> list;
+
+        public SerializationProxy() {      // for Externalizable
+        }
+
+        SerializationProxy(CList<?> list) {
+            this.list = list;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            byte tag = CListFile.tagOf(list);
+            out.writeInt(list.length());
+            out.writeByte(tag);
+            for (CList<?> xs = list; xs.nonEmpty(); xs = xs.tail()) {
+                Object elem = xs.head();
+                if (tag != CListFile.TAG_MIXED || CListFile.tagOf(elem) != CListFile.TAG_MIXED) {
+                    CListFile.writeElement(out, tag, elem);     // tagged by writeElement in a mixed list
+                } else {
+                    out.writeByte(TAG_OBJECT);
+                    out.writeObject(elem);
+                }
+            }
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            int length = in.readInt();
+            byte tag = in.readByte();
+            Builder<Object> result = new Builder<>();
+            for (int i = 0; i < length; i++) {
+                if (tag != CListFile.TAG_MIXED) {
+                    result.add(CListFile.readElement(in, tag));
+                } else {
+                    byte elemTag = in.readByte();
+                    result.add(elemTag == TAG_OBJECT ? in.readObject() : CListFile.readElement(in, elemTag));
+                }
+            }
+            list = result.result();
+        }
+
+        private Object readResolve() {
+            return list;
+        }
+    }
 }
 
 class Nil<A> extends CList<A> {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public A head() {
         throw new NoSuchElementException("head of empty CList");
@@ -289,12 +1225,12 @@ class Nil<A> extends CList<A> {
 
     @Override
     public int hashCode() {
-        return super.hashCode();
+        return 1;
     }
 
     @Override
     public boolean equals(Object o) {
-        return o != null || getClass() == o.getClass();
+        return o != null && getClass() == o.getClass();
     }
 
     @Override
@@ -305,12 +1241,24 @@ class Nil<A> extends CList<A> {
 
 class Cons<A> extends CList<A> {
 
+    private static final long serialVersionUID = 1L;
+
     private final A head;
     private final CList<A> tail;
+    private final int length;
+    private int hash;       // lazily computed, 0 if not yet known
 
     Cons(A head, CList<A> tail) {
         this.head = head;
         this.tail = tail;
+        this.length = tail instanceof Cons ? ((Cons<A>) tail).length + 1 : 1 + tail.length();
+    }
+
+    /**
+     * The Interner that created this cell, null for cells that are not interned.
+     */
+    Interner interner() {
+        return null;
     }
 
     @Override
@@ -340,127 +1288,279 @@ class Cons<A> extends CList<A> {
 
     @Override
     public int length() {
-        return 1 + tail.length();
+        return length;
     }
 
     @Override
     public CList<A> append(CList<A> other) {
-        return cons(head, tail.append(other));
+        if (other.isEmpty())
+            return this;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.APPEND);
+        CList<A> result = new Builder<A>().addAll(this).prependTo(other);
+        if (span != null)
+            span.end(length());
+        return result;
     }
 
     @Override
     public <B> B foldRight(B zero, BiFunction<A, B, B> op) {
-        return op.apply(head, tail.foldRight(zero, op));
+        B acc = zero;
+        for (CList<A> xs = reverse(); xs.nonEmpty(); xs = xs.tail())
+            acc = op.apply(xs.head(), acc);
+        return acc;
     }
 
     @Override
     public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
-        return op.apply(tail.foldLeft(zero, op), head);
+        B acc = zero;
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = op.apply(acc, xs.head());
+        return acc;
     }
 
     @Override
     public boolean contains(A elem) {
-        return exists(e -> e.equals(elem));
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (Objects.equals(xs.head(), elem))
+                return true;
+        return false;
     }
 
+    /**
+     * Stops at the first element satisfying p.
+     */
     @Override
     public boolean exists(Predicate<A> p) {
-        return foldRight(false, (elem, found) -> found || p.test(elem));
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                return true;
+        return false;
     }
 
+    /**
+     * Stops at the first element not satisfying p.
+     */
     @Override
     public boolean forall(Predicate<A> p) {
-        return !exists(elem -> !p.test(elem));
-    }
-
-    private static <T> CList<T> reverse(CList<T> clist, CList<T> acc) {
-        return clist.isEmpty() ?
-                acc :
-                reverse(clist.tail(), cons(clist.head(), acc));
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (!p.test(xs.head()))
+                return false;
+        return true;
     }
 
     @Override
     public CList<A> reverse() {
-        return reverse(this, new Nil<A>());
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.REVERSE);
+        CList<A> acc = new Nil<A>();
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        if (span != null)
+            span.end(length());
+        return acc;
     }
 
+    /**
+     * Shares the longest suffix of accepted elements with this list, like Scala's List does.
+     * Accepted elements are only copied once a rejected element behind them shows that they cannot be shared.
+     */
     @Override
     public CList<A> filter(Predicate<A> p) {
-        return p.test(head) ? cons(head, tail.filter(p)) : tail.filter(p);
+        Builder<A> result = new Builder<>();
+        CList<A> accepted = null;       // first cell of the current run of accepted elements
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail()) {
+            if (p.test(xs.head())) {
+                if (accepted == null)
+                    accepted = xs;
+            } else if (accepted != null) {
+                copyUntil(accepted, xs, result);
+                accepted = null;
+            }
+        }
+        return accepted == this ? this : result.prependTo(accepted == null ? nil() : accepted);
     }
 
+    /**
+     * Shares the longest suffix for which f returns its argument itself (not just an equal value).
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <B> CList<B> map(Function<A, B> f) {
-        return cons(f.apply(head), tail.map(f));
+        Builder<B> result = new Builder<>();
+        CList<A> unchanged = null;      // first cell of the current run of elements mapped to themselves
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail()) {
+            B y = f.apply(xs.head());
+            if (y == xs.head()) {
+                if (unchanged == null)
+                    unchanged = xs;
+            } else {
+                if (unchanged != null) {
+                    copyUntil((CList<B>) unchanged, (CList<B>) xs, result);
+                    unchanged = null;
+                }
+                result.add(y);
+            }
+        }
+        if (unchanged == this)
+            return (CList<B>) this;
+        return result.prependTo(unchanged == null ? nil() : (CList<B>) unchanged);
+    }
+
+    private static <T> void copyUntil(CList<T> from, CList<T> until, Builder<T> result) {
+        for (CList<T> xs = from; xs != until; xs = xs.tail())
+            result.add(xs.head());
     }
 
+    /**
+     * Chains the results and copies them once; the last non-empty result is shared.
+     */
     @Override
     public <B> CList<B> flatMap(Function<A, CList<B>> f) {
-        return f.apply(head).append(tail.flatMap(f));
+        CChain<B> result = CChain.empty();
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            result = result.append(f.apply(xs.head()));
+        return result.toCList();
     }
 
     @Override
     public CList<A> flatten() {
-        if (head instanceof CList)
-            return ((CList<A>) head).append(tail.flatten());
-        else
-            throw new IllegalStateException("CList cannot be flattened, it is not a CList of CLists.");
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.FLATTEN);
+        CChain<A> chain = CChain.empty();
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail()) {
+            if (!(xs.head() instanceof CList))
+                throw new IllegalStateException("CList cannot be flattened, it is not a CList of CLists.");
+            chain = chain.append((CList<A>) xs.head());
+        }
+        CList<A> result = chain.toCList();
+        if (span != null)
+            span.end(result.length());
+        return result;
     }
 
     @Override
     public CList<A> take(int n) {
-        return n <= 0 ? NIL : cons(head, tail.take(n - 1));
+        if (n >= length())
+            return this;
+        Builder<A> result = new Builder<>();
+        for (CList<A> xs = this; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            result.add(xs.head());
+        return result.result();
     }
 
     @Override
     public CList<A> drop(int n) {
-        return n <= 0 ? this : tail.drop(n - 1);
+        CList<A> xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            ;
+        return xs;
     }
 
     @Override
     public List<A> toList() {
-        return foldRight((List<A>) new ArrayList<A>(), Cons::prepend);
-    }
-
-    private static <T> List<T> prepend(T x, List<T> xs) {
-        xs.add(0, x);
-        return xs;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.TO_LIST);
+        List<A> result = new ArrayList<>(length());
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(xs.head());
+        if (span != null)
+            span.end(length());
+        return result;
     }
 
     @Override
     public Set<A> toSet() {
-        return foldRight((Set<A>) new HashSet<A>(), Cons::addToSet);
-    }
-
-    private static <T> Set<T> addToSet(T elem, Set<T> acc) {
-        acc.add(elem);
-        return acc;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.TO_SET);
+        Set<A> result = new HashSet<>(hashCapacity(length()));
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(xs.head());
+        if (span != null)
+            span.end(length());
+        return result;
     }
 
     @Override
     public void foreach(Consumer<A> c) {
-        c.accept(head);
-        tail.foreach(c);
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            c.accept(xs.head());
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Cons<?> cons = (Cons<?>) o;
-        if (!head.equals(cons.head)) return false;
-        return tail.equals(cons.tail);
+        if (!(o instanceof CList) || ((CList<?>) o).isEmpty()) return false;
+        if (!(o instanceof Cons)) return o.equals(this);      // other representations, e.g. a mapped file
+        Cons<?> that = (Cons<?>) o;
+        Interner interner = interner();
+        if (interner != null && interner == that.interner()) return false;   // equal interned lists are identical
+        if (length() != that.length()) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.EQUALS);
+        boolean result = sameElements(that);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    private boolean sameElements(CList<?> that) {
+        CList<?> xs = this;
+        CList<?> ys = that;
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            if (xs == ys) return true;
+            if (!Objects.equals(xs.head(), ys.head())) return false;
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return xs.isEmpty() && ys.isEmpty();
     }
 
+    /**
+     * hash(Cons(x, xs)) = hash(x) + 31 * hash(xs), computed front to back and cached.
+     * The walk stops early at a tail whose hash is already known.
+     */
     @Override
     public int hashCode() {
-        int result = head.hashCode();
-        result = 31 * result + tail.hashCode();
-        return result;
+        int h = hash;
+        if (h == 0) {
+            int factor = 1;
+            CList<A> xs = this;
+            for (; xs instanceof Cons && ((Cons<A>) xs).hash == 0; xs = xs.tail()) {
+                h += factor * Objects.hashCode(xs.head());
+                factor *= 31;
+            }
+            h += factor * xs.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     @Override
     public String toString() {
-        return "Cons(" + head + ", " + tail + ')';
+        StringBuilder sb = new StringBuilder();
+        CList<A> xs = this;
+        int depth = 0;
+        for (; xs.nonEmpty(); xs = xs.tail(), depth++)
+            sb.append("Cons(").append(xs.head()).append(", ");
+        sb.append(xs);
+        for (int i = 0; i < depth; i++)
+            sb.append(')');
+        return sb.toString();
+    }
+}
+
+/**
+ * A cell created by an Interner; only interned cells pay for the reference to their Interner.
+ */
+final class InternedCons<A> extends Cons<A> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Interner interner;
+
+    InternedCons(A head, CList<A> tail, Interner interner) {
+        super(head, tail);
+        this.interner = interner;
+    }
+
+    @Override
+    Interner interner() {
+        return interner;
     }
 }
@@ -0,0 +1,638 @@
+package mytypes;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * CListFile stores a CList in a compact binary file, and maps such a file back as a read-only CList
+ * that decodes its elements lazily from memory mapped buffers:
+ * <pre>
+ *     CListFile.write(ids, path);
+ *     CList&lt;Long&gt; ids = CListFile.map(path);    // does not read the elements
+ * </pre>
+ * Lists of Integer, Long, Double or String elements are stored without per element tags (strings as UTF-8,
+ * unpaired surrogates included), other lists with a tag per element; they may contain these four types and null.
+ * <p>
+ * The file consists of a header, chunks of at most chunkSize elements and a chunk index at the end:
+ * <pre>
+ *     header:  int magic, byte version, byte element tag, long length
+ *     chunk:   int count, int byteLength, byteLength bytes of elements
+ *     index:   int chunkCount, per chunk: long offset, int count
+ *     trailer: long offset of the index
+ * </pre>
+ * Opening a file therefore only reads its index, whatever its size. The chunks are mapped in segments of up to 1 GB,
+ * so files larger than 2 GB are supported, but a mapped list must have less than 2^31 elements.
+ */
+public final class CListFile {
+
+    static final int MAGIC = 0x434C5354;      // "CLST"
+    static final byte VERSION = 1;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_INT = 1;
+    static final byte TAG_LONG = 2;
+    static final byte TAG_DOUBLE = 3;
+    static final byte TAG_STRING = 4;
+    static final byte TAG_MIXED = 5;            // every element is preceded by its own tag
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private static final int HEADER_SIZE = 14;
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private CListFile() {
+    }
+
+    public static void write(CList<?> xs, Path file) throws IOException {
+        write(xs, file, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static void write(CList<?> xs, Path file, int chunkSize) throws IOException {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        byte tag = tagOf(xs);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(tag);
+            out.writeLong(xs.length());
+
+            List<long[]> index = new ArrayList<>();     // offset and count of every chunk
+            ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream(1 << 16);
+            DataOutputStream chunk = new DataOutputStream(chunkBytes);
+            long offset = HEADER_SIZE;
+            int count = 0;
+            for (CList<?> ys = xs; ys.nonEmpty(); ys = ys.tail()) {
+                writeElement(chunk, tag, ys.head());
+                if (++count == chunkSize || ys.tail().isEmpty()) {
+                    if (chunkBytes.size() > MAX_SEGMENT_SIZE)
+                        throw new IllegalArgumentException("chunk of " + chunkBytes.size() + " bytes, use a smaller chunkSize");
+                    index.add(new long[] {offset, count});
+                    out.writeInt(count);
+                    out.writeInt(chunkBytes.size());
+                    chunkBytes.writeTo(out);
+                    offset += 8 + chunkBytes.size();
+                    chunkBytes.reset();
+                    count = 0;
+                }
+            }
+
+            out.writeInt(index.size());
+            for (long[] entry : index) {
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+            }
+            out.writeLong(offset);
+            out.flush();
+        }
+    }
+
+    /**
+     * Maps the file as a read-only CList. The caller is responsible for the element type A.
+     * The elements are decoded on every access; head, tail, drop and length take constant time per chunk,
+     * the other operations run in one pass over the buffers and return ordinary CLists.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> CList<A> map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC)
+                throw new IOException(file + " is not a CList file");
+            if (header.get() != VERSION)
+                throw new IOException(file + " has an unsupported version");
+            byte tag = header.get();
+            long length = header.getLong();
+            if (length == 0)
+                return CList.NIL;
+
+            long indexOffset = read(channel, channel.size() - 8, 8).getLong();
+            ByteBuffer index = read(channel, indexOffset, (int) (channel.size() - 8 - indexOffset));
+            int chunkCount = index.getInt();
+            long[] offsets = new long[chunkCount];
+            long[] firstIndex = new long[chunkCount + 1];
+            for (int c = 0; c < chunkCount; c++) {
+                offsets[c] = index.getLong();
+                firstIndex[c + 1] = firstIndex[c] + index.getInt();
+            }
+
+            List<ByteBuffer> segments = new ArrayList<>();
+            int[] chunkSegment = new int[chunkCount];
+            int[] chunkPosition = new int[chunkCount];
+            for (int c = 0; c < chunkCount; ) {         // a segment holds whole chunks
+                int first = c;
+                long start = offsets[first];
+                do
+                    c++;
+                while (c < chunkCount && chunkEnd(offsets, c, indexOffset) - start <= MAX_SEGMENT_SIZE);
+                long end = chunkEnd(offsets, c - 1, indexOffset);
+                for (int i = first; i < c; i++) {
+                    chunkSegment[i] = segments.size();
+                    chunkPosition[i] = (int) (offsets[i] - start) + 8;
+                }
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            }
+            MappedData data = new MappedData(tag, length, segments.toArray(new ByteBuffer[0]),
+                    chunkSegment, chunkPosition, firstIndex);
+            return new MappedCList<>(data, 0, chunkPosition[0], 0);
+        }
+    }
+
+    private static long chunkEnd(long[] offsets, int chunk, long indexOffset) {
+        return chunk + 1 < offsets.length ? offsets[chunk + 1] : indexOffset;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("unexpected end of file");
+        buffer.flip();
+        return buffer;
+    }
+
+    // --- element encoding
+
+    static byte tagOf(CList<?> xs) {
+        if (xs.isEmpty())
+            return TAG_MIXED;
+        byte tag = tagOf(xs.head());
+        for (CList<?> ys = xs.tail(); ys.nonEmpty() && tag != TAG_MIXED; ys = ys.tail())
+            if (tagOf(ys.head()) != tag)
+                tag = TAG_MIXED;
+        return tag == TAG_NULL ? TAG_MIXED : tag;
+    }
+
+    static byte tagOf(Object elem) {
+        if (elem == null)
+            return TAG_NULL;
+        else if (elem instanceof Integer)
+            return TAG_INT;
+        else if (elem instanceof Long)
+            return TAG_LONG;
+        else if (elem instanceof Double)
+            return TAG_DOUBLE;
+        else if (elem instanceof String)
+            return TAG_STRING;
+        else
+            return TAG_MIXED;
+    }
+
+    /**
+     * Encodes s as UTF-8, except that unpaired surrogates are encoded in three bytes like the other chars
+     * (the WTF-8 encoding) instead of being replaced, so that every String survives the round trip.
+     * Well-formed strings give the same bytes as String.getBytes(UTF_8).
+     */
+    static byte[] encodeString(String s) {
+        int n = s.length();
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80)
+                size += 1;
+            else if (c < 0x800)
+                size += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else
+                size += 3;
+        }
+        byte[] bytes = new byte[size];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80)
+                bytes[p++] = (byte) c;
+            else if (c < 0x800) {
+                bytes[p++] = (byte) (0xC0 | c >> 6);
+                bytes[p++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                bytes[p++] = (byte) (0xF0 | cp >> 18);
+                bytes[p++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                bytes[p++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                bytes[p++] = (byte) (0x80 | cp & 0x3F);
+            } else {
+                bytes[p++] = (byte) (0xE0 | c >> 12);
+                bytes[p++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[p++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Decodes the bytes written by encodeString.
+     */
+    static String decodeString(byte[] bytes) {
+        char[] chars = new char[bytes.length];
+        int n = 0;
+        for (int p = 0; p < bytes.length; ) {
+            int b = bytes[p++] & 0xFF;
+            if (b < 0x80)
+                chars[n++] = (char) b;
+            else if (b < 0xE0)
+                chars[n++] = (char) ((b & 0x1F) << 6 | bytes[p++] & 0x3F);
+            else if (b < 0xF0) {
+                chars[n++] = (char) ((b & 0x0F) << 12 | (bytes[p] & 0x3F) << 6 | bytes[p + 1] & 0x3F);
+                p += 2;
+            } else {
+                int cp = (b & 0x07) << 18 | (bytes[p] & 0x3F) << 12 | (bytes[p + 1] & 0x3F) << 6 | bytes[p + 2] & 0x3F;
+                n += Character.toChars(cp, chars, n);
+                p += 3;
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    static void writeElement(DataOutput out, byte tag, Object elem) throws IOException {
+        switch (tag) {
+            case TAG_NULL:
+                break;
+            case TAG_INT:
+                out.writeInt((Integer) elem);
+                break;
+            case TAG_LONG:
+                out.writeLong((Long) elem);
+                break;
+            case TAG_DOUBLE:
+                out.writeDouble((Double) elem);
+                break;
+            case TAG_STRING:
+                byte[] bytes = encodeString((String) elem);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            default:
+                byte elemTag = tagOf(elem);
+                if (elemTag == TAG_MIXED)
+                    throw new IllegalArgumentException("cannot encode an element of " + elem.getClass());
+                out.writeByte(elemTag);
+                writeElement(out, elemTag, elem);
+        }
+    }
+
+    static Object readElement(DataInput in, byte tag) throws IOException {
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_STRING:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return decodeString(bytes);
+            default:
+                return readElement(in, in.readByte());
+        }
+    }
+
+    static Object readElement(ByteBuffer buffer, byte tag, int position) {
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INT:
+                return buffer.getInt(position);
+            case TAG_LONG:
+                return buffer.getLong(position);
+            case TAG_DOUBLE:
+                return buffer.getDouble(position);
+            case TAG_STRING:
+                byte[] bytes = new byte[buffer.getInt(position)];
+                ByteBuffer b = buffer.duplicate();
+                b.position(position + 4);
+                b.get(bytes);
+                return decodeString(bytes);
+            default:
+                return readElement(buffer, buffer.get(position), position + 1);
+        }
+    }
+
+    static int elementSize(ByteBuffer buffer, byte tag, int position) {
+        switch (tag) {
+            case TAG_NULL:
+                return 0;
+            case TAG_INT:
+                return 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return 8;
+            case TAG_STRING:
+                return 4 + buffer.getInt(position);
+            default:
+                return 1 + elementSize(buffer, buffer.get(position), position + 1);
+        }
+    }
+
+    /**
+     * The mapped buffers of a file and the position of its chunks, shared by all cells of a mapped list.
+     */
+    static final class MappedData {
+        final byte tag;
+        final long length;
+        final ByteBuffer[] segments;
+        final int[] chunkSegment;       // segment of each chunk
+        final int[] chunkPosition;      // position of the first element of each chunk within its segment
+        final long[] firstIndex;        // index of the first element of each chunk, followed by length
+
+        MappedData(byte tag, long length, ByteBuffer[] segments, int[] chunkSegment, int[] chunkPosition, long[] firstIndex) {
+            this.tag = tag;
+            this.length = length;
+            this.segments = segments;
+            this.chunkSegment = chunkSegment;
+            this.chunkPosition = chunkPosition;
+            this.firstIndex = firstIndex;
+        }
+
+        int fixedSize() {
+            return tag == TAG_INT ? 4 : tag == TAG_LONG || tag == TAG_DOUBLE ? 8 : 0;
+        }
+    }
+}
+
+/**
+ * A suffix of a mapped CList file: the element at index of the file, found at position in the segment of chunk.
+ * Cells are created on demand by tail and drop, and hold no element.
+ */
+class MappedCList<A> extends CList<A> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CListFile.MappedData data;
+    private final int chunk;
+    private final int position;
+    private final long index;
+
+    MappedCList(CListFile.MappedData data, int chunk, int position, long index) {
+        this.data = data;
+        this.chunk = chunk;
+        this.position = position;
+        this.index = index;
+    }
+
+    private ByteBuffer segment() {
+        return data.segments[data.chunkSegment[chunk]];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public A head() {
+        return (A) CListFile.readElement(segment(), data.tag, position);
+    }
+
+    @Override
+    public CList<A> tail() {
+        long next = index + 1;
+        if (next == data.length)
+            return nil();
+        if (next == data.firstIndex[chunk + 1])
+            return new MappedCList<>(data, chunk + 1, data.chunkPosition[chunk + 1], next);
+        return new MappedCList<>(data, chunk, position + CListFile.elementSize(segment(), data.tag, position), next);
+    }
+
+    @Override
+    public Optional<A> headOption() {
+        return Optional.ofNullable(head());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public boolean nonEmpty() {
+        return true;
+    }
+
+    /**
+     * @throws ArithmeticException if the list has 2^31 or more elements
+     */
+    @Override
+    public int length() {
+        return Math.toIntExact(data.length - index);
+    }
+
+    /**
+     * Skips whole chunks, and whole elements within a chunk of fixed size elements.
+     */
+    @Override
+    public CList<A> drop(int n) {
+        if (n <= 0)
+            return this;
+        long target = index + n;
+        if (target >= data.length)
+            return nil();
+        int c = Arrays.binarySearch(data.firstIndex, chunk, data.firstIndex.length, target);
+        if (c < 0)
+            c = -c - 2;
+        long start = c == chunk ? index : data.firstIndex[c];
+        int pos = c == chunk ? position : data.chunkPosition[c];
+        ByteBuffer segment = data.segments[data.chunkSegment[c]];
+        int size = data.fixedSize();
+        if (size > 0)
+            pos += (int) (target - start) * size;
+        else
+            for (long i = start; i < target; i++)
+                pos += CListFile.elementSize(segment, data.tag, pos);
+        return new MappedCList<>(data, c, pos, target);
+    }
+
+    /**
+     * Feeds the elements to p until it returns false, decoding them straight from the buffers.
+     * Returns false if p stopped the traversal.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean forEachWhile(Predicate<A> p) {
+        int c = chunk;
+        int pos = position;
+        ByteBuffer segment = segment();
+        for (long i = index; i < data.length; i++) {
+            while (i == data.firstIndex[c + 1]) {
+                c++;
+                pos = data.chunkPosition[c];
+                segment = data.segments[data.chunkSegment[c]];
+            }
+            if (!p.test((A) CListFile.readElement(segment, data.tag, pos)))
+                return false;
+            pos += CListFile.elementSize(segment, data.tag, pos);
+        }
+        return true;
+    }
+
+    @Override
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        Object[] acc = {zero};
+        forEachWhile(x -> {
+            acc[0] = op.apply(uncheckedCast(acc[0]), x);
+            return true;
+        });
+        return uncheckedCast(acc[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(Object o) {
+        return (T) o;
+    }
+
+    @Override
+    public <B> B foldRight(B zero, BiFunction<A, B, B> op) {
+        return reverse().foldLeft(zero, (acc, x) -> op.apply(x, acc));
+    }
+
+    @Override
+    public void foreach(Consumer<A> c) {
+        forEachWhile(x -> {
+            c.accept(x);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean exists(Predicate<A> p) {
+        return !forEachWhile(p.negate());
+    }
+
+    @Override
+    public boolean forall(Predicate<A> p) {
+        return forEachWhile(p);
+    }
+
+    @Override
+    public boolean contains(A elem) {
+        return exists(x -> Objects.equals(x, elem));
+    }
+
+    private CList<A> collect(Builder<A> result, Predicate<A> p) {
+        forEachWhile(x -> {
+            if (p.test(x))
+                result.add(x);
+            return true;
+        });
+        return result.result();
+    }
+
+    @Override
+    public CList<A> filter(Predicate<A> p) {
+        return collect(new Builder<>(), p);
+    }
+
+    @Override
+    public CList<A> take(int n) {
+        Builder<A> result = new Builder<>();
+        if (n > 0)
+            forEachWhile(x -> {
+                result.add(x);
+                return result.size() < n;
+            });
+        return result.result();
+    }
+
+    @Override
+    public CList<A> append(CList<A> other) {
+        Builder<A> result = new Builder<>();
+        foreach(result::add);
+        return result.prependTo(other);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CList<A> reverse() {
+        CList<A> acc = nil();
+        for (CList<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        return acc;
+    }
+
+    @Override
+    public <B> CList<B> map(Function<A, B> f) {
+        Builder<B> result = new Builder<>();
+        foreach(x -> result.add(f.apply(x)));
+        return result.result();
+    }
+
+    @Override
+    public <B> CList<B> flatMap(Function<A, CList<B>> f) {
+        Builder<B> result = new Builder<>();
+        foreach(x -> result.addAll(f.apply(x)));
+        return result.result();
+    }
+
+    @Override
+    public CList<A> flatten() {
+        throw new IllegalStateException("CList cannot be flattened, it is not a CList of CLists.");
+    }
+
+    @Override
+    public List<A> toList() {
+        List<A> result = new ArrayList<>(length());
+        foreach(result::add);
+        return result;
+    }
+
+    @Override
+    public Set<A> toSet() {
+        Set<A> result = new HashSet<>();
+        foreach(result::add);
+        return result;
+    }
+
+    /**
+     * Equal to any CList with the same elements, like Cons.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CList)) return false;
+        CList<?> that = (CList<?>) o;
+        if (that.isEmpty() || length() != that.length()) return false;
+        CList<?>[] ys = {that};
+        return forEachWhile(x -> {
+            boolean same = Objects.equals(x, ys[0].head());
+            ys[0] = ys[0].tail();
+            return same;
+        });
+    }
+
+    @Override
+    public int hashCode() {
+        int[] h = {0};
+        int[] factor = {1};
+        forEachWhile(x -> {
+            h[0] += factor[0] * Objects.hashCode(x);
+            factor[0] *= 31;
+            return true;
+        });
+        return h[0] + factor[0] * NIL.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        foreach(x -> sb.append("Cons(").append(x).append(", "));
+        sb.append(NIL);
+        for (long i = index; i < data.length; i++)
+            sb.append(')');
+        return sb.toString();
+    }
+}
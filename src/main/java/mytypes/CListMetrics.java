@@ -0,0 +1,212 @@
+package mytypes;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Opt-in instrumentation of the expensive CList operations: append, reverse, toList, toSet, flatten and equals.
+ * <p>
+ * For every call on a list of at least minSize elements, the size of the list and the duration of the call are
+ * reported to an installed Registry and/or as a Java Flight Recorder event of type mytypes.CListOperation.
+ * A Registry is the SPI for metrics libraries: an exporter maps its counters and histograms to e.g. Micrometer
+ * counters and distribution summaries. Per operation op there are
+ * <ul>
+ * <li>a counter clist.op.calls,</li>
+ * <li>a histogram clist.op.size of the list sizes,</li>
+ * <li>a histogram clist.op.nanos of the durations.</li>
+ * </ul>
+ * While nothing is installed, an instrumented operation costs one read of a volatile boolean.
+ * <p>
+ * Instrumentation can also be switched on at startup with system properties:
+ * mytypes.clist.metrics=true installs the first Registry found by the ServiceLoader,
+ * mytypes.clist.jfr=true enables the JFR events, mytypes.clist.metrics.minSize sets minSize (default 1000).
+ * <p>
+ * The JFR events are emitted by the jfr module, which has to be on the class path in addition to this one.
+ */
+public final class CListMetrics {
+
+    public enum Operation {
+        APPEND("append"), REVERSE("reverse"), TO_LIST("toList"), TO_SET("toSet"), FLATTEN("flatten"), EQUALS("equals");
+
+        public final String metricName;
+
+        Operation(String method) {
+            this.metricName = "clist." + method;
+        }
+    }
+
+    public interface Counter {
+        void increment();
+    }
+
+    public interface Histogram {
+        void record(long value);
+    }
+
+    /**
+     * The SPI of metrics exporters, asked once for the counters and histograms of every operation on install.
+     */
+    public interface Registry {
+        Counter counter(String name);
+
+        Histogram histogram(String name);
+    }
+
+    /**
+     * Emits the events of the calls, implemented by JfrSupport of the jfr module.
+     */
+    interface EventSupport {
+        Object begin();
+
+        void commit(Object begun, Operation op, int size);
+    }
+
+    public static final int DEFAULT_MIN_SIZE = 1000;
+
+    /**
+     * The installed registry with its counters and histograms resolved, indexed by Operation.ordinal().
+     */
+    private static final class Installation {
+        final Registry registry;
+        final Counter[] calls;
+        final Histogram[] sizes;
+        final Histogram[] nanos;
+        final boolean jfr;
+        final int minSize;
+
+        Installation(Registry registry, boolean jfr, int minSize) {
+            this.registry = registry;
+            this.jfr = jfr;
+            this.minSize = minSize;
+            Operation[] operations = Operation.values();
+            calls = new Counter[operations.length];
+            sizes = new Histogram[operations.length];
+            nanos = new Histogram[operations.length];
+            if (registry != null) {
+                for (Operation op : operations) {
+                    calls[op.ordinal()] = registry.counter(op.metricName + ".calls");
+                    sizes[op.ordinal()] = registry.histogram(op.metricName + ".size");
+                    nanos[op.ordinal()] = registry.histogram(op.metricName + ".nanos");
+                }
+            }
+        }
+    }
+
+    private static final EventSupport JFR = loadJfr();
+
+    static volatile boolean enabled;
+    private static volatile Installation installation = new Installation(null, false, DEFAULT_MIN_SIZE);
+
+    static {
+        int minSize = Integer.getInteger("mytypes.clist.metrics.minSize", DEFAULT_MIN_SIZE);
+        Registry registry = null;
+        if (Boolean.getBoolean("mytypes.clist.metrics")) {
+            Iterator<Registry> registries = ServiceLoader.load(Registry.class).iterator();
+            if (registries.hasNext())
+                registry = registries.next();
+        }
+        update(registry, Boolean.getBoolean("mytypes.clist.jfr") && jfrAvailable(), minSize);
+    }
+
+    private CListMetrics() {
+    }
+
+    /**
+     * JfrSupport links against jdk.jfr, so it is loaded by name, and only if the Flight Recorder API exists.
+     */
+    private static EventSupport loadJfr() {
+        try {
+            ClassLoader loader = CListMetrics.class.getClassLoader();
+            Class.forName("jdk.jfr.Event", false, loader);
+            return (EventSupport) Class.forName("mytypes.JfrSupport", true, loader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static boolean jfrAvailable() {
+        return JFR != null;
+    }
+
+    private static synchronized void update(Registry registry, boolean jfr, int minSize) {
+        installation = new Installation(registry, jfr, minSize);
+        enabled = registry != null || jfr;
+    }
+
+    /**
+     * Reports to registry from now on, replacing the registry installed before.
+     */
+    public static synchronized void install(Registry registry) {
+        update(registry, installation.jfr, installation.minSize);
+    }
+
+    public static synchronized void uninstall() {
+        update(null, installation.jfr, installation.minSize);
+    }
+
+    /**
+     * Enables or disables the JFR events. Returns false if this JVM has no Flight Recorder
+     * or the jfr module is not on the class path.
+     */
+    public static synchronized boolean enableJfr(boolean on) {
+        boolean available = jfrAvailable();
+        update(installation.registry, on && available, installation.minSize);
+        return available || !on;
+    }
+
+    /**
+     * Only calls on lists of at least minSize elements are reported.
+     */
+    public static synchronized void setMinSize(int minSize) {
+        update(installation.registry, installation.jfr, minSize);
+    }
+
+    /**
+     * Uninstalls the registry and disables the JFR events.
+     */
+    public static synchronized void disable() {
+        update(null, false, installation.minSize);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring a call of op, returns null if instrumentation is disabled.
+     */
+    static Span begin(Operation op) {
+        return enabled ? new Span(op, installation) : null;
+    }
+
+    static final class Span {
+        private final Operation op;
+        private final Installation installation;
+        private final Object event;
+        private final long start;
+
+        Span(Operation op, Installation installation) {
+            this.op = op;
+            this.installation = installation;
+            this.event = installation.jfr ? JFR.begin() : null;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Reports the call on a list of size elements.
+         */
+        void end(int size) {
+            long nanos = System.nanoTime() - start;
+            if (size < installation.minSize)
+                return;
+            if (installation.registry != null) {
+                int i = op.ordinal();
+                installation.calls[i].increment();
+                installation.sizes[i].record(size);
+                installation.nanos[i].record(nanos);
+            }
+            if (event != null)
+                JFR.commit(event, op, size);
+        }
+    }
+}
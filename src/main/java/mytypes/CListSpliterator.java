@@ -0,0 +1,71 @@
+package mytypes;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a CList.
+ * A CList can only be walked from the front, so trySplit() copies a prefix of the remaining elements
+ * into an array and hands that out, like the JDK does for iterators of unknown structure.
+ * The prefix grows by BATCH_UNIT with every split, so large lists are split into few, large batches.
+ */
+class CListSpliterator<A> implements Spliterator<A> {
+
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 25;
+
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+
+    private CList<A> rest;
+    private int size;
+    private int batch;
+
+    CListSpliterator(CList<A> xs) {
+        this.rest = xs;
+        this.size = xs.length();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super A> action) {
+        if (rest.isEmpty())
+            return false;
+        action.accept(rest.head());
+        rest = rest.tail();
+        size--;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super A> action) {
+        CList<A> xs = rest;
+        rest = CList.nil();
+        size = 0;
+        xs.forEach(action);
+    }
+
+    @Override
+    public Spliterator<A> trySplit() {
+        if (size <= 1)
+            return null;
+        int n = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), size);
+        Object[] prefix = new Object[n];
+        CList<A> xs = rest;
+        for (int i = 0; i < n; i++, xs = xs.tail())
+            prefix[i] = xs.head();
+        rest = xs;
+        size -= n;
+        batch = n;
+        return Spliterators.spliterator(prefix, 0, n, CHARACTERISTICS);
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
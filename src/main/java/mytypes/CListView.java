@@ -0,0 +1,153 @@
+package mytypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static mytypes.CList.Pair.pair;
+
+/**
+ * CListView is a lazy view on a CList, created by CList.view().
+ * The transformations only record what to do. A terminal operation (toCList, foldLeft, foreach, exists, ...)
+ * then pushes the elements of the underlying CList through all recorded steps in one single traversal,
+ * without intermediate lists, and stops as soon as no further element can change the result:
+ * <pre>
+ *     xs.view().map(f).filter(p).map(g).take(100).toCList()
+ * </pre>
+ * applies f to as many elements as needed to find 100 elements satisfying p, and builds only the final list.
+ * A view can be run any number of times; every run starts from the beginning of the CList.
+ */
+public final class CListView<A> {
+
+    /**
+     * Receives the elements of a traversal one by one, returns false if it does not want any more elements.
+     */
+    @FunctionalInterface
+    interface Sink<T> {
+        boolean accept(T elem);
+    }
+
+    private final CList<Object> source;
+    private final Function<Sink<A>, Sink<Object>> pipeline;     // turns a sink for A into a sink for the source elements
+
+    private CListView(CList<Object> source, Function<Sink<A>, Sink<Object>> pipeline) {
+        this.source = source;
+        this.pipeline = pipeline;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> CListView<T> of(CList<T> source) {
+        return new CListView<>((CList<Object>) source, sink -> (Sink<Object>) sink);
+    }
+
+    private <B> CListView<B> andThen(Function<Sink<B>, Sink<A>> step) {
+        return new CListView<>(source, sink -> pipeline.apply(step.apply(sink)));
+    }
+
+    // --- transformations
+
+    public <B> CListView<B> map(Function<A, B> f) {
+        return andThen(sink -> elem -> sink.accept(f.apply(elem)));
+    }
+
+    public CListView<A> filter(Predicate<A> p) {
+        return andThen(sink -> elem -> !p.test(elem) || sink.accept(elem));
+    }
+
+    public CListView<A> filterNot(Predicate<A> p) {
+        return filter(p.negate());
+    }
+
+    public <B> CListView<B> flatMap(Function<A, CList<B>> f) {
+        return andThen(sink -> elem -> {
+            for (CList<B> ys = f.apply(elem); ys.nonEmpty(); ys = ys.tail())
+                if (!sink.accept(ys.head()))
+                    return false;
+            return true;
+        });
+    }
+
+    public CListView<A> take(int n) {
+        if (n <= 0)
+            return of(CList.<A>nil());
+        return andThen(sink -> {
+            int[] remaining = {n};
+            return elem -> sink.accept(elem) && --remaining[0] > 0;
+        });
+    }
+
+    public CListView<A> drop(int n) {
+        return andThen(sink -> {
+            int[] toDrop = {n};
+            return elem -> toDrop[0]-- > 0 || sink.accept(elem);
+        });
+    }
+
+    public CListView<A> takeWhile(Predicate<A> p) {
+        return andThen(sink -> elem -> p.test(elem) && sink.accept(elem));
+    }
+
+    public CListView<CList.Pair<A, Integer>> zipWithIndex() {
+        return andThen(sink -> {
+            int[] index = {0};
+            return elem -> sink.accept(pair(elem, index[0]++));
+        });
+    }
+
+    // --- terminal operations
+
+    private void run(Sink<A> sink) {
+        Sink<Object> head = pipeline.apply(sink);
+        for (CList<Object> xs = source; xs.nonEmpty(); xs = xs.tail())
+            if (!head.accept(xs.head()))
+                return;
+    }
+
+    public CList<A> toCList() {
+        CList.Builder<A> result = CList.builder();
+        run(elem -> {
+            result.add(elem);
+            return true;
+        });
+        return result.result();
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>();
+        run(elem -> {
+            result.add(elem);
+            return true;
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        Object[] acc = {zero};
+        run(elem -> {
+            acc[0] = op.apply((B) acc[0], elem);
+            return true;
+        });
+        return (B) acc[0];
+    }
+
+    public void foreach(Consumer<A> c) {
+        run(elem -> {
+            c.accept(elem);
+            return true;
+        });
+    }
+
+    public boolean exists(Predicate<A> p) {
+        boolean[] found = {false};
+        run(elem -> !(found[0] = p.test(elem)));
+        return found[0];
+    }
+
+    public boolean forall(Predicate<A> p) {
+        return !exists(p.negate());
+    }
+}
@@ -0,0 +1,754 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static mytypes.CList.Pair.pair;
+
+/**
+ * CMap is a persistent hash map, a compressed hash array mapped trie (CHAMP) like Scala's immutable HashMap.
+ * <p>
+ * Every node covers 5 bits of the spread hash code of its keys and holds two bitmaps of 32 bits:
+ * dataMap marks the slots with an entry stored inline, nodeMap the slots with a sub-node.
+ * A node stores only what is present, keys and values first, sub-nodes behind them in reverse order.
+ * Keys whose hash codes are equal in all 32 bits end up in a collision node below the last level.
+ * <p>
+ * updated and removed copy the path from the root to the changed entry and share all other nodes,
+ * removed keeps the trie canonical by pulling single remaining entries up into their parent.
+ * The Builder modifies the nodes it created itself in place, which makes bulk loads much cheaper.
+ * Null keys and values are allowed.
+ */
+public final class CMap<K, V> implements Iterable<CList.Pair<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    private static final CMap<?, ?> EMPTY = new CMap<>(BitmapNode.EMPTY, 0);
+
+    /**
+     * Builds a CMap by adding entries; the nodes created by the builder are modified in place
+     * until result() hands them out. Later entries replace earlier ones with the same key.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder<K, V> {
+
+        private Object owner = new Object();    // identifies the nodes this builder may modify
+        private Node<K, V> root = CMap.<K, V>empty().root;
+        private int size;
+        private final Change change = new Change();
+
+        public Builder<K, V> put(K key, V value) {
+            change.delta = 0;
+            root = root.updated(owner, key, value, hash(key), 0, change);
+            size += change.delta;
+            return this;
+        }
+
+        public Builder<K, V> putAll(CMap<? extends K, ? extends V> entries) {
+            entries.root.foreach(this::put);
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public CMap<K, V> result() {
+            CMap<K, V> result = size == 0 ? empty() : new CMap<>(root, size);
+            owner = new Object();
+            root = CMap.<K, V>empty().root;
+            size = 0;
+            return result;
+        }
+    }
+
+    private final Node<K, V> root;
+    private final int size;
+    private int hash;       // lazily computed, 0 if not yet known
+
+    private CMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> CMap<K, V> empty() {
+        return (CMap<K, V>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <K, V> CMap<K, V> cmap(CList.Pair<K, V>... entries) {
+        Builder<K, V> builder = new Builder<>();
+        for (CList.Pair<K, V> entry : entries)
+            builder.put(entry._1, entry._2);
+        return builder.result();
+    }
+
+    public static <K, V> CMap<K, V> fromCList(CList<CList.Pair<K, V>> entries) {
+        Builder<K, V> builder = new Builder<>();
+        for (CList<CList.Pair<K, V>> xs = entries; xs.nonEmpty(); xs = xs.tail())
+            builder.put(xs.head()._1, xs.head()._2);
+        return builder.result();
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    // --- queries
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean nonEmpty() {
+        return size != 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<V> get(K key) {
+        Object value = root.get(key, hash(key), 0);
+        return value == NOT_FOUND ? Optional.empty() : Optional.ofNullable((V) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrElse(K key, V otherwise) {
+        Object value = root.get(key, hash(key), 0);
+        return value == NOT_FOUND ? otherwise : (V) value;
+    }
+
+    public boolean containsKey(K key) {
+        return root.get(key, hash(key), 0) != NOT_FOUND;
+    }
+
+    // --- updates
+
+    /**
+     * This map with key mapped to value. Returns this map if key is already mapped to this very value.
+     */
+    public CMap<K, V> updated(K key, V value) {
+        Change change = new Change();
+        Node<K, V> newRoot = root.updated(null, key, value, hash(key), 0, change);
+        return newRoot == root ? this : new CMap<>(newRoot, size + change.delta);
+    }
+
+    /**
+     * This map without key. Returns this map if key is not contained.
+     */
+    public CMap<K, V> removed(K key) {
+        Node<K, V> newRoot = root.removed(null, key, hash(key), 0, new Change());
+        if (newRoot == root)
+            return this;
+        return size == 1 ? empty() : new CMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * All entries of both maps; for keys contained in both, the values of other win.
+     * The tries are merged node by node, sub-tries only present in one map are shared.
+     */
+    public CMap<K, V> union(CMap<K, V> other) {
+        if (other.isEmpty() || other == this)
+            return this;
+        if (this.isEmpty())
+            return other;
+        int[] duplicates = {0};
+        Node<K, V> newRoot = union(root, other.root, 0, duplicates);
+        return new CMap<>(newRoot, size + other.size - duplicates[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V> union(Node<K, V> a, Node<K, V> b, int shift, int[] duplicates) {
+        if (a == b) {
+            duplicates[0] += a.count();
+            return a;
+        }
+        if (!(a instanceof BitmapNode) || !(b instanceof BitmapNode)) {      // collision nodes of the same hash
+            Change change = new Change();
+            Node<K, V> result = a;
+            for (int i = 0; i < b.dataArity(); i++) {
+                change.delta = 0;
+                result = result.updated(null, b.key(i), b.value(i), hash(b.key(i)), shift, change);
+                if (change.delta == 0)
+                    duplicates[0]++;
+            }
+            return result;
+        }
+        BitmapNode<K, V> x = (BitmapNode<K, V>) a;
+        BitmapNode<K, V> y = (BitmapNode<K, V>) b;
+        int dataMap = 0;
+        int nodeMap = 0;
+        Object[] data = new Object[2 * (1 << BITS)];
+        Object[] nodes = new Object[1 << BITS];
+        int dataCount = 0;
+        int nodeCount = 0;
+        Change change = new Change();
+        for (int bits = x.dataMap | x.nodeMap | y.dataMap | y.nodeMap; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            Object key = null;
+            Object value = null;
+            Node<K, V> node = null;
+            if ((x.dataMap & bit) != 0) {
+                int i = 2 * x.dataIndex(bit);
+                K xk = (K) x.content[i];
+                V xv = (V) x.content[i + 1];
+                if ((y.dataMap & bit) != 0) {
+                    int j = 2 * y.dataIndex(bit);
+                    K yk = (K) y.content[j];
+                    if (Objects.equals(xk, yk)) {
+                        duplicates[0]++;
+                        key = yk;
+                        value = y.content[j + 1];
+                    } else {
+                        node = merge(null, xk, xv, hash(xk), yk, (V) y.content[j + 1], hash(yk), shift + BITS);
+                    }
+                } else if ((y.nodeMap & bit) != 0) {
+                    node = y.nodeAt(bit);
+                    if (node.get(xk, hash(xk), shift + BITS) == NOT_FOUND)
+                        node = node.updated(null, xk, xv, hash(xk), shift + BITS, change);
+                    else
+                        duplicates[0]++;
+                } else {
+                    key = xk;
+                    value = xv;
+                }
+            } else if ((x.nodeMap & bit) != 0) {
+                node = x.nodeAt(bit);
+                if ((y.dataMap & bit) != 0) {
+                    int j = 2 * y.dataIndex(bit);
+                    K yk = (K) y.content[j];
+                    change.delta = 0;
+                    node = node.updated(null, yk, (V) y.content[j + 1], hash(yk), shift + BITS, change);
+                    if (change.delta == 0)
+                        duplicates[0]++;
+                } else if ((y.nodeMap & bit) != 0) {
+                    node = union(node, y.nodeAt(bit), shift + BITS, duplicates);
+                }
+            } else if ((y.dataMap & bit) != 0) {
+                int j = 2 * y.dataIndex(bit);
+                key = y.content[j];
+                value = y.content[j + 1];
+            } else {
+                node = y.nodeAt(bit);
+            }
+            if (node == null) {
+                dataMap |= bit;
+                data[dataCount++] = key;
+                data[dataCount++] = value;
+            } else {
+                nodeMap |= bit;
+                nodes[nodeCount++] = node;
+            }
+        }
+        Object[] content = Arrays.copyOf(data, dataCount + nodeCount);
+        for (int n = 0; n < nodeCount; n++)
+            content[content.length - 1 - n] = nodes[n];
+        return new BitmapNode<>(null, dataMap, nodeMap, content);
+    }
+
+    /**
+     * The entries of this map whose keys are contained in other. Walks the smaller of both maps.
+     */
+    public CMap<K, V> intersect(CMap<K, ?> other) {
+        if (other == this || this.isEmpty())
+            return this;
+        Builder<K, V> builder = new Builder<>();
+        if (size <= other.size) {
+            root.foreach((k, v) -> {
+                if (other.containsKey(k))
+                    builder.put(k, v);
+            });
+        } else {
+            other.root.foreach((k, v) -> {
+                Object value = root.get(k, hash(k), 0);
+                if (value != NOT_FOUND)
+                    builder.put(k, uncheckedCast(value));
+            });
+        }
+        return builder.size() == size ? this : builder.result();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(Object o) {
+        return (T) o;
+    }
+
+    // --- traversals and conversions
+
+    public void foreach(BiConsumer<K, V> c) {
+        root.foreach(c);
+    }
+
+    public CMap<K, V> filter(BiPredicate<K, V> p) {
+        Builder<K, V> builder = new Builder<>();
+        root.foreach((k, v) -> {
+            if (p.test(k, v))
+                builder.put(k, v);
+        });
+        return builder.size() == size ? this : builder.result();
+    }
+
+    public <W> CMap<K, W> mapValues(Function<V, W> f) {
+        Builder<K, W> builder = new Builder<>();
+        root.foreach((k, v) -> builder.put(k, f.apply(v)));
+        return builder.result();
+    }
+
+    public CSet<K> keys() {
+        CSet.Builder<K> builder = CSet.builder();
+        root.foreach((k, v) -> builder.add(k));
+        return builder.result();
+    }
+
+    public CList<V> values() {
+        CList.Builder<V> builder = CList.builder();
+        root.foreach((k, v) -> builder.add(v));
+        return builder.result();
+    }
+
+    public CList<CList.Pair<K, V>> toCList() {
+        CList.Builder<CList.Pair<K, V>> builder = CList.builder();
+        root.foreach((k, v) -> builder.add(pair(k, v)));
+        return builder.result();
+    }
+
+    public Map<K, V> toMap() {
+        Map<K, V> result = new HashMap<>(Math.max(16, (int) (size / .75f) + 1));
+        root.foreach(result::put);
+        return result;
+    }
+
+    /**
+     * Walks the trie depth first, the order of the entries is unspecified.
+     */
+    @Override
+    public Iterator<CList.Pair<K, V>> iterator() {
+        return new Iterator<CList.Pair<K, V>>() {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            private final Node<K, V>[] path = new Node[8];  // at most 7 bitmap levels and a collision node
+            private final int[] nextNode = new int[8];
+            private int depth;
+            private int nextEntry;
+
+            {
+                path[0] = root;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (nextEntry >= path[depth].dataArity()) {
+                    while (nextNode[depth] >= path[depth].nodeArity())
+                        if (--depth < 0) {
+                            depth = 0;
+                            return false;
+                        }
+                    Node<K, V> child = path[depth].node(nextNode[depth]++);
+                    path[++depth] = child;
+                    nextNode[depth] = 0;
+                    nextEntry = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public CList.Pair<K, V> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Node<K, V> node = path[depth];
+                int i = nextEntry++;
+                return pair(node.key(i), node.value(i));
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CMap<?, ?> that = (CMap<?, ?>) o;
+        if (size != that.size) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        for (CList.Pair<K, V> entry : this)
+            if (!Objects.equals(entry._2, that.root.get(entry._1, hash(entry._1), 0)))
+                return false;
+        return true;
+    }
+
+    /**
+     * The sum of hash(key) ^ hash(value) over all entries, as for java.util.Map.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int[] sum = {0};
+            root.foreach((k, v) -> sum[0] += Objects.hashCode(k) ^ Objects.hashCode(v));
+            h = sum[0];
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CMap(");
+        root.foreach((k, v) -> {
+            if (sb.length() > 5)
+                sb.append(", ");
+            sb.append(k).append(" -> ").append(v);
+        });
+        return sb.append(')').toString();
+    }
+
+    // --- trie nodes
+
+    /**
+     * Receives the change of the number of entries from updated and removed: +1, -1 or 0 if a value was replaced.
+     */
+    private static final class Change {
+        int delta;
+    }
+
+    private abstract static class Node<K, V> {
+
+        /**
+         * The value of key or NOT_FOUND; shift is the number of hash bits consumed by the levels above.
+         */
+        abstract Object get(Object key, int hash, int shift);
+
+        /**
+         * owner is the builder that may modify the nodes it created in place, null for persistent updates.
+         */
+        abstract Node<K, V> updated(Object owner, K key, V value, int hash, int shift, Change change);
+
+        abstract Node<K, V> removed(Object owner, Object key, int hash, int shift, Change change);
+
+        abstract int dataArity();
+
+        abstract int nodeArity();
+
+        abstract K key(int i);
+
+        abstract V value(int i);
+
+        abstract Node<K, V> node(int i);
+
+        void foreach(BiConsumer<? super K, ? super V> c) {
+            for (int i = 0; i < dataArity(); i++)
+                c.accept(key(i), value(i));
+            for (int i = 0; i < nodeArity(); i++)
+                node(i).foreach(c);
+        }
+
+        int count() {
+            int count = dataArity();
+            for (int i = 0; i < nodeArity(); i++)
+                count += node(i).count();
+            return count;
+        }
+    }
+
+    /**
+     * A node holding two entries that end up in the same slot at the level of shift - BITS.
+     */
+    private static <K, V> Node<K, V> merge(Object owner, K k0, V v0, int h0, K k1, V v1, int h1, int shift) {
+        if (shift >= 32)
+            return new CollisionNode<>(owner, h0, new Object[]{k0, v0, k1, v1});
+        int bit0 = bit(h0, shift);
+        int bit1 = bit(h1, shift);
+        if (bit0 != bit1) {
+            Object[] content = Integer.compareUnsigned(bit0, bit1) < 0 ? new Object[]{k0, v0, k1, v1} : new Object[]{k1, v1, k0, v0};
+            return new BitmapNode<>(owner, bit0 | bit1, 0, content);
+        }
+        return new BitmapNode<>(owner, 0, bit0, new Object[]{merge(owner, k0, v0, h0, k1, v1, h1, shift + BITS)});
+    }
+
+    private static final class BitmapNode<K, V> extends Node<K, V> {
+
+        static final BitmapNode<?, ?> EMPTY = new BitmapNode<>(null, 0, 0, new Object[0]);
+
+        private final Object owner;     // the builder that may modify this node in place, null if none
+        private int dataMap;
+        private int nodeMap;
+        private Object[] content;       // key and value of each entry, then the sub-nodes in reverse order
+
+        BitmapNode(Object owner, int dataMap, int nodeMap, Object[] content) {
+            this.owner = owner;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        int nodeSlot(int bit) {
+            return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<K, V> nodeAt(int bit) {
+            return (Node<K, V>) content[nodeSlot(bit)];
+        }
+
+        @Override
+        Object get(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                return Objects.equals(content[i], key) ? content[i + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0)
+                return nodeAt(bit).get(key, hash, shift + BITS);
+            return NOT_FOUND;
+        }
+
+        /**
+         * This node if the builder owner may modify it, otherwise a copy that owner may modify.
+         */
+        private BitmapNode<K, V> editable(Object owner) {
+            return owner != null && this.owner == owner ? this : new BitmapNode<>(owner, dataMap, nodeMap, content.clone());
+        }
+
+        private BitmapNode<K, V> with(Object owner, int dataMap, int nodeMap, Object[] content) {
+            if (owner != null && this.owner == owner) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.content = content;
+                return this;
+            }
+            return new BitmapNode<>(owner, dataMap, nodeMap, content);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> updated(Object owner, K key, V value, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                K k = (K) content[i];
+                if (Objects.equals(k, key)) {
+                    if (content[i + 1] == value)
+                        return this;
+                    BitmapNode<K, V> node = editable(owner);
+                    node.content[i + 1] = value;
+                    return node;
+                }
+                Node<K, V> sub = merge(owner, k, (V) content[i + 1], hash(k), key, value, hash, shift + BITS);
+                change.delta = 1;
+                return dataToNode(owner, bit, i, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                int slot = nodeSlot(bit);
+                Node<K, V> sub = (Node<K, V>) content[slot];
+                Node<K, V> newSub = sub.updated(owner, key, value, hash, shift + BITS, change);
+                if (newSub == sub)
+                    return this;
+                BitmapNode<K, V> node = editable(owner);
+                node.content[slot] = newSub;
+                return node;
+            }
+            change.delta = 1;
+            int i = 2 * dataIndex(bit);
+            Object[] c = new Object[content.length + 2];
+            System.arraycopy(content, 0, c, 0, i);
+            c[i] = key;
+            c[i + 1] = value;
+            System.arraycopy(content, i, c, i + 2, content.length - i);
+            return with(owner, dataMap | bit, nodeMap, c);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> removed(Object owner, Object key, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                if (!Objects.equals(content[i], key))
+                    return this;
+                change.delta = -1;
+                Object[] c = new Object[content.length - 2];
+                System.arraycopy(content, 0, c, 0, i);
+                System.arraycopy(content, i + 2, c, i, content.length - i - 2);
+                return with(owner, dataMap ^ bit, nodeMap, c);
+            }
+            if ((nodeMap & bit) != 0) {
+                int slot = nodeSlot(bit);
+                Node<K, V> sub = (Node<K, V>) content[slot];
+                Node<K, V> newSub = sub.removed(owner, key, hash, shift + BITS, change);
+                if (newSub == sub)
+                    return this;
+                if (newSub.nodeArity() == 0 && newSub.dataArity() == 1)
+                    return nodeToData(owner, bit, slot, newSub.key(0), newSub.value(0));
+                BitmapNode<K, V> node = editable(owner);
+                node.content[slot] = newSub;
+                return node;
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the entry at content[i] by the sub-node holding it and the entry that collided with it.
+         */
+        private Node<K, V> dataToNode(Object owner, int bit, int i, Node<K, V> sub) {
+            Object[] c = new Object[content.length - 1];
+            int slot = c.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+            System.arraycopy(content, 0, c, 0, i);
+            System.arraycopy(content, i + 2, c, i, slot - i);
+            c[slot] = sub;
+            System.arraycopy(content, slot + 2, c, slot + 1, content.length - slot - 2);
+            return with(owner, dataMap ^ bit, nodeMap | bit, c);
+        }
+
+        /**
+         * Replaces the sub-node at content[slot] by its only remaining entry.
+         */
+        private Node<K, V> nodeToData(Object owner, int bit, int slot, K key, V value) {
+            int i = 2 * dataIndex(bit);
+            Object[] c = new Object[content.length + 1];
+            System.arraycopy(content, 0, c, 0, i);
+            c[i] = key;
+            c[i + 1] = value;
+            System.arraycopy(content, i, c, i + 2, slot - i);
+            System.arraycopy(content, slot + 1, c, slot + 2, content.length - slot - 1);
+            return with(owner, dataMap | bit, nodeMap ^ bit, c);
+        }
+
+        @Override
+        int dataArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K key(int i) {
+            return (K) content[2 * i];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V value(int i) {
+            return (V) content[2 * i + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> node(int i) {
+            return (Node<K, V>) content[content.length - 1 - i];
+        }
+    }
+
+    /**
+     * The entries of keys whose spread hash codes are equal in all 32 bits, in insertion order.
+     */
+    private static final class CollisionNode<K, V> extends Node<K, V> {
+
+        private final Object owner;
+        private final int hash;
+        private Object[] content;       // key and value of each entry
+
+        CollisionNode(Object owner, int hash, Object[] content) {
+            this.owner = owner;
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2)
+                if (Objects.equals(content[i], key))
+                    return i;
+            return -1;
+        }
+
+        @Override
+        Object get(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : content[i + 1];
+        }
+
+        private CollisionNode<K, V> with(Object owner, Object[] content) {
+            if (owner != null && this.owner == owner) {
+                this.content = content;
+                return this;
+            }
+            return new CollisionNode<>(owner, hash, content);
+        }
+
+        @Override
+        Node<K, V> updated(Object owner, K key, V value, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (content[i + 1] == value)
+                    return this;
+                Object[] c = content.clone();
+                c[i + 1] = value;
+                return with(owner, c);
+            }
+            change.delta = 1;
+            Object[] c = Arrays.copyOf(content, content.length + 2);
+            c[content.length] = key;
+            c[content.length + 1] = value;
+            return with(owner, c);
+        }
+
+        @Override
+        Node<K, V> removed(Object owner, Object key, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i < 0)
+                return this;
+            change.delta = -1;
+            Object[] c = new Object[content.length - 2];
+            System.arraycopy(content, 0, c, 0, i);
+            System.arraycopy(content, i + 2, c, i, content.length - i - 2);
+            return with(owner, c);
+        }
+
+        @Override
+        int dataArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K key(int i) {
+            return (K) content[2 * i];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V value(int i) {
+            return (V) content[2 * i + 1];
+        }
+
+        @Override
+        Node<K, V> node(int i) {
+            throw new IndexOutOfBoundsException("collision nodes have no sub-nodes");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.cell;
+
+/**
+ * CQueue is a persistent FIFO queue of two CLists, like Scala's immutable Queue.
+ * <p>
+ * Elements are dequeued from the head of front and enqueued onto the head of rear, which holds the back of the
+ * queue in reverse. When front runs empty, rear is reversed into the new front. Every element is moved once,
+ * so enqueue and dequeue are amortized O(1) as long as each version of the queue is dequeued at most once.
+ * RealTimeCQueue gives the same operations in worst-case O(1), independent of how the versions are used.
+ * <p>
+ * front is only empty if the whole queue is empty, so head is always O(1).
+ */
+public final class CQueue<A> implements Iterable<A> {
+
+    private static final CQueue<?> EMPTY = new CQueue<>(CList.nil(), CList.nil(), 0);
+
+    private final CList<A> front;
+    private final CList<A> rear;
+    private final int size;
+
+    private CQueue(CList<A> front, CList<A> rear, int size) {
+        this.front = front;
+        this.rear = rear;
+        this.size = size;
+    }
+
+    private static <T> CQueue<T> queue(CList<T> front, CList<T> rear, int size) {
+        if (size == 0)
+            return empty();
+        return front.isEmpty() ? new CQueue<>(rear.reverse(), CList.nil(), size) : new CQueue<>(front, rear, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CQueue<T> empty() {
+        return (CQueue<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <T> CQueue<T> cqueue(T... elems) {
+        CList.Builder<T> front = CList.builder();
+        for (T elem : elems)
+            front.add(elem);
+        return fromCList(front.result());
+    }
+
+    /**
+     * The queue with the elements of xs, head first. O(1), the list becomes the front of the queue.
+     */
+    public static <T> CQueue<T> fromCList(CList<T> xs) {
+        return queue(xs, CList.nil(), xs.length());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean nonEmpty() {
+        return size != 0;
+    }
+
+    public CQueue<A> enqueue(A elem) {
+        return queue(front, cell(elem, rear), size + 1);
+    }
+
+    /**
+     * Enqueues the elements in iteration order, in O(k) for k elements.
+     */
+    public CQueue<A> enqueueAll(Iterable<? extends A> elems) {
+        CList<A> newRear = rear;
+        int newSize = size;
+        for (A elem : elems) {
+            newRear = cell(elem, newRear);
+            newSize++;
+        }
+        return newSize == size ? this : queue(front, newRear, newSize);
+    }
+
+    /**
+     * The first element and the queue without it.
+     */
+    public CList.Pair<A, CQueue<A>> dequeue() {
+        if (isEmpty())
+            throw new NoSuchElementException("dequeue on empty CQueue");
+        return pair(front.head(), queue(front.tail(), rear, size - 1));
+    }
+
+    public Optional<CList.Pair<A, CQueue<A>>> dequeueOption() {
+        return isEmpty() ? Optional.empty() : Optional.of(dequeue());
+    }
+
+    public A head() {
+        if (isEmpty())
+            throw new NoSuchElementException("head of empty CQueue");
+        return front.head();
+    }
+
+    public Optional<A> headOption() {
+        return isEmpty() ? Optional.empty() : Optional.ofNullable(front.head());
+    }
+
+    public CQueue<A> tail() {
+        if (isEmpty())
+            throw new NoSuchElementException("tail of empty CQueue");
+        return queue(front.tail(), rear, size - 1);
+    }
+
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = front.foldLeft(zero, op);
+        return rear.reverse().foldLeft(acc, op);
+    }
+
+    public void foreach(Consumer<A> c) {
+        front.foreach(c);
+        rear.reverse().foreach(c);
+    }
+
+    /**
+     * The elements in FIFO order; shares the front of the queue.
+     */
+    public CList<A> toCList() {
+        return rear.isEmpty() ? front : front.append(rear.reverse());
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>(size);
+        foreach(result::add);
+        return result;
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private CList<A> rest = front;
+            private boolean inRear;
+
+            @Override
+            public boolean hasNext() {
+                if (rest.isEmpty() && !inRear) {
+                    rest = rear.reverse();
+                    inRear = true;
+                }
+                return rest.nonEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                A elem = rest.head();
+                rest = rest.tail();
+                return elem;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CQueue<?> that = (CQueue<?>) o;
+        if (size != that.size) return false;
+        Iterator<?> ys = that.iterator();
+        for (A elem : this)
+            if (!Objects.equals(elem, ys.next()))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (A elem : this)
+            h = 31 * h + Objects.hashCode(elem);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CQueue(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
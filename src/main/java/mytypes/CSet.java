@@ -0,0 +1,207 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * CSet is a persistent hash set, a CMap whose keys are the elements of the set.
+ * It shares the trie of the CMap, so added and removed copy only one path, and union merges the tries node by node.
+ */
+public final class CSet<A> implements Iterable<A> {
+
+    private static final Object PRESENT = Boolean.TRUE;
+
+    private static final CSet<?> EMPTY = new CSet<>(CMap.empty());
+
+    /**
+     * Builds a CSet in place, see CMap.Builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder<A> {
+
+        private final CMap.Builder<A, Object> map = CMap.builder();
+
+        public Builder<A> add(A elem) {
+            map.put(elem, PRESENT);
+            return this;
+        }
+
+        public Builder<A> addAll(Iterable<? extends A> elems) {
+            for (A elem : elems)
+                add(elem);
+            return this;
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public CSet<A> result() {
+            return map.size() == 0 ? empty() : new CSet<>(map.result());
+        }
+    }
+
+    private final CMap<A, Object> map;
+
+    private CSet(CMap<A, Object> map) {
+        this.map = map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CSet<T> empty() {
+        return (CSet<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <T> CSet<T> cset(T... elems) {
+        Builder<T> builder = new Builder<>();
+        for (T elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static <T> CSet<T> fromCList(CList<T> xs) {
+        Builder<T> builder = new Builder<>();
+        for (CList<T> ys = xs; ys.nonEmpty(); ys = ys.tail())
+            builder.add(ys.head());
+        return builder.result();
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private CSet<A> wrap(CMap<A, Object> newMap) {
+        return newMap == map ? this : newMap.isEmpty() ? empty() : new CSet<>(newMap);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public boolean nonEmpty() {
+        return map.nonEmpty();
+    }
+
+    public boolean contains(A elem) {
+        return map.containsKey(elem);
+    }
+
+    /**
+     * This set with elem. Returns this set if elem is already contained.
+     */
+    public CSet<A> added(A elem) {
+        return wrap(map.updated(elem, PRESENT));
+    }
+
+    /**
+     * This set without elem. Returns this set if elem is not contained.
+     */
+    public CSet<A> removed(A elem) {
+        return wrap(map.removed(elem));
+    }
+
+    public CSet<A> union(CSet<A> other) {
+        return wrap(map.union(other.map));
+    }
+
+    public CSet<A> intersect(CSet<A> other) {
+        return wrap(map.intersect(other.map));
+    }
+
+    public CSet<A> diff(CSet<A> other) {
+        return filter(elem -> !other.contains(elem));
+    }
+
+    public boolean subsetOf(CSet<A> other) {
+        return size() <= other.size() && forall(other::contains);
+    }
+
+    public CSet<A> filter(Predicate<A> p) {
+        Builder<A> builder = new Builder<>();
+        for (A elem : this)
+            if (p.test(elem))
+                builder.add(elem);
+        return builder.size() == size() ? this : builder.result();
+    }
+
+    public boolean exists(Predicate<A> p) {
+        for (A elem : this)
+            if (p.test(elem))
+                return true;
+        return false;
+    }
+
+    public boolean forall(Predicate<A> p) {
+        return !exists(p.negate());
+    }
+
+    public void foreach(Consumer<A> c) {
+        map.foreach((k, v) -> c.accept(k));
+    }
+
+    public CList<A> toCList() {
+        CList.Builder<A> builder = CList.builder();
+        foreach(builder::add);
+        return builder.result();
+    }
+
+    public Set<A> toSet() {
+        Set<A> result = new HashSet<>(Math.max(16, (int) (size() / .75f) + 1));
+        foreach(result::add);
+        return result;
+    }
+
+    /**
+     * The order of the elements is unspecified.
+     */
+    @Override
+    public Iterator<A> iterator() {
+        Iterator<CList.Pair<A, Object>> entries = map.iterator();
+        return new Iterator<A>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public A next() {
+                return entries.next()._1;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CSet<?> that = (CSet<?>) o;
+        return map.equals(that.map);
+    }
+
+    /**
+     * The sum of the hash codes of the elements, as for java.util.Set.
+     */
+    @Override
+    public int hashCode() {
+        int[] sum = {0};
+        foreach(elem -> sum[0] += Objects.hashCode(elem));
+        return sum[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CSet(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,352 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * CStream is a lazy CList, like Scala's LazyList.
+ * The head of a cell is strict, the tail is computed by a thunk on first access and then memoized.
+ * The transformations (map, filter, flatMap, take, zipWith, ...) only build the first cell of their result,
+ * so they also work on infinite streams.
+ * <p>
+ * Terminal operations (foldLeft, foreach, toCList, ...) and the iterator walk the stream in a loop and do not
+ * hold on to the cells they have passed. A traversal therefore runs in constant memory, unless the caller keeps a reference
+ * to the head of the stream: memoization then keeps all evaluated cells reachable.
+ */
+public abstract class CStream<A> implements Iterable<A> {
+
+    private static final CStream<?> EMPTY = new SEmpty<>();
+
+    @SuppressWarnings("unchecked")
+    public static <T> CStream<T> empty() {
+        return (CStream<T>) EMPTY;
+    }
+
+    public static <T> CStream<T> cons(T head, Supplier<CStream<T>> tail) {
+        return new SCons<>(head, tail);
+    }
+
+    /**
+     * A cell whose tail is already evaluated.
+     */
+    public static <T> CStream<T> cons(T head, CStream<T> tail) {
+        return new SCons<>(head, tail);
+    }
+
+    @SafeVarargs
+    public static <T> CStream<T> cstream(T... elems) {
+        CStream<T> result = empty();
+        for (int i = elems.length - 1; i >= 0; i--)
+            result = new SCons<>(elems[i], result);
+        return result;
+    }
+
+    public static <T> CStream<T> fromCList(CList<T> xs) {
+        return xs.isEmpty() ? empty() : cons(xs.head(), () -> fromCList(xs.tail()));
+    }
+
+    /**
+     * The iterator is consumed lazily, one element per evaluated cell.
+     */
+    public static <T> CStream<T> fromIterator(Iterator<T> it) {
+        return it.hasNext() ? cons(it.next(), () -> fromIterator(it)) : empty();
+    }
+
+    public static <T> CStream<T> iterate(T seed, UnaryOperator<T> f) {
+        return cons(seed, () -> iterate(f.apply(seed), f));
+    }
+
+    public static <T> CStream<T> continually(Supplier<T> elem) {
+        return cons(elem.get(), () -> continually(elem));
+    }
+
+    public static CStream<Integer> from(int start) {
+        return from(start, 1);
+    }
+
+    public static CStream<Integer> from(int start, int step) {
+        return iterate(start, x -> x + step);
+    }
+
+    public abstract A head();
+
+    public abstract CStream<A> tail();
+
+    public abstract boolean isEmpty();
+
+    public boolean nonEmpty() {
+        return !isEmpty();
+    }
+
+    public Optional<A> headOption() {
+        return isEmpty() ? Optional.empty() : Optional.of(head());
+    }
+
+    public CStream<A> append(CStream<A> other) {
+        return append(() -> other);
+    }
+
+    /**
+     * other is only evaluated when this stream is exhausted.
+     */
+    public CStream<A> append(Supplier<CStream<A>> other) {
+        return isEmpty() ? other.get() : cons(head(), () -> tail().append(other));
+    }
+
+    public <B> CStream<B> map(Function<A, B> f) {
+        return isEmpty() ? empty() : cons(f.apply(head()), () -> tail().map(f));
+    }
+
+    public CStream<A> filter(Predicate<A> p) {
+        CStream<A> xs = this;
+        while (xs.nonEmpty() && !p.test(xs.head()))
+            xs = xs.tail();
+        if (xs.isEmpty())
+            return empty();
+        CStream<A> found = xs;
+        return cons(found.head(), () -> found.tail().filter(p));
+    }
+
+    public CStream<A> filterNot(Predicate<A> p) {
+        return filter(p.negate());
+    }
+
+    public <B> CStream<B> flatMap(Function<A, CStream<B>> f) {
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail()) {
+            CStream<B> inner = f.apply(xs.head());
+            if (inner.nonEmpty()) {
+                CStream<A> rest = xs;
+                return inner.append(() -> rest.tail().flatMap(f));
+            }
+        }
+        return empty();
+    }
+
+    public CStream<A> take(int n) {
+        if (n <= 0 || isEmpty())
+            return empty();
+        else if (n == 1)
+            return new SCons<>(head(), empty());
+        else
+            return cons(head(), () -> tail().take(n - 1));
+    }
+
+    public CStream<A> drop(int n) {
+        CStream<A> xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            ;
+        return xs;
+    }
+
+    public CStream<A> takeWhile(Predicate<A> p) {
+        return nonEmpty() && p.test(head()) ? cons(head(), () -> tail().takeWhile(p)) : empty();
+    }
+
+    public CStream<A> dropWhile(Predicate<A> p) {
+        CStream<A> xs = this;
+        while (xs.nonEmpty() && p.test(xs.head()))
+            xs = xs.tail();
+        return xs;
+    }
+
+    public <B, C> CStream<C> zipWith(BiFunction<A, B, C> f, CStream<B> that) {
+        return this.isEmpty() || that.isEmpty() ?
+                empty() :
+                cons(f.apply(head(), that.head()), () -> tail().zipWith(f, that.tail()));
+    }
+
+    public <B> CStream<CList.Pair<A, B>> zip(CStream<B> that) {
+        return zipWith(CList.Pair::new, that);
+    }
+
+    public CStream<CList.Pair<A, Integer>> zipWithIndex() {
+        return zipWith(CList.Pair::new, from(0));
+    }
+
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = zero;
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = op.apply(acc, xs.head());
+        return acc;
+    }
+
+    /**
+     * Forces the whole stream, which therefore must be finite.
+     */
+    public <B> B foldRight(B zero, BiFunction<A, B, B> op) {
+        return toCList().foldRight(zero, op);
+    }
+
+    public int length() {
+        int length = 0;
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            length++;
+        return length;
+    }
+
+    public boolean exists(Predicate<A> p) {
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                return true;
+        return false;
+    }
+
+    public boolean forall(Predicate<A> p) {
+        return !exists(p.negate());
+    }
+
+    public boolean contains(A elem) {
+        return exists(e -> Objects.equals(e, elem));
+    }
+
+    public void foreach(Consumer<A> c) {
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            c.accept(xs.head());
+    }
+
+    /**
+     * Evaluates all cells of this (finite) stream.
+     */
+    public CStream<A> force() {
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            ;
+        return this;
+    }
+
+    public CList<A> toCList() {
+        CList.Builder<A> result = CList.builder();
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(xs.head());
+        return result.result();
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>();
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(xs.head());
+        return result;
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new StreamIterator<>(this);
+    }
+
+    /**
+     * Only refers to the cells not consumed yet. An anonymous class would also refer to the stream it was
+     * created on, and so keep every cell it passes reachable.
+     */
+    private static final class StreamIterator<A> implements Iterator<A> {
+        private CStream<A> rest;
+
+        StreamIterator(CStream<A> xs) {
+            this.rest = xs;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rest.nonEmpty();
+        }
+
+        @Override
+        public A next() {
+            A elem = rest.head();
+            rest = rest.tail();
+            return elem;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super A> action) {
+        for (CStream<A> xs = this; xs.nonEmpty(); xs = xs.tail())
+            action.accept(xs.head());
+    }
+
+    /**
+     * Shows the evaluated prefix of the stream, an unevaluated tail is shown as '?'.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CStream(");
+        CStream<A> xs = this;
+        for (boolean first = true; xs != null && xs.nonEmpty(); first = false) {
+            if (!first)
+                sb.append(", ");
+            sb.append(xs.head());
+            xs = ((SCons<A>) xs).evaluatedTail();
+        }
+        if (xs == null)
+            sb.append(", ?");
+        return sb.append(')').toString();
+    }
+}
+
+class SEmpty<A> extends CStream<A> {
+
+    @Override
+    public A head() {
+        throw new NoSuchElementException("head of empty CStream");
+    }
+
+    @Override
+    public CStream<A> tail() {
+        throw new NoSuchElementException("tail of empty CStream");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+}
+
+class SCons<A> extends CStream<A> {
+
+    private final A head;
+    private volatile CStream<A> tail;           // null until evaluated
+    private Supplier<CStream<A>> thunk;         // dropped after evaluation, so it cannot retain what it captured
+
+    SCons(A head, Supplier<CStream<A>> thunk) {
+        this.head = head;
+        this.thunk = thunk;
+    }
+
+    SCons(A head, CStream<A> tail) {
+        this.head = head;
+        this.tail = tail;
+    }
+
+    @Override
+    public A head() {
+        return head;
+    }
+
+    @Override
+    public CStream<A> tail() {
+        CStream<A> t = tail;
+        if (t == null) {
+            synchronized (this) {
+                t = tail;
+                if (t == null) {
+                    t = thunk.get();
+                    tail = t;
+                    thunk = null;
+                }
+            }
+        }
+        return t;
+    }
+
+    CStream<A> evaluatedTail() {
+        return tail;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+}
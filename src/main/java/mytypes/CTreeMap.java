@@ -0,0 +1,537 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static mytypes.CList.Pair.pair;
+
+/**
+ * CTreeMap is a persistent sorted map, a red-black tree like Scala's immutable TreeMap.
+ * <p>
+ * Insertion rebalances with Okasaki's rules, removal with Kahrs' rules, both copy only the path
+ * from the root to the changed node. Every node knows the size of its subtree, so size is O(1).
+ * range, from and until build a balanced tree directly from the entries in range in O(k + log n).
+ */
+public final class CTreeMap<K, V> implements Iterable<CList.Pair<K, V>> {
+
+    /**
+     * A node of the tree; null is the empty tree, which counts as black.
+     */
+    static final class Tree<K, V> {
+        final K key;
+        final V value;
+        final Tree<K, V> left;
+        final Tree<K, V> right;
+        final boolean red;
+        final int count;
+
+        Tree(K key, V value, Tree<K, V> left, Tree<K, V> right, boolean red) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.red = red;
+            this.count = 1 + count(left) + count(right);
+        }
+
+        Tree<K, V> black() {
+            return red ? new Tree<>(key, value, left, right, false) : this;
+        }
+
+        Tree<K, V> red() {
+            return red ? this : new Tree<>(key, value, left, right, true);
+        }
+    }
+
+    private final Comparator<? super K> order;
+    private final Tree<K, V> root;
+
+    private CTreeMap(Comparator<? super K> order, Tree<K, V> root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    public static <K extends Comparable<? super K>, V> CTreeMap<K, V> empty() {
+        return new CTreeMap<>(Comparator.naturalOrder(), null);
+    }
+
+    public static <K, V> CTreeMap<K, V> empty(Comparator<? super K> order) {
+        return new CTreeMap<>(order, null);
+    }
+
+    @SafeVarargs
+    public static <K extends Comparable<? super K>, V> CTreeMap<K, V> ctreeMap(CList.Pair<K, V>... entries) {
+        CTreeMap<K, V> result = empty();
+        for (CList.Pair<K, V> entry : entries)
+            result = result.updated(entry._1, entry._2);
+        return result;
+    }
+
+    static int count(Tree<?, ?> tree) {
+        return tree == null ? 0 : tree.count;
+    }
+
+    private static boolean isRed(Tree<?, ?> tree) {
+        return tree != null && tree.red;
+    }
+
+    private static boolean isBlack(Tree<?, ?> tree) {
+        return tree != null && !tree.red;
+    }
+
+    private static <K, V> Tree<K, V> red(K key, V value, Tree<K, V> left, Tree<K, V> right) {
+        return new Tree<>(key, value, left, right, true);
+    }
+
+    private static <K, V> Tree<K, V> black(K key, V value, Tree<K, V> left, Tree<K, V> right) {
+        return new Tree<>(key, value, left, right, false);
+    }
+
+    private static <K, V> Tree<K, V> blacken(Tree<K, V> tree) {
+        return tree == null ? null : tree.black();
+    }
+
+    // --- queries
+
+    public Comparator<? super K> ordering() {
+        return order;
+    }
+
+    public int size() {
+        return count(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public boolean nonEmpty() {
+        return root != null;
+    }
+
+    private Tree<K, V> lookup(K key) {
+        Tree<K, V> tree = root;
+        while (tree != null) {
+            int cmp = order.compare(key, tree.key);
+            if (cmp == 0)
+                return tree;
+            tree = cmp < 0 ? tree.left : tree.right;
+        }
+        return null;
+    }
+
+    public Optional<V> get(K key) {
+        Tree<K, V> tree = lookup(key);
+        return tree == null ? Optional.empty() : Optional.ofNullable(tree.value);
+    }
+
+    public V getOrElse(K key, V otherwise) {
+        Tree<K, V> tree = lookup(key);
+        return tree == null ? otherwise : tree.value;
+    }
+
+    public boolean containsKey(K key) {
+        return lookup(key) != null;
+    }
+
+    public K firstKey() {
+        if (root == null)
+            throw new NoSuchElementException("firstKey of empty CTreeMap");
+        Tree<K, V> tree = root;
+        while (tree.left != null)
+            tree = tree.left;
+        return tree.key;
+    }
+
+    public K lastKey() {
+        if (root == null)
+            throw new NoSuchElementException("lastKey of empty CTreeMap");
+        Tree<K, V> tree = root;
+        while (tree.right != null)
+            tree = tree.right;
+        return tree.key;
+    }
+
+    /**
+     * The largest key less than or equal to key.
+     */
+    public Optional<K> floorKey(K key) {
+        K result = null;
+        boolean found = false;
+        for (Tree<K, V> tree = root; tree != null; ) {
+            int cmp = order.compare(key, tree.key);
+            if (cmp == 0)
+                return Optional.ofNullable(tree.key);
+            if (cmp < 0) {
+                tree = tree.left;
+            } else {
+                result = tree.key;
+                found = true;
+                tree = tree.right;
+            }
+        }
+        return found ? Optional.ofNullable(result) : Optional.empty();
+    }
+
+    /**
+     * The smallest key greater than or equal to key.
+     */
+    public Optional<K> ceilingKey(K key) {
+        K result = null;
+        boolean found = false;
+        for (Tree<K, V> tree = root; tree != null; ) {
+            int cmp = order.compare(key, tree.key);
+            if (cmp == 0)
+                return Optional.ofNullable(tree.key);
+            if (cmp > 0) {
+                tree = tree.right;
+            } else {
+                result = tree.key;
+                found = true;
+                tree = tree.left;
+            }
+        }
+        return found ? Optional.ofNullable(result) : Optional.empty();
+    }
+
+    /**
+     * The number of keys less than key.
+     */
+    public int rank(K key) {
+        int rank = 0;
+        for (Tree<K, V> tree = root; tree != null; ) {
+            int cmp = order.compare(key, tree.key);
+            if (cmp == 0)
+                return rank + count(tree.left);
+            if (cmp < 0) {
+                tree = tree.left;
+            } else {
+                rank += count(tree.left) + 1;
+                tree = tree.right;
+            }
+        }
+        return rank;
+    }
+
+    // --- updates
+
+    /**
+     * This map with key mapped to value. Returns this map if key is already mapped to this very value.
+     */
+    public CTreeMap<K, V> updated(K key, V value) {
+        Tree<K, V> newRoot = blacken(upd(root, key, value));
+        return newRoot == root ? this : new CTreeMap<>(order, newRoot);
+    }
+
+    private Tree<K, V> upd(Tree<K, V> tree, K key, V value) {
+        if (tree == null)
+            return red(key, value, null, null);
+        int cmp = order.compare(key, tree.key);
+        if (cmp < 0) {
+            Tree<K, V> left = upd(tree.left, key, value);
+            return left == tree.left ? tree : balanceLeft(tree.red, tree.key, tree.value, left, tree.right);
+        }
+        if (cmp > 0) {
+            Tree<K, V> right = upd(tree.right, key, value);
+            return right == tree.right ? tree : balanceRight(tree.red, tree.key, tree.value, tree.left, right);
+        }
+        if (value == tree.value && key == tree.key)
+            return tree;
+        return new Tree<>(key, value, tree.left, tree.right, tree.red);
+    }
+
+    private static <K, V> Tree<K, V> balanceLeft(boolean red, K key, V value, Tree<K, V> l, Tree<K, V> r) {
+        if (isRed(l) && isRed(l.left))
+            return red(l.key, l.value, l.left.black(), black(key, value, l.right, r));
+        if (isRed(l) && isRed(l.right))
+            return red(l.right.key, l.right.value, black(l.key, l.value, l.left, l.right.left), black(key, value, l.right.right, r));
+        return new Tree<>(key, value, l, r, red);
+    }
+
+    private static <K, V> Tree<K, V> balanceRight(boolean red, K key, V value, Tree<K, V> l, Tree<K, V> r) {
+        if (isRed(r) && isRed(r.left))
+            return red(r.left.key, r.left.value, black(key, value, l, r.left.left), black(r.key, r.value, r.left.right, r.right));
+        if (isRed(r) && isRed(r.right))
+            return red(r.key, r.value, black(key, value, l, r.left), r.right.black());
+        return new Tree<>(key, value, l, r, red);
+    }
+
+    /**
+     * This map without key. Returns this map if key is not contained.
+     */
+    public CTreeMap<K, V> removed(K key) {
+        if (lookup(key) == null)
+            return this;
+        return new CTreeMap<>(order, blacken(del(root, key)));
+    }
+
+    private Tree<K, V> del(Tree<K, V> tree, K key) {
+        if (tree == null)
+            return null;
+        int cmp = order.compare(key, tree.key);
+        if (cmp < 0) {
+            Tree<K, V> left = del(tree.left, key);
+            return isBlack(tree.left) ?
+                    balLeft(tree.key, tree.value, left, tree.right) :
+                    red(tree.key, tree.value, left, tree.right);
+        }
+        if (cmp > 0) {
+            Tree<K, V> right = del(tree.right, key);
+            return isBlack(tree.right) ?
+                    balRight(tree.key, tree.value, tree.left, right) :
+                    red(tree.key, tree.value, tree.left, right);
+        }
+        return append(tree.left, tree.right);
+    }
+
+    private static <K, V> Tree<K, V> balance(K key, V value, Tree<K, V> l, Tree<K, V> r) {
+        if (isRed(l)) {
+            if (isRed(r))
+                return red(key, value, l.black(), r.black());
+            if (isRed(l.left))
+                return red(l.key, l.value, l.left.black(), black(key, value, l.right, r));
+            if (isRed(l.right))
+                return red(l.right.key, l.right.value, black(l.key, l.value, l.left, l.right.left), black(key, value, l.right.right, r));
+            return black(key, value, l, r);
+        }
+        if (isRed(r)) {
+            if (isRed(r.right))
+                return red(r.key, r.value, black(key, value, l, r.left), r.right.black());
+            if (isRed(r.left))
+                return red(r.left.key, r.left.value, black(key, value, l, r.left.left), black(r.key, r.value, r.left.right, r.right));
+        }
+        return black(key, value, l, r);
+    }
+
+    private static <K, V> Tree<K, V> subl(Tree<K, V> tree) {
+        if (!isBlack(tree))
+            throw new IllegalStateException("red-black invariant violated, expected a black tree");
+        return tree.red();
+    }
+
+    private static <K, V> Tree<K, V> balLeft(K key, V value, Tree<K, V> l, Tree<K, V> r) {
+        if (isRed(l))
+            return red(key, value, l.black(), r);
+        if (isBlack(r))
+            return balance(key, value, l, r.red());
+        if (isRed(r) && isBlack(r.left))
+            return red(r.left.key, r.left.value, black(key, value, l, r.left.left), balance(r.key, r.value, r.left.right, subl(r.right)));
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    private static <K, V> Tree<K, V> balRight(K key, V value, Tree<K, V> l, Tree<K, V> r) {
+        if (isRed(r))
+            return red(key, value, l, r.black());
+        if (isBlack(l))
+            return balance(key, value, l.red(), r);
+        if (isRed(l) && isBlack(l.right))
+            return red(l.right.key, l.right.value, balance(l.key, l.value, subl(l.left), l.right.left), black(key, value, l.right.right, r));
+        throw new IllegalStateException("red-black invariant violated");
+    }
+
+    /**
+     * Joins the subtrees of a removed node, all keys of l are less than those of r.
+     */
+    private static <K, V> Tree<K, V> append(Tree<K, V> l, Tree<K, V> r) {
+        if (l == null)
+            return r;
+        if (r == null)
+            return l;
+        if (l.red && r.red) {
+            Tree<K, V> middle = append(l.right, r.left);
+            if (isRed(middle))
+                return red(middle.key, middle.value, red(l.key, l.value, l.left, middle.left), red(r.key, r.value, middle.right, r.right));
+            return red(l.key, l.value, l.left, red(r.key, r.value, middle, r.right));
+        }
+        if (!l.red && !r.red) {
+            Tree<K, V> middle = append(l.right, r.left);
+            if (isRed(middle))
+                return red(middle.key, middle.value, black(l.key, l.value, l.left, middle.left), black(r.key, r.value, middle.right, r.right));
+            return balLeft(l.key, l.value, l.left, black(r.key, r.value, middle, r.right));
+        }
+        if (r.red)
+            return red(r.key, r.value, append(l, r.left), r.right);
+        return red(l.key, l.value, l.left, append(l.right, r));
+    }
+
+    // --- ranges
+
+    /**
+     * The entries with from &lt;= key &lt; until.
+     */
+    public CTreeMap<K, V> range(K from, K until) {
+        return slice(from, until);
+    }
+
+    /**
+     * The entries with from &lt;= key.
+     */
+    public CTreeMap<K, V> from(K from) {
+        return slice(from, null);
+    }
+
+    /**
+     * The entries with key &lt; until.
+     */
+    public CTreeMap<K, V> until(K until) {
+        return slice(null, until);
+    }
+
+    private CTreeMap<K, V> slice(K from, K until) {
+        List<Tree<K, V>> entries = new ArrayList<>();
+        collect(root, from, until, entries);
+        if (entries.size() == size())
+            return this;
+        return new CTreeMap<>(order, blacken(build(entries, 0, entries.size(), 0, height(entries.size()))));
+    }
+
+    /**
+     * Adds the nodes with from &lt;= key &lt; until in order; a null bound is unbounded.
+     */
+    private void collect(Tree<K, V> tree, K from, K until, List<Tree<K, V>> entries) {
+        if (tree == null)
+            return;
+        boolean aboveFrom = from == null || order.compare(from, tree.key) <= 0;
+        boolean belowUntil = until == null || order.compare(tree.key, until) < 0;
+        if (aboveFrom)
+            collect(tree.left, from, until, entries);
+        if (aboveFrom && belowUntil)
+            entries.add(tree);
+        if (belowUntil)
+            collect(tree.right, from, until, entries);
+    }
+
+    private static int height(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * A balanced tree of sorted[from, until): all levels but the last are complete, so the nodes on the last level
+     * can be red and all others black.
+     */
+    private static <K, V> Tree<K, V> build(List<Tree<K, V>> sorted, int from, int until, int depth, int height) {
+        if (from >= until)
+            return null;
+        int mid = (from + until) >>> 1;
+        Tree<K, V> node = sorted.get(mid);
+        Tree<K, V> left = build(sorted, from, mid, depth + 1, height);
+        Tree<K, V> right = build(sorted, mid + 1, until, depth + 1, height);
+        return new Tree<>(node.key, node.value, left, right, depth == height - 1 && depth > 0);
+    }
+
+    // --- traversals and conversions
+
+    public void foreach(BiConsumer<K, V> c) {
+        for (Iterator<Tree<K, V>> it = nodes(); it.hasNext(); ) {
+            Tree<K, V> tree = it.next();
+            c.accept(tree.key, tree.value);
+        }
+    }
+
+    public CList<K> keys() {
+        CList.Builder<K> result = CList.builder();
+        foreach((k, v) -> result.add(k));
+        return result.result();
+    }
+
+    public CList<V> values() {
+        CList.Builder<V> result = CList.builder();
+        foreach((k, v) -> result.add(v));
+        return result.result();
+    }
+
+    public CList<CList.Pair<K, V>> toCList() {
+        CList.Builder<CList.Pair<K, V>> result = CList.builder();
+        foreach((k, v) -> result.add(pair(k, v)));
+        return result.result();
+    }
+
+    /**
+     * In-order traversal with an explicit stack of the left spine.
+     */
+    private Iterator<Tree<K, V>> nodes() {
+        return new Iterator<Tree<K, V>>() {
+            private final Deque<Tree<K, V>> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Tree<K, V> tree) {
+                for (; tree != null; tree = tree.left)
+                    stack.push(tree);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public Tree<K, V> next() {
+                if (stack.isEmpty())
+                    throw new NoSuchElementException();
+                Tree<K, V> tree = stack.pop();
+                pushLeft(tree.right);
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * The entries in ascending order of their keys.
+     */
+    @Override
+    public Iterator<CList.Pair<K, V>> iterator() {
+        Iterator<Tree<K, V>> nodes = nodes();
+        return new Iterator<CList.Pair<K, V>>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public CList.Pair<K, V> next() {
+                Tree<K, V> tree = nodes.next();
+                return pair(tree.key, tree.value);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CTreeMap<?, ?> that = (CTreeMap<?, ?>) o;
+        if (size() != that.size()) return false;
+        Iterator<? extends Tree<?, ?>> ys = that.nodes();
+        for (Iterator<Tree<K, V>> xs = nodes(); xs.hasNext(); ) {
+            Tree<K, V> x = xs.next();
+            Tree<?, ?> y = ys.next();
+            if (!Objects.equals(x.key, y.key) || !Objects.equals(x.value, y.value))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The sum of hash(key) ^ hash(value) over all entries, as for java.util.Map.
+     */
+    @Override
+    public int hashCode() {
+        int[] sum = {0};
+        foreach((k, v) -> sum[0] += Objects.hashCode(k) ^ Objects.hashCode(v));
+        return sum[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CTreeMap(");
+        foreach((k, v) -> {
+            if (sb.length() > 9)
+                sb.append(", ");
+            sb.append(k).append(" -> ").append(v);
+        });
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,182 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * CTreeSet is a persistent sorted set, a CTreeMap whose keys are the elements of the set.
+ */
+public final class CTreeSet<A> implements Iterable<A> {
+
+    private static final Object PRESENT = Boolean.TRUE;
+
+    private final CTreeMap<A, Object> map;
+
+    private CTreeSet(CTreeMap<A, Object> map) {
+        this.map = map;
+    }
+
+    public static <T extends Comparable<? super T>> CTreeSet<T> empty() {
+        return new CTreeSet<>(CTreeMap.<T, Object>empty());
+    }
+
+    public static <T> CTreeSet<T> empty(Comparator<? super T> order) {
+        return new CTreeSet<>(CTreeMap.empty(order));
+    }
+
+    @SafeVarargs
+    public static <T extends Comparable<? super T>> CTreeSet<T> ctreeSet(T... elems) {
+        CTreeSet<T> result = empty();
+        for (T elem : elems)
+            result = result.added(elem);
+        return result;
+    }
+
+    public static <T> CTreeSet<T> fromCList(CList<T> xs, Comparator<? super T> order) {
+        CTreeSet<T> result = empty(order);
+        for (CList<T> ys = xs; ys.nonEmpty(); ys = ys.tail())
+            result = result.added(ys.head());
+        return result;
+    }
+
+    private CTreeSet<A> wrap(CTreeMap<A, Object> newMap) {
+        return newMap == map ? this : new CTreeSet<>(newMap);
+    }
+
+    public Comparator<? super A> ordering() {
+        return map.ordering();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public boolean nonEmpty() {
+        return map.nonEmpty();
+    }
+
+    public boolean contains(A elem) {
+        return map.containsKey(elem);
+    }
+
+    /**
+     * This set with elem. Returns this set if elem is already contained.
+     */
+    public CTreeSet<A> added(A elem) {
+        return contains(elem) ? this : wrap(map.updated(elem, PRESENT));
+    }
+
+    /**
+     * This set without elem. Returns this set if elem is not contained.
+     */
+    public CTreeSet<A> removed(A elem) {
+        return wrap(map.removed(elem));
+    }
+
+    public A first() {
+        return map.firstKey();
+    }
+
+    public A last() {
+        return map.lastKey();
+    }
+
+    public Optional<A> floor(A elem) {
+        return map.floorKey(elem);
+    }
+
+    public Optional<A> ceiling(A elem) {
+        return map.ceilingKey(elem);
+    }
+
+    /**
+     * The number of elements less than elem.
+     */
+    public int rank(A elem) {
+        return map.rank(elem);
+    }
+
+    /**
+     * The elements with from &lt;= elem &lt; until.
+     */
+    public CTreeSet<A> range(A from, A until) {
+        return wrap(map.range(from, until));
+    }
+
+    public CTreeSet<A> from(A from) {
+        return wrap(map.from(from));
+    }
+
+    public CTreeSet<A> until(A until) {
+        return wrap(map.until(until));
+    }
+
+    public CTreeSet<A> filter(Predicate<A> p) {
+        CTreeSet<A> result = this;
+        for (A elem : this)
+            if (!p.test(elem))
+                result = result.removed(elem);
+        return result;
+    }
+
+    public void foreach(Consumer<A> c) {
+        map.foreach((k, v) -> c.accept(k));
+    }
+
+    /**
+     * The elements in ascending order.
+     */
+    public CList<A> toCList() {
+        return map.keys();
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        Iterator<CList.Pair<A, Object>> entries = map.iterator();
+        return new Iterator<A>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public A next() {
+                return entries.next()._1;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CTreeSet<?> that = (CTreeSet<?>) o;
+        return map.equals(that.map);
+    }
+
+    /**
+     * The sum of the hash codes of the elements, as for java.util.Set.
+     */
+    @Override
+    public int hashCode() {
+        int[] sum = {0};
+        foreach(elem -> sum[0] += Objects.hashCode(elem));
+        return sum[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CTreeSet(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,585 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static mytypes.CList.Pair.pair;
+
+/**
+ * CVector reimplements scala.collection.immutable.Vector: a persistent sequence with effectively constant
+ * indexed access, update, append and prepend.
+ * <p>
+ * The elements are kept in three parts:
+ * <ul>
+ * <li>prefix: up to 32 elements in front of the trie, so that prepending only copies a small array,</li>
+ * <li>a 32-way trie of full leaves of 32 elements each,</li>
+ * <li>suffix: up to 32 elements behind the trie, so that appending only copies a small array.</li>
+ * </ul>
+ * A full suffix (prefix) is pushed into the trie as a new last (first) leaf.
+ * The trie is addressed by position: element i of the trie sits at position origin + i.
+ * origin is always a multiple of 32, so every leaf of the trie is full.
+ * Updates copy the path from the root to the leaf and share everything else, slices share the trie.
+ */
+public final class CVector<A> implements Iterable<A> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final CVector<?> EMPTY = new CVector<>(EMPTY_ARRAY, null, BITS, 0, 0, EMPTY_ARRAY);
+
+    /**
+     * Builds a CVector by appending, without copying: the leaves and nodes are filled in place
+     * until result() hands them over and resets the builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder<A> {
+
+        private Object[] root;
+        private int shift = BITS;
+        private int trieSize;
+        private Object[] leaf = new Object[WIDTH];
+        private int leafSize;
+
+        public Builder<A> add(A elem) {
+            if (leafSize == WIDTH) {
+                pushLeaf(leaf);
+                leaf = new Object[WIDTH];
+                leafSize = 0;
+            }
+            leaf[leafSize++] = elem;
+            return this;
+        }
+
+        public Builder<A> addAll(Iterable<? extends A> elems) {
+            for (A elem : elems)
+                add(elem);
+            return this;
+        }
+
+        public int size() {
+            return trieSize + leafSize;
+        }
+
+        private void pushLeaf(Object[] full) {
+            int pos = trieSize;
+            if (root == null) {
+                root = new Object[WIDTH];
+            } else if (pos == capacity(shift)) {
+                Object[] newRoot = new Object[WIDTH];
+                newRoot[0] = root;
+                root = newRoot;
+                shift += BITS;
+            }
+            Object[] node = root;
+            for (int level = shift; level > BITS; level -= BITS) {
+                int index = (pos >>> level) & MASK;
+                if (node[index] == null)
+                    node[index] = new Object[WIDTH];
+                node = (Object[]) node[index];
+            }
+            node[(pos >>> BITS) & MASK] = full;
+            trieSize += WIDTH;
+        }
+
+        public CVector<A> result() {
+            CVector<A> result = trieSize + leafSize == 0 ?
+                    empty() :
+                    new CVector<>(EMPTY_ARRAY, root, shift, 0, trieSize, Arrays.copyOf(leaf, leafSize));
+            root = null;
+            shift = BITS;
+            trieSize = 0;
+            leaf = new Object[WIDTH];
+            leafSize = 0;
+            return result;
+        }
+    }
+
+    private final Object[] prefix;
+    private final Object[] root;        // null if the trie is empty
+    private final int shift;            // level of the root: root[(pos >>> shift) & MASK] holds position pos
+    private final int origin;           // trie position of the first trie element
+    private final int trieSize;
+    private final Object[] suffix;
+    private final int size;
+    private int hash;                   // lazily computed, 0 if not yet known
+
+    private CVector(Object[] prefix, Object[] root, int shift, int origin, int trieSize, Object[] suffix) {
+        this.prefix = prefix;
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.trieSize = trieSize;
+        this.suffix = suffix;
+        this.size = prefix.length + trieSize + suffix.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CVector<T> empty() {
+        return (CVector<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <T> CVector<T> cvector(T... elems) {
+        Builder<T> builder = new Builder<>();
+        for (T elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static <T> CVector<T> fromCList(CList<T> xs) {
+        Builder<T> builder = new Builder<>();
+        for (CList<T> ys = xs; ys.nonEmpty(); ys = ys.tail())
+            builder.add(ys.head());
+        return builder.result();
+    }
+
+    public static <T> CVector<T> fromIterable(Iterable<? extends T> elems) {
+        return new Builder<T>().addAll(elems).result();
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private static long capacity(int shift) {
+        return 1L << (shift + BITS);
+    }
+
+    // --- indexed access
+
+    @SuppressWarnings("unchecked")
+    public A apply(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for CVector of size " + size);
+        if (index < prefix.length)
+            return (A) prefix[index];
+        index -= prefix.length;
+        if (index < trieSize)
+            return (A) leafAt(origin + index)[(origin + index) & MASK];
+        return (A) suffix[index - trieSize];
+    }
+
+    private Object[] leafAt(int pos) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS)
+            node = (Object[]) node[(pos >>> level) & MASK];
+        return node;
+    }
+
+    public CVector<A> updated(int index, A elem) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for CVector of size " + size);
+        if (index < prefix.length) {
+            Object[] newPrefix = prefix.clone();
+            newPrefix[index] = elem;
+            return new CVector<>(newPrefix, root, shift, origin, trieSize, suffix);
+        }
+        index -= prefix.length;
+        if (index < trieSize) {
+            Object[] newRoot = updated(root, shift, origin + index, elem);
+            return new CVector<>(prefix, newRoot, shift, origin, trieSize, suffix);
+        }
+        Object[] newSuffix = suffix.clone();
+        newSuffix[index - trieSize] = elem;
+        return new CVector<>(prefix, root, shift, origin, trieSize, newSuffix);
+    }
+
+    private static Object[] updated(Object[] node, int level, int pos, Object elem) {
+        Object[] copy = node.clone();
+        if (level == 0)
+            copy[pos & MASK] = elem;
+        else {
+            int index = (pos >>> level) & MASK;
+            copy[index] = updated((Object[]) node[index], level - BITS, pos, elem);
+        }
+        return copy;
+    }
+
+    public boolean isDefinedAt(int index) {
+        return index >= 0 && index < size;
+    }
+
+    // --- appending and prepending
+
+    public CVector<A> appended(A elem) {
+        if (suffix.length < WIDTH) {
+            Object[] newSuffix = Arrays.copyOf(suffix, suffix.length + 1);
+            newSuffix[suffix.length] = elem;
+            return new CVector<>(prefix, root, shift, origin, trieSize, newSuffix);
+        }
+        if (root == null) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = suffix;
+            return new CVector<>(prefix, newRoot, BITS, 0, WIDTH, new Object[]{elem});
+        }
+        Object[] newRoot = root;
+        int newShift = shift;
+        int pos = origin + trieSize;
+        if (pos == capacity(shift)) {
+            if (shift + BITS > 30)
+                throw new IllegalStateException("CVector capacity exceeded");
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newShift += BITS;
+        }
+        newRoot = withLeaf(newRoot, newShift, pos, suffix);
+        return new CVector<>(prefix, newRoot, newShift, origin, trieSize + WIDTH, new Object[]{elem});
+    }
+
+    public CVector<A> prepended(A elem) {
+        if (prefix.length < WIDTH) {
+            Object[] newPrefix = new Object[prefix.length + 1];
+            newPrefix[0] = elem;
+            System.arraycopy(prefix, 0, newPrefix, 1, prefix.length);
+            return new CVector<>(newPrefix, root, shift, origin, trieSize, suffix);
+        }
+        if (root == null) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[MASK] = prefix;
+            return new CVector<>(new Object[]{elem}, newRoot, BITS, MASK * WIDTH, WIDTH, suffix);
+        }
+        Object[] newRoot = root;
+        int newShift = shift;
+        int newOrigin = origin;
+        if (origin == 0) {
+            // make room in front: the old root becomes a child at the far end of a new root
+            if (shift + BITS > 30)
+                throw new IllegalStateException("CVector capacity exceeded");
+            int slot = shift + BITS == 30 ? 1 : MASK;
+            newRoot = new Object[WIDTH];
+            newRoot[slot] = root;
+            newOrigin = slot << (shift + BITS);
+            newShift += BITS;
+        }
+        newOrigin -= WIDTH;
+        newRoot = withLeaf(newRoot, newShift, newOrigin, prefix);
+        return new CVector<>(new Object[]{elem}, newRoot, newShift, newOrigin, trieSize + WIDTH, suffix);
+    }
+
+    private static Object[] withLeaf(Object[] node, int level, int pos, Object[] leaf) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int index = (pos >>> level) & MASK;
+        copy[index] = level == BITS ? leaf : withLeaf((Object[]) copy[index], level - BITS, pos, leaf);
+        return copy;
+    }
+
+    public CVector<A> append(CVector<A> other) {
+        if (other.isEmpty())
+            return this;
+        if (this.isEmpty())
+            return other;
+        CVector<A> result = this;
+        for (A elem : other)
+            result = result.appended(elem);
+        return result;
+    }
+
+    // --- slicing
+
+    /**
+     * Elements from index from (inclusive) to until (exclusive). The trie is shared with this vector.
+     */
+    public CVector<A> slice(int from, int until) {
+        from = Math.max(from, 0);
+        until = Math.min(until, size);
+        if (from >= until)
+            return empty();
+        if (from == 0 && until == size)
+            return this;
+        int n = until - from;
+        if (n <= 2 * WIDTH) {
+            int split = Math.min(n, WIDTH);
+            return new CVector<>(copyRange(from, from + split), null, BITS, 0, 0, copyRange(from + split, until));
+        }
+        // [a, b) is the part of the trie that consists of full leaves within [from, until)
+        int p = prefix.length;
+        int lo = Math.max(from, p);
+        int a = Math.min(p + ((lo - p + MASK) & ~MASK), p + trieSize);
+        int hi = Math.min(until, p + trieSize);
+        int b = hi <= p ? p : p + ((hi - p) & ~MASK);
+        Object[] newRoot = root;
+        int newShift = shift;
+        int newOrigin = origin + (a - p);
+        int newTrieSize = b - a;
+        // drop root levels that only lead to a single child
+        while (newShift > BITS) {
+            int first = (newOrigin >>> newShift) & MASK;
+            int last = ((newOrigin + newTrieSize - 1) >>> newShift) & MASK;
+            if (first != last)
+                break;
+            newRoot = (Object[]) newRoot[first];
+            newOrigin -= first << newShift;
+            newShift -= BITS;
+        }
+        return new CVector<>(copyRange(from, a), newRoot, newShift, newOrigin, newTrieSize, copyRange(b, until));
+    }
+
+    private Object[] copyRange(int from, int until) {
+        if (from >= until)
+            return EMPTY_ARRAY;
+        Object[] result = new Object[until - from];
+        for (int i = from; i < until; i++)
+            result[i - from] = apply(i);
+        return result;
+    }
+
+    public CVector<A> take(int n) {
+        return slice(0, n);
+    }
+
+    public CVector<A> drop(int n) {
+        return slice(n, size);
+    }
+
+    // --- the CList operations
+
+    public A head() {
+        if (isEmpty())
+            throw new NoSuchElementException("head of empty CVector");
+        return apply(0);
+    }
+
+    public CVector<A> tail() {
+        if (isEmpty())
+            throw new NoSuchElementException("tail of empty CVector");
+        return drop(1);
+    }
+
+    public A last() {
+        if (isEmpty())
+            throw new NoSuchElementException("last of empty CVector");
+        return apply(size - 1);
+    }
+
+    public Optional<A> headOption() {
+        return isEmpty() ? Optional.empty() : Optional.of(apply(0));
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean nonEmpty() {
+        return size != 0;
+    }
+
+    public int length() {
+        return size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = zero;
+        for (A elem : this)
+            acc = op.apply(acc, elem);
+        return acc;
+    }
+
+    public <B> B foldRight(B zero, BiFunction<A, B, B> op) {
+        B acc = zero;
+        for (int i = size - 1; i >= 0; i--)
+            acc = op.apply(apply(i), acc);
+        return acc;
+    }
+
+    public A fold(A zero, BiFunction<A, A, A> op) {
+        return foldLeft(zero, op);
+    }
+
+    public boolean contains(A elem) {
+        return exists(e -> Objects.equals(e, elem));
+    }
+
+    public boolean exists(Predicate<A> p) {
+        for (A elem : this)
+            if (p.test(elem))
+                return true;
+        return false;
+    }
+
+    public boolean forall(Predicate<A> p) {
+        return !exists(p.negate());
+    }
+
+    public CVector<A> reverse() {
+        Builder<A> result = new Builder<>();
+        for (int i = size - 1; i >= 0; i--)
+            result.add(apply(i));
+        return result.result();
+    }
+
+    public boolean isPalindrom() {
+        return this.equals(this.reverse());
+    }
+
+    public CVector<A> filter(Predicate<A> p) {
+        Builder<A> result = new Builder<>();
+        for (A elem : this)
+            if (p.test(elem))
+                result.add(elem);
+        return result.result();
+    }
+
+    public CVector<A> filterNot(Predicate<A> p) {
+        return filter(p.negate());
+    }
+
+    public <B> CVector<B> map(Function<A, B> f) {
+        Builder<B> result = new Builder<>();
+        for (A elem : this)
+            result.add(f.apply(elem));
+        return result.result();
+    }
+
+    public <B> CVector<B> flatMap(Function<A, CVector<B>> f) {
+        Builder<B> result = new Builder<>();
+        for (A elem : this)
+            result.addAll(f.apply(elem));
+        return result.result();
+    }
+
+    @SuppressWarnings("unchecked")
+    public CVector<A> flatten() {
+        Builder<A> result = new Builder<>();
+        for (A elem : this) {
+            if (!(elem instanceof CVector))
+                throw new IllegalStateException("CVector cannot be flattened, it is not a CVector of CVectors.");
+            result.addAll((CVector<A>) elem);
+        }
+        return result.result();
+    }
+
+    public CVector<A> concat() {
+        return flatten();
+    }
+
+    public <B, C> CVector<C> zipWith(BiFunction<A, B, C> f, CVector<B> that) {
+        Builder<C> result = new Builder<>();
+        Iterator<B> ys = that.iterator();
+        for (Iterator<A> xs = iterator(); xs.hasNext() && ys.hasNext(); )
+            result.add(f.apply(xs.next(), ys.next()));
+        return result.result();
+    }
+
+    public <B> CVector<CList.Pair<A, B>> zip(CVector<B> that) {
+        return zipWith(CList.Pair::new, that);
+    }
+
+    public CVector<CList.Pair<A, Integer>> zipWithIndex() {
+        Builder<CList.Pair<A, Integer>> result = new Builder<>();
+        int index = 0;
+        for (A elem : this)
+            result.add(pair(elem, index++));
+        return result.result();
+    }
+
+    public void foreach(Consumer<A> c) {
+        for (A elem : this)
+            c.accept(elem);
+    }
+
+    public CList<A> toCList() {
+        return CList.fromIterable(this);
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>(size);
+        for (A elem : this)
+            result.add(elem);
+        return result;
+    }
+
+    public Set<A> toSet() {
+        Set<A> result = new HashSet<>(Math.max(16, (int) (size / .75f) + 1));
+        for (A elem : this)
+            result.add(elem);
+        return result;
+    }
+
+    /**
+     * Walks the vector one leaf array at a time.
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private int index;
+            private Object[] block = prefix;
+            private int blockStart;
+            private int blockEnd = prefix.length;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public A next() {
+                if (index >= size)
+                    throw new NoSuchElementException();
+                if (index >= blockEnd)
+                    locate();
+                return (A) block[index++ - blockStart];
+            }
+
+            private void locate() {
+                int p = prefix.length;
+                if (index < p + trieSize) {
+                    int pos = origin + index - p;
+                    block = leafAt(pos);
+                    blockStart = index - (pos & MASK);
+                    blockEnd = blockStart + WIDTH;
+                } else {
+                    block = suffix;
+                    blockStart = p + trieSize;
+                    blockEnd = size;
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CVector<?> that = (CVector<?>) o;
+        if (size != that.size) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        Iterator<?> ys = that.iterator();
+        for (A elem : this)
+            if (!Objects.equals(elem, ys.next()))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 1;
+            for (A elem : this)
+                h = 31 * h + Objects.hashCode(elem);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CVector(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
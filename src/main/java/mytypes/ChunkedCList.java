@@ -0,0 +1,538 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ChunkedCList is an unrolled representation of a CList: a node holds up to CHUNK_SIZE elements in an array,
+ * followed by the list next, which may be of any representation.
+ * <p>
+ * A node is a view of elems[offset..] and the chunk arrays are never modified once a node refers to them,
+ * so tail() shares the array of its node and only allocates a new view, and nodes of different lists share
+ * chunks. Per element a ChunkedCList costs about one array slot instead of a whole Cons cell, and the bulk
+ * operations and the iterator run through the arrays chunk by chunk instead of calling tail() per element.
+ * Like a Cons cell, every node knows its length from its construction, and a view knows the hash of its list
+ * if the node it was taken from did.
+ * <p>
+ * Lists built by prepending (reverse, fromArray) fill their chunks from the back, so only the first chunk of
+ * such a list can be partially used, through its offset. Lists built front to back (map, filter, Builder) only
+ * have a shorter last chunk.
+ */
+final class ChunkedCList<A> extends CList<A> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int CHUNK_SIZE = 16;
+
+    /**
+     * The inverse of 31 modulo 2^32, to get the hash of a tail back from the hash of its list.
+     */
+    private static final int INVERSE_31 = 0xBDEF7BDF;
+
+    private final Object[] elems;
+    private final int offset;
+    private final CList<A> next;
+    private final int length;
+    private int hash;       // 0 = not computed yet
+
+    ChunkedCList(Object[] elems, int offset, CList<A> next) {
+        this(elems, offset, next, elems.length - offset + next.length(), 0);
+    }
+
+    private ChunkedCList(Object[] elems, int offset, CList<A> next, int length, int hash) {
+        this.elems = elems;
+        this.offset = offset;
+        this.next = next;
+        this.length = length;
+        this.hash = hash;
+    }
+
+    /**
+     * Builds chunked lists front to back: full chunks are kept until result() links them from the back.
+     */
+    static final class Builder<A> {
+
+        private final List<Object[]> chunks = new ArrayList<>();
+        private Object[] current = new Object[CHUNK_SIZE];
+        private int size;
+
+        Builder<A> add(A elem) {
+            if (size == CHUNK_SIZE) {
+                chunks.add(current);
+                current = new Object[CHUNK_SIZE];
+                size = 0;
+            }
+            current[size++] = elem;
+            return this;
+        }
+
+        Builder<A> addAll(Iterator<? extends A> elems) {
+            while (elems.hasNext())
+                add(elems.next());
+            return this;
+        }
+
+        /**
+         * Returns the elements added so far followed by tail, which is shared. Resets the builder.
+         */
+        CList<A> prependTo(CList<A> tail) {
+            CList<A> result = tail;
+            if (size > 0)
+                result = new ChunkedCList<>(size == CHUNK_SIZE ? current : Arrays.copyOf(current, size), 0, result);
+            for (int i = chunks.size() - 1; i >= 0; i--)
+                result = new ChunkedCList<>(chunks.get(i), 0, result);
+            chunks.clear();
+            current = new Object[CHUNK_SIZE];
+            size = 0;
+            return result;
+        }
+
+        CList<A> result() {
+            return prependTo(nil());
+        }
+    }
+
+    /**
+     * Prepends the elements of array from the back, filling every chunk from its end.
+     */
+    static <T> CList<T> ofArray(T[] array) {
+        CList<T> result = nil();
+        for (int end = array.length; end > 0; end -= CHUNK_SIZE) {
+            int start = Math.max(0, end - CHUNK_SIZE);
+            result = new ChunkedCList<>(Arrays.copyOfRange(array, start, end, Object[].class), 0, result);
+        }
+        return result;
+    }
+
+    static <T> CList<T> ofIterator(Iterator<? extends T> elems) {
+        return new Builder<T>().addAll(elems).result();
+    }
+
+    @SuppressWarnings("unchecked")
+    private A elem(int i) {
+        return (A) elems[i];
+    }
+
+    @Override
+    public A head() {
+        return elem(offset);
+    }
+
+    @Override
+    public CList<A> tail() {
+        return offset + 1 < elems.length ? view(offset + 1) : next;
+    }
+
+    /**
+     * The node of the elements of this chunk from start on, with the length and the hash derived from this node:
+     * hash = hash(head) + 31 * hash(tail) is solved for hash(tail).
+     */
+    private ChunkedCList<A> view(int start) {
+        int h = hash;
+        if (h != 0)
+            for (int i = offset; i < start; i++)
+                h = (h - Objects.hashCode(elems[i])) * INVERSE_31;
+        return new ChunkedCList<>(elems, start, next, length - (start - offset), h);
+    }
+
+    @Override
+    public Optional<A> headOption() {
+        return Optional.of(head());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public boolean nonEmpty() {
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The number of elements of this node.
+     */
+    private int chunkSize() {
+        return elems.length - offset;
+    }
+
+    // --- chunk-at-a-time traversal
+
+    /**
+     * Feeds the elements to p until it returns false, running through the arrays of consecutive nodes.
+     * Returns false if p stopped the traversal.
+     */
+    private boolean forEachWhile(Predicate<A> p) {
+        CList<A> xs = this;
+        while (xs instanceof ChunkedCList) {
+            ChunkedCList<A> node = (ChunkedCList<A>) xs;
+            Object[] array = node.elems;
+            for (int i = node.offset; i < array.length; i++)
+                if (!p.test(node.elem(i)))
+                    return false;
+            xs = node.next;
+        }
+        for (; xs.nonEmpty(); xs = xs.tail())
+            if (!p.test(xs.head()))
+                return false;
+        return true;
+    }
+
+    /**
+     * Runs through the chunk arrays and falls back to tail() behind the last chunked node.
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private ChunkedCList<A> node = ChunkedCList.this;       // null behind the last chunked node
+            private int i = offset;
+            private CList<A> rest;
+
+            @Override
+            public boolean hasNext() {
+                return node != null || rest.nonEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (node == null) {
+                    A elem = rest.head();
+                    rest = rest.tail();
+                    return elem;
+                }
+                A elem = node.elem(i++);
+                if (i == node.elems.length) {
+                    if (node.next instanceof ChunkedCList) {
+                        node = (ChunkedCList<A>) node.next;
+                        i = node.offset;
+                    } else {
+                        rest = node.next;
+                        node = null;
+                    }
+                }
+                return elem;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super A> action) {
+        forEachWhile(x -> {
+            action.accept(x);
+            return true;
+        });
+    }
+
+    @Override
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = zero;
+        CList<A> xs = this;
+        while (xs instanceof ChunkedCList) {
+            ChunkedCList<A> node = (ChunkedCList<A>) xs;
+            Object[] array = node.elems;
+            for (int i = node.offset; i < array.length; i++)
+                acc = op.apply(acc, node.elem(i));
+            xs = node.next;
+        }
+        return xs.foldLeft(acc, op);
+    }
+
+    @Override
+    public <B> B foldRight(B zero, BiFunction<A, B, B> op) {
+        return reverse().foldLeft(zero, (acc, x) -> op.apply(x, acc));
+    }
+
+    @Override
+    public void foreach(Consumer<A> c) {
+        forEachWhile(x -> {
+            c.accept(x);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean exists(Predicate<A> p) {
+        return !forEachWhile(p.negate());
+    }
+
+    @Override
+    public boolean forall(Predicate<A> p) {
+        return forEachWhile(p);
+    }
+
+    @Override
+    public boolean contains(A elem) {
+        return exists(x -> Objects.equals(x, elem));
+    }
+
+    /**
+     * Fills the chunks of the result from the back, so the result is chunked as well.
+     */
+    @Override
+    public CList<A> reverse() {
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.REVERSE);
+        CList<A> result = nil();
+        Object[] chunk = new Object[CHUNK_SIZE];
+        int pos = CHUNK_SIZE;
+        for (CList<A> xs = this; xs.nonEmpty(); ) {
+            Object[] array;
+            int from;
+            if (xs instanceof ChunkedCList) {
+                ChunkedCList<A> node = (ChunkedCList<A>) xs;
+                array = node.elems;
+                from = node.offset;
+                xs = node.next;
+            } else {
+                array = new Object[]{xs.head()};
+                from = 0;
+                xs = xs.tail();
+            }
+            for (int i = from; i < array.length; i++) {
+                chunk[--pos] = array[i];
+                if (pos == 0) {
+                    result = new ChunkedCList<>(chunk, 0, result);
+                    chunk = new Object[CHUNK_SIZE];
+                    pos = CHUNK_SIZE;
+                }
+            }
+        }
+        if (pos < CHUNK_SIZE)
+            result = new ChunkedCList<>(chunk, pos, result);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    @Override
+    public <B> CList<B> map(Function<A, B> f) {
+        Builder<B> result = new Builder<>();
+        forEachWhile(x -> {
+            result.add(f.apply(x));
+            return true;
+        });
+        return result.result();
+    }
+
+    /**
+     * Returns this list if all elements are accepted.
+     */
+    @Override
+    public CList<A> filter(Predicate<A> p) {
+        Builder<A> result = new Builder<>();
+        boolean[] rejected = {false};
+        forEachWhile(x -> {
+            if (p.test(x))
+                result.add(x);
+            else
+                rejected[0] = true;
+            return true;
+        });
+        return rejected[0] ? result.result() : this;
+    }
+
+    @Override
+    public <B> CList<B> flatMap(Function<A, CList<B>> f) {
+        CChain<B> result = CChain.empty();
+        for (A x : this)
+            result = result.append(f.apply(x));
+        return result.toCList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CList<A> flatten() {
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.FLATTEN);
+        CChain<A> chain = CChain.empty();
+        for (A x : this) {
+            if (!(x instanceof CList))
+                throw new IllegalStateException("CList cannot be flattened, it is not a CList of CLists.");
+            chain = chain.append((CList<A>) x);
+        }
+        CList<A> result = chain.toCList();
+        if (span != null)
+            span.end(result.length());
+        return result;
+    }
+
+    @Override
+    public CList<A> take(int n) {
+        if (n >= length())
+            return this;
+        Builder<A> result = new Builder<>();
+        Iterator<A> xs = iterator();
+        for (; n > 0; n--)
+            result.add(xs.next());
+        return result.result();
+    }
+
+    /**
+     * Skips whole chunks.
+     */
+    @Override
+    public CList<A> drop(int n) {
+        CList<A> xs = this;
+        while (n > 0 && xs instanceof ChunkedCList) {
+            ChunkedCList<A> node = (ChunkedCList<A>) xs;
+            if (n < node.chunkSize())
+                return node.view(node.offset + n);
+            n -= node.chunkSize();
+            xs = node.next;
+        }
+        return n > 0 ? xs.drop(n) : xs;
+    }
+
+    /**
+     * The number of leading elements satisfying p.
+     */
+    private int prefixLength(Predicate<A> p) {
+        int n = 0;
+        for (Iterator<A> xs = iterator(); xs.hasNext() && p.test(xs.next()); )
+            n++;
+        return n;
+    }
+
+    @Override
+    public CList<A> dropWhile(Predicate<A> p) {
+        return drop(prefixLength(p));
+    }
+
+    @Override
+    public Pair<CList<A>, CList<A>> span(Predicate<A> p) {
+        return splitAt(prefixLength(p));
+    }
+
+    /**
+     * Finds the second list with drop, which skips whole chunks.
+     */
+    @Override
+    public Pair<CList<A>, CList<A>> splitAt(int n) {
+        CList<A> suffix = drop(n);
+        return suffix.isEmpty() ? Pair.pair(this, suffix) : Pair.pair(take(n), suffix);
+    }
+
+    /**
+     * Shares the chunk arrays of this list and only allocates new nodes linked to other.
+     */
+    @Override
+    public CList<A> append(CList<A> other) {
+        if (other.isEmpty())
+            return this;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.APPEND);
+        List<ChunkedCList<A>> nodes = new ArrayList<>();
+        CList<A> xs = this;
+        for (; xs instanceof ChunkedCList; xs = ((ChunkedCList<A>) xs).next)
+            nodes.add((ChunkedCList<A>) xs);
+        CList<A> result = xs.append(other);
+        for (int i = nodes.size() - 1; i >= 0; i--)
+            result = new ChunkedCList<>(nodes.get(i).elems, nodes.get(i).offset, result);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    @Override
+    public List<A> toList() {
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.TO_LIST);
+        List<A> result = new ArrayList<>(length());
+        foreach(result::add);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    @Override
+    public Set<A> toSet() {
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.TO_SET);
+        Set<A> result = new HashSet<>(hashCapacity(length()));
+        foreach(result::add);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    /**
+     * Equal to any CList with the same elements, like Cons.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CList)) return false;
+        CList<?> that = (CList<?>) o;
+        if (that.isEmpty() || length() != that.length()) return false;
+        if (that instanceof ChunkedCList && hash != 0 && ((ChunkedCList<?>) that).hash != 0
+                && hash != ((ChunkedCList<?>) that).hash)
+            return false;
+        CListMetrics.Span span = CListMetrics.begin(CListMetrics.Operation.EQUALS);
+        boolean result = sameElements(that);
+        if (span != null)
+            span.end(length());
+        return result;
+    }
+
+    /**
+     * Compares chunk by chunk while that is chunked as well, stops early at a shared suffix.
+     */
+    private boolean sameElements(CList<?> that) {
+        CList<?> xs = this;
+        CList<?> ys = that;
+        while (xs instanceof ChunkedCList && ys instanceof ChunkedCList) {
+            ChunkedCList<?> a = (ChunkedCList<?>) xs;
+            ChunkedCList<?> b = (ChunkedCList<?>) ys;
+            if (a.elems == b.elems && a.offset == b.offset && a.next == b.next)
+                return true;
+            int n = Math.min(a.chunkSize(), b.chunkSize());
+            for (int i = 0; i < n; i++)
+                if (!Objects.equals(a.elems[a.offset + i], b.elems[b.offset + i]))
+                    return false;
+            xs = a.drop(n);
+            ys = b.drop(n);
+        }
+        for (; xs.nonEmpty() && ys.nonEmpty(); xs = xs.tail(), ys = ys.tail()) {
+            if (xs == ys) return true;
+            if (!Objects.equals(xs.head(), ys.head())) return false;
+        }
+        return xs.isEmpty() && ys.isEmpty();
+    }
+
+    /**
+     * hash(Cons(x, xs)) = hash(x) + 31 * hash(xs), as for Cons.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int factor = 1;
+            CList<A> xs = this;
+            while (xs instanceof ChunkedCList) {
+                ChunkedCList<A> node = (ChunkedCList<A>) xs;
+                for (int i = node.offset; i < node.elems.length; i++) {
+                    h += factor * Objects.hashCode(node.elems[i]);
+                    factor *= 31;
+                }
+                xs = node.next;
+            }
+            h += factor * xs.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        foreach(x -> sb.append("Cons(").append(x).append(", "));
+        sb.append(nil());
+        for (int i = length(); i > 0; i--)
+            sb.append(')');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,393 @@
+package mytypes;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * DoubleCList is a CList specialized for primitive doubles.
+ * The cells hold the double values directly, so no operation of DoubleCList boxes its elements
+ * except for the conversions to and from CList&lt;Double&gt; and mapToObj().
+ */
+public abstract class DoubleCList {
+
+    /**
+     * Builds a DoubleCList front to back, see CList.Builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder {
+
+        private double[] buffer = new double[16];
+        private int size;
+
+        public Builder add(double elem) {
+            if (size == buffer.length)
+                buffer = Arrays.copyOf(buffer, size << 1);
+            buffer[size++] = elem;
+            return this;
+        }
+
+        public Builder addAll(DoubleCList elems) {
+            for (DoubleCList xs = elems; xs.nonEmpty(); xs = xs.tail())
+                add(xs.head());
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public DoubleCList result() {
+            return prependTo(NIL);
+        }
+
+        /**
+         * Creates the cells from the back, so they are immutable; resets the builder.
+         */
+        public DoubleCList prependTo(DoubleCList tail) {
+            DoubleCList result = tail;
+            for (int i = size - 1; i >= 0; i--)
+                result = new DoubleCons(buffer[i], result);
+            buffer = new double[16];
+            size = 0;
+            return result;
+        }
+    }
+
+    protected static final DoubleCList NIL = new DoubleNil();
+
+    public static DoubleCList doubleClist(double... elems) {
+        Builder builder = new Builder();
+        for (double elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static DoubleCList fromCList(CList<Double> elems) {
+        Builder builder = new Builder();
+        for (CList<Double> xs = elems; xs.nonEmpty(); xs = xs.tail())
+            builder.add(xs.head());
+        return builder.result();
+    }
+
+    public static DoubleCList cons(double head, DoubleCList tail) {
+        return new DoubleCons(head, tail);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public abstract double head();
+
+    public abstract DoubleCList tail();
+
+    public abstract boolean isEmpty();
+
+    public abstract int length();
+
+    public OptionalDouble headOption() {
+        return isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(head());
+    }
+
+    public boolean nonEmpty() {
+        return !isEmpty();
+    }
+
+    public int size() {
+        return length();
+    }
+
+    public boolean isDefinedAt(int index) {
+        return index >= 0 && index < length();
+    }
+
+    public DoubleCList append(DoubleCList other) {
+        return new Builder().addAll(this).prependTo(other);
+    }
+
+    public double foldLeft(double zero, DoubleBinaryOperator op) {
+        double acc = zero;
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsDouble(acc, xs.head());
+        return acc;
+    }
+
+    /**
+     * op takes the element first and the accumulator second, as in CList.foldRight.
+     */
+    public double foldRight(double zero, DoubleBinaryOperator op) {
+        double acc = zero;
+        for (DoubleCList xs = reverse(); xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsDouble(xs.head(), acc);
+        return acc;
+    }
+
+    public double fold(double zero, DoubleBinaryOperator op) {
+        return foldLeft(zero, op);
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            sum += xs.head();
+        return sum;
+    }
+
+    public double min() {
+        if (isEmpty())
+            throw new NoSuchElementException("min of empty DoubleCList");
+        double min = head();
+        for (DoubleCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            min = Math.min(min, xs.head());
+        return min;
+    }
+
+    public double max() {
+        if (isEmpty())
+            throw new NoSuchElementException("max of empty DoubleCList");
+        double max = head();
+        for (DoubleCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            max = Math.max(max, xs.head());
+        return max;
+    }
+
+    public boolean contains(double elem) {
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (Double.doubleToLongBits(xs.head()) == Double.doubleToLongBits(elem))
+                return true;
+        return false;
+    }
+
+    public boolean exists(DoublePredicate p) {
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                return true;
+        return false;
+    }
+
+    public boolean forall(DoublePredicate p) {
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (!p.test(xs.head()))
+                return false;
+        return true;
+    }
+
+    public DoubleCList reverse() {
+        DoubleCList acc = NIL;
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        return acc;
+    }
+
+    public boolean isPalindrom() {
+        return this.equals(this.reverse());
+    }
+
+    public DoubleCList filter(DoublePredicate p) {
+        Builder result = new Builder();
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                result.add(xs.head());
+        return result.result();
+    }
+
+    public DoubleCList filterNot(DoublePredicate p) {
+        return filter(p.negate());
+    }
+
+    public DoubleCList map(DoubleUnaryOperator f) {
+        Builder result = new Builder();
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.applyAsDouble(xs.head()));
+        return result.result();
+    }
+
+    public <B> CList<B> mapToObj(DoubleFunction<B> f) {
+        CList.Builder<B> result = new CList.Builder<>();
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public DoubleCList flatMap(DoubleFunction<DoubleCList> f) {
+        Builder result = new Builder();
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.addAll(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public DoubleCList take(int n) {
+        Builder result = new Builder();
+        for (DoubleCList xs = this; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            result.add(xs.head());
+        return result.result();
+    }
+
+    public DoubleCList drop(int n) {
+        DoubleCList xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            ;
+        return xs;
+    }
+
+    public DoubleCList zipWith(DoubleBinaryOperator f, DoubleCList that) {
+        DoubleCList xs = this;
+        DoubleCList ys = that;
+        Builder result = new Builder();
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            result.add(f.applyAsDouble(xs.head(), ys.head()));
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return result.result();
+    }
+
+    public void foreach(DoubleConsumer c) {
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            c.accept(xs.head());
+    }
+
+    public double[] toArray() {
+        double[] result = new double[length()];
+        int i = 0;
+        for (DoubleCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result[i++] = xs.head();
+        return result;
+    }
+
+    public CList<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+}
+
+class DoubleNil extends DoubleCList {
+
+    @Override
+    public double head() {
+        throw new NoSuchElementException("head of empty DoubleCList");
+    }
+
+    @Override
+    public DoubleCList tail() {
+        throw new NoSuchElementException("tail of empty DoubleCList");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleNil";
+    }
+}
+
+class DoubleCons extends DoubleCList {
+
+    private final double head;
+    private final DoubleCList tail;
+    private final int length;
+    private int hash;       // lazily computed, 0 if not yet known
+
+    DoubleCons(double head, DoubleCList tail) {
+        this.head = head;
+        this.tail = tail;
+        this.length = 1 + tail.length();
+    }
+
+    @Override
+    public double head() {
+        return head;
+    }
+
+    @Override
+    public DoubleCList tail() {
+        return tail;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DoubleCons that = (DoubleCons) o;
+        if (length() != that.length()) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        DoubleCList xs = this;
+        DoubleCList ys = that;
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            if (xs == ys) return true;
+            if (Double.doubleToLongBits(xs.head()) != Double.doubleToLongBits(ys.head())) return false;
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return xs.isEmpty() && ys.isEmpty();
+    }
+
+    /**
+     * Same scheme as Cons.hashCode(), with Double.hashCode(double) as element hash.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int factor = 1;
+            DoubleCList xs = this;
+            for (; xs instanceof DoubleCons && ((DoubleCons) xs).hash == 0; xs = xs.tail()) {
+                h += factor * Double.hashCode(xs.head());
+                factor *= 31;
+            }
+            h += factor * xs.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        DoubleCList xs = this;
+        int depth = 0;
+        for (; xs.nonEmpty(); xs = xs.tail(), depth++)
+            sb.append("DoubleCons(").append(xs.head()).append(", ");
+        sb.append(xs);
+        for (int i = 0; i < depth; i++)
+            sb.append(')');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,393 @@
+package mytypes;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * IntCList is a CList specialized for primitive ints.
+ * The cells hold the int values directly, so no operation of IntCList boxes its elements
+ * except for the conversions to and from CList&lt;Integer&gt; and mapToObj().
+ */
+public abstract class IntCList {
+
+    /**
+     * Builds an IntCList front to back, see CList.Builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder {
+
+        private int[] buffer = new int[16];
+        private int size;
+
+        public Builder add(int elem) {
+            if (size == buffer.length)
+                buffer = Arrays.copyOf(buffer, size << 1);
+            buffer[size++] = elem;
+            return this;
+        }
+
+        public Builder addAll(IntCList elems) {
+            for (IntCList xs = elems; xs.nonEmpty(); xs = xs.tail())
+                add(xs.head());
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public IntCList result() {
+            return prependTo(NIL);
+        }
+
+        /**
+         * Creates the cells from the back, so they are immutable; resets the builder.
+         */
+        public IntCList prependTo(IntCList tail) {
+            IntCList result = tail;
+            for (int i = size - 1; i >= 0; i--)
+                result = new IntCons(buffer[i], result);
+            buffer = new int[16];
+            size = 0;
+            return result;
+        }
+    }
+
+    protected static final IntCList NIL = new IntNil();
+
+    public static IntCList intClist(int... elems) {
+        Builder builder = new Builder();
+        for (int elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static IntCList fromCList(CList<Integer> elems) {
+        Builder builder = new Builder();
+        for (CList<Integer> xs = elems; xs.nonEmpty(); xs = xs.tail())
+            builder.add(xs.head());
+        return builder.result();
+    }
+
+    public static IntCList cons(int head, IntCList tail) {
+        return new IntCons(head, tail);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public abstract int head();
+
+    public abstract IntCList tail();
+
+    public abstract boolean isEmpty();
+
+    public abstract int length();
+
+    public OptionalInt headOption() {
+        return isEmpty() ? OptionalInt.empty() : OptionalInt.of(head());
+    }
+
+    public boolean nonEmpty() {
+        return !isEmpty();
+    }
+
+    public int size() {
+        return length();
+    }
+
+    public boolean isDefinedAt(int index) {
+        return index >= 0 && index < length();
+    }
+
+    public IntCList append(IntCList other) {
+        return new Builder().addAll(this).prependTo(other);
+    }
+
+    public int foldLeft(int zero, IntBinaryOperator op) {
+        int acc = zero;
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsInt(acc, xs.head());
+        return acc;
+    }
+
+    /**
+     * op takes the element first and the accumulator second, as in CList.foldRight.
+     */
+    public int foldRight(int zero, IntBinaryOperator op) {
+        int acc = zero;
+        for (IntCList xs = reverse(); xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsInt(xs.head(), acc);
+        return acc;
+    }
+
+    public int fold(int zero, IntBinaryOperator op) {
+        return foldLeft(zero, op);
+    }
+
+    public int sum() {
+        int sum = 0;
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            sum += xs.head();
+        return sum;
+    }
+
+    public int min() {
+        if (isEmpty())
+            throw new NoSuchElementException("min of empty IntCList");
+        int min = head();
+        for (IntCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            min = Math.min(min, xs.head());
+        return min;
+    }
+
+    public int max() {
+        if (isEmpty())
+            throw new NoSuchElementException("max of empty IntCList");
+        int max = head();
+        for (IntCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            max = Math.max(max, xs.head());
+        return max;
+    }
+
+    public boolean contains(int elem) {
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (xs.head() == elem)
+                return true;
+        return false;
+    }
+
+    public boolean exists(IntPredicate p) {
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                return true;
+        return false;
+    }
+
+    public boolean forall(IntPredicate p) {
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (!p.test(xs.head()))
+                return false;
+        return true;
+    }
+
+    public IntCList reverse() {
+        IntCList acc = NIL;
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        return acc;
+    }
+
+    public boolean isPalindrom() {
+        return this.equals(this.reverse());
+    }
+
+    public IntCList filter(IntPredicate p) {
+        Builder result = new Builder();
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                result.add(xs.head());
+        return result.result();
+    }
+
+    public IntCList filterNot(IntPredicate p) {
+        return filter(p.negate());
+    }
+
+    public IntCList map(IntUnaryOperator f) {
+        Builder result = new Builder();
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.applyAsInt(xs.head()));
+        return result.result();
+    }
+
+    public <B> CList<B> mapToObj(IntFunction<B> f) {
+        CList.Builder<B> result = new CList.Builder<>();
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public IntCList flatMap(IntFunction<IntCList> f) {
+        Builder result = new Builder();
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.addAll(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public IntCList take(int n) {
+        Builder result = new Builder();
+        for (IntCList xs = this; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            result.add(xs.head());
+        return result.result();
+    }
+
+    public IntCList drop(int n) {
+        IntCList xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            ;
+        return xs;
+    }
+
+    public IntCList zipWith(IntBinaryOperator f, IntCList that) {
+        IntCList xs = this;
+        IntCList ys = that;
+        Builder result = new Builder();
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            result.add(f.applyAsInt(xs.head(), ys.head()));
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return result.result();
+    }
+
+    public void foreach(IntConsumer c) {
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            c.accept(xs.head());
+    }
+
+    public int[] toArray() {
+        int[] result = new int[length()];
+        int i = 0;
+        for (IntCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result[i++] = xs.head();
+        return result;
+    }
+
+    public CList<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+}
+
+class IntNil extends IntCList {
+
+    @Override
+    public int head() {
+        throw new NoSuchElementException("head of empty IntCList");
+    }
+
+    @Override
+    public IntCList tail() {
+        throw new NoSuchElementException("tail of empty IntCList");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public String toString() {
+        return "IntNil";
+    }
+}
+
+class IntCons extends IntCList {
+
+    private final int head;
+    private final IntCList tail;
+    private final int length;
+    private int hash;       // lazily computed, 0 if not yet known
+
+    IntCons(int head, IntCList tail) {
+        this.head = head;
+        this.tail = tail;
+        this.length = 1 + tail.length();
+    }
+
+    @Override
+    public int head() {
+        return head;
+    }
+
+    @Override
+    public IntCList tail() {
+        return tail;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntCons that = (IntCons) o;
+        if (length() != that.length()) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        IntCList xs = this;
+        IntCList ys = that;
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            if (xs == ys) return true;
+            if (xs.head() != ys.head()) return false;
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return xs.isEmpty() && ys.isEmpty();
+    }
+
+    /**
+     * Same scheme as Cons.hashCode(), with Integer.hashCode(int) as element hash.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int factor = 1;
+            IntCList xs = this;
+            for (; xs instanceof IntCons && ((IntCons) xs).hash == 0; xs = xs.tail()) {
+                h += factor * Integer.hashCode(xs.head());
+                factor *= 31;
+            }
+            h += factor * xs.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        IntCList xs = this;
+        int depth = 0;
+        for (; xs.nonEmpty(); xs = xs.tail(), depth++)
+            sb.append("IntCons(").append(xs.head()).append(", ");
+        sb.append(xs);
+        for (int i = 0; i < depth; i++)
+            sb.append(')');
+        return sb.toString();
+    }
+}
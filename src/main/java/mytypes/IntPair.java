@@ -0,0 +1,47 @@
+package mytypes;
+
+import java.io.Serializable;
+
+/**
+ * A pair of primitive ints, CList.Pair without boxing.
+ */
+public final class IntPair implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public final int _1;
+    public final int _2;
+
+    public IntPair(int _1, int _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    public static IntPair intPair(int _1, int _2) {
+        return new IntPair(_1, _2);
+    }
+
+    public CList.Pair<Integer, Integer> boxed() {
+        return CList.Pair.pair(_1, _2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        IntPair pair = (IntPair) o;
+        return _1 == pair._1 && _2 == pair._2;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * _1 + _2;
+    }
+
+    @Override
+    public String toString() {
+        return "IntPair{_1=" + _1 + ", _2=" + _2 + '}';
+    }
+}
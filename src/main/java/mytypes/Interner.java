@@ -0,0 +1,169 @@
+package mytypes;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Interner hash-conses CList cells: it hands out at most one cell for every (head, tail) pair,
+ * where heads are compared with equals and tails by identity. Since the tail of an interned cell is
+ * itself interned, two structurally equal lists interned by the same Interner are the same object,
+ * and lists with equal suffixes share the cells of these suffixes.
+ * <pre>
+ *     CList&lt;String&gt; path = CList.interned("usr", "local", "bin");
+ *     path.tail() == CList.interned("local", "bin")       // true
+ * </pre>
+ * equals of two cells interned by the same Interner is a reference check.
+ * <p>
+ * The table holds its cells weakly: a cell that is not referenced from outside is garbage collected,
+ * and its entry is removed on one of the next calls. As an entry keeps the tail of its cell reachable
+ * until it is removed, an unreferenced list is released from the front, one cell per collection cycle.
+ * Interner is thread-safe.
+ */
+public final class Interner {
+
+    private static final Interner GLOBAL = new Interner();
+
+    private final ConcurrentHashMap<Key, Entry> table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CList<?>> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The Interner used by CList.interned and CList.intern.
+     */
+    public static Interner global() {
+        return GLOBAL;
+    }
+
+    /**
+     * The interned cell with the given head and tail; the tail is interned first if necessary.
+     */
+    public <A> CList<A> cons(A head, CList<A> tail) {
+        return internCell(head, intern(tail));
+    }
+
+    @SafeVarargs
+    public final <A> CList<A> clist(A... elems) {
+        CList<A> result = CList.nil();
+        for (int i = elems.length - 1; i >= 0; i--)
+            result = internCell(elems[i], result);
+        return result;
+    }
+
+    /**
+     * The interned list equal to xs. Only the prefix of xs in front of its longest interned suffix is looked up.
+     */
+    public <A> CList<A> intern(CList<A> xs) {
+        List<A> prefix = new ArrayList<>();
+        for (; !isInterned(xs); xs = xs.tail())
+            prefix.add(xs.head());
+        if (xs.isEmpty())
+            xs = CList.nil();
+        for (int i = prefix.size() - 1; i >= 0; i--)
+            xs = internCell(prefix.get(i), xs);
+        return xs;
+    }
+
+    /**
+     * True if xs is the empty list or a cell interned by this Interner.
+     */
+    public boolean isInterned(CList<?> xs) {
+        return xs.isEmpty() || CList.internerOf(xs) == this;
+    }
+
+    private <A> CList<A> internCell(A head, CList<A> tail) {
+        expungeCollected();
+        Key key = new Key(head, tail);
+        while (true) {
+            Entry entry = table.get(key);
+            if (entry != null) {
+                @SuppressWarnings("unchecked")
+                CList<A> cell = (CList<A>) entry.get();
+                if (cell != null) {
+                    hits.increment();
+                    return cell;
+                }
+                table.remove(key, entry);
+            }
+            CList<A> cell = CList.internedCell(head, tail, this);
+            if (table.putIfAbsent(key, new Entry(key, cell, collected)) == null) {
+                misses.increment();
+                return cell;
+            }
+            // another thread interned the same cell in the meantime, take that one
+        }
+    }
+
+    private void expungeCollected() {
+        for (Object ref; (ref = collected.poll()) != null; ) {
+            Entry entry = (Entry) ref;
+            table.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Number of lookups that found an existing cell.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that had to create a new cell.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of entries in the table, after removing the entries of collected cells.
+     */
+    public int size() {
+        expungeCollected();
+        return table.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Interner(size = " + size() + ", hits = " + hits() + ", misses = " + misses() + ")";
+    }
+
+    private static final class Key {
+        private final Object head;
+        private final CList<?> tail;
+        private final int hash;
+
+        Key(Object head, CList<?> tail) {
+            this.head = head;
+            this.tail = tail;
+            this.hash = 31 * Objects.hashCode(head) + System.identityHashCode(tail);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return tail == that.tail && Objects.equals(head, that.head);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry extends WeakReference<CList<?>> {
+        private final Key key;
+
+        Entry(Key key, CList<?> cell, ReferenceQueue<CList<?>> queue) {
+            super(cell, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package mytypes;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * LongCList is a CList specialized for primitive longs.
+ * The cells hold the long values directly, so no operation of LongCList boxes its elements
+ * except for the conversions to and from CList&lt;Long&gt; and mapToObj().
+ */
+public abstract class LongCList {
+
+    /**
+     * Builds a LongCList front to back, see CList.Builder.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final class Builder {
+
+        private long[] buffer = new long[16];
+        private int size;
+
+        public Builder add(long elem) {
+            if (size == buffer.length)
+                buffer = Arrays.copyOf(buffer, size << 1);
+            buffer[size++] = elem;
+            return this;
+        }
+
+        public Builder addAll(LongCList elems) {
+            for (LongCList xs = elems; xs.nonEmpty(); xs = xs.tail())
+                add(xs.head());
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public LongCList result() {
+            return prependTo(NIL);
+        }
+
+        /**
+         * Creates the cells from the back, so they are immutable; resets the builder.
+         */
+        public LongCList prependTo(LongCList tail) {
+            LongCList result = tail;
+            for (int i = size - 1; i >= 0; i--)
+                result = new LongCons(buffer[i], result);
+            buffer = new long[16];
+            size = 0;
+            return result;
+        }
+    }
+
+    protected static final LongCList NIL = new LongNil();
+
+    public static LongCList longClist(long... elems) {
+        Builder builder = new Builder();
+        for (long elem : elems)
+            builder.add(elem);
+        return builder.result();
+    }
+
+    public static LongCList fromCList(CList<Long> elems) {
+        Builder builder = new Builder();
+        for (CList<Long> xs = elems; xs.nonEmpty(); xs = xs.tail())
+            builder.add(xs.head());
+        return builder.result();
+    }
+
+    public static LongCList cons(long head, LongCList tail) {
+        return new LongCons(head, tail);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public abstract long head();
+
+    public abstract LongCList tail();
+
+    public abstract boolean isEmpty();
+
+    public abstract int length();
+
+    public OptionalLong headOption() {
+        return isEmpty() ? OptionalLong.empty() : OptionalLong.of(head());
+    }
+
+    public boolean nonEmpty() {
+        return !isEmpty();
+    }
+
+    public int size() {
+        return length();
+    }
+
+    public boolean isDefinedAt(int index) {
+        return index >= 0 && index < length();
+    }
+
+    public LongCList append(LongCList other) {
+        return new Builder().addAll(this).prependTo(other);
+    }
+
+    public long foldLeft(long zero, LongBinaryOperator op) {
+        long acc = zero;
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsLong(acc, xs.head());
+        return acc;
+    }
+
+    /**
+     * op takes the element first and the accumulator second, as in CList.foldRight.
+     */
+    public long foldRight(long zero, LongBinaryOperator op) {
+        long acc = zero;
+        for (LongCList xs = reverse(); xs.nonEmpty(); xs = xs.tail())
+            acc = op.applyAsLong(xs.head(), acc);
+        return acc;
+    }
+
+    public long fold(long zero, LongBinaryOperator op) {
+        return foldLeft(zero, op);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            sum += xs.head();
+        return sum;
+    }
+
+    public long min() {
+        if (isEmpty())
+            throw new NoSuchElementException("min of empty LongCList");
+        long min = head();
+        for (LongCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            min = Math.min(min, xs.head());
+        return min;
+    }
+
+    public long max() {
+        if (isEmpty())
+            throw new NoSuchElementException("max of empty LongCList");
+        long max = head();
+        for (LongCList xs = tail(); xs.nonEmpty(); xs = xs.tail())
+            max = Math.max(max, xs.head());
+        return max;
+    }
+
+    public boolean contains(long elem) {
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (xs.head() == elem)
+                return true;
+        return false;
+    }
+
+    public boolean exists(LongPredicate p) {
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                return true;
+        return false;
+    }
+
+    public boolean forall(LongPredicate p) {
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (!p.test(xs.head()))
+                return false;
+        return true;
+    }
+
+    public LongCList reverse() {
+        LongCList acc = NIL;
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            acc = cons(xs.head(), acc);
+        return acc;
+    }
+
+    public boolean isPalindrom() {
+        return this.equals(this.reverse());
+    }
+
+    public LongCList filter(LongPredicate p) {
+        Builder result = new Builder();
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            if (p.test(xs.head()))
+                result.add(xs.head());
+        return result.result();
+    }
+
+    public LongCList filterNot(LongPredicate p) {
+        return filter(p.negate());
+    }
+
+    public LongCList map(LongUnaryOperator f) {
+        Builder result = new Builder();
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.applyAsLong(xs.head()));
+        return result.result();
+    }
+
+    public <B> CList<B> mapToObj(LongFunction<B> f) {
+        CList.Builder<B> result = new CList.Builder<>();
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.add(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public LongCList flatMap(LongFunction<LongCList> f) {
+        Builder result = new Builder();
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result.addAll(f.apply(xs.head()));
+        return result.result();
+    }
+
+    public LongCList take(int n) {
+        Builder result = new Builder();
+        for (LongCList xs = this; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            result.add(xs.head());
+        return result.result();
+    }
+
+    public LongCList drop(int n) {
+        LongCList xs = this;
+        for (; xs.nonEmpty() && n > 0; xs = xs.tail(), n--)
+            ;
+        return xs;
+    }
+
+    public LongCList zipWith(LongBinaryOperator f, LongCList that) {
+        LongCList xs = this;
+        LongCList ys = that;
+        Builder result = new Builder();
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            result.add(f.applyAsLong(xs.head(), ys.head()));
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return result.result();
+    }
+
+    public void foreach(LongConsumer c) {
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            c.accept(xs.head());
+    }
+
+    public long[] toArray() {
+        long[] result = new long[length()];
+        int i = 0;
+        for (LongCList xs = this; xs.nonEmpty(); xs = xs.tail())
+            result[i++] = xs.head();
+        return result;
+    }
+
+    public CList<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+}
+
+class LongNil extends LongCList {
+
+    @Override
+    public long head() {
+        throw new NoSuchElementException("head of empty LongCList");
+    }
+
+    @Override
+    public LongCList tail() {
+        throw new NoSuchElementException("tail of empty LongCList");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public String toString() {
+        return "LongNil";
+    }
+}
+
+class LongCons extends LongCList {
+
+    private final long head;
+    private final LongCList tail;
+    private final int length;
+    private int hash;       // lazily computed, 0 if not yet known
+
+    LongCons(long head, LongCList tail) {
+        this.head = head;
+        this.tail = tail;
+        this.length = 1 + tail.length();
+    }
+
+    @Override
+    public long head() {
+        return head;
+    }
+
+    @Override
+    public LongCList tail() {
+        return tail;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LongCons that = (LongCons) o;
+        if (length() != that.length()) return false;
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        LongCList xs = this;
+        LongCList ys = that;
+        while (xs.nonEmpty() && ys.nonEmpty()) {
+            if (xs == ys) return true;
+            if (xs.head() != ys.head()) return false;
+            xs = xs.tail();
+            ys = ys.tail();
+        }
+        return xs.isEmpty() && ys.isEmpty();
+    }
+
+    /**
+     * Same scheme as Cons.hashCode(), with Long.hashCode(long) as element hash.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int factor = 1;
+            LongCList xs = this;
+            for (; xs instanceof LongCons && ((LongCons) xs).hash == 0; xs = xs.tail()) {
+                h += factor * Long.hashCode(xs.head());
+                factor *= 31;
+            }
+            h += factor * xs.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        LongCList xs = this;
+        int depth = 0;
+        for (; xs.nonEmpty(); xs = xs.tail(), depth++)
+            sb.append("LongCons(").append(xs.head()).append(", ");
+        sb.append(xs);
+        for (int i = 0; i < depth; i++)
+            sb.append(')');
+        return sb.toString();
+    }
+}
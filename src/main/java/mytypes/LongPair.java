@@ -0,0 +1,47 @@
+package mytypes;
+
+import java.io.Serializable;
+
+/**
+ * A pair of primitive longs, CList.Pair without boxing.
+ */
+public final class LongPair implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public final long _1;
+    public final long _2;
+
+    public LongPair(long _1, long _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    public static LongPair longPair(long _1, long _2) {
+        return new LongPair(_1, _2);
+    }
+
+    public CList.Pair<Long, Long> boxed() {
+        return CList.Pair.pair(_1, _2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        LongPair pair = (LongPair) o;
+        return _1 == pair._1 && _2 == pair._2;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(_1) + Long.hashCode(_2);
+    }
+
+    @Override
+    public String toString() {
+        return "LongPair{_1=" + _1 + ", _2=" + _2 + '}';
+    }
+}
@@ -0,0 +1,48 @@
+package mytypes;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A pair of an object and a primitive int, e.g. an element and its index, CList.Pair without boxing the int.
+ */
+public final class ObjIntPair<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public final T _1;
+    public final int _2;
+
+    public ObjIntPair(T _1, int _2) {
+        this._1 = _1;
+        this._2 = _2;
+    }
+
+    public static <T> ObjIntPair<T> objIntPair(T _1, int _2) {
+        return new ObjIntPair<>(_1, _2);
+    }
+
+    public CList.Pair<T, Integer> boxed() {
+        return CList.Pair.pair(_1, _2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ObjIntPair<?> pair = (ObjIntPair<?>) o;
+        return _2 == pair._2 && Objects.equals(_1, pair._1);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(_1) + _2;
+    }
+
+    @Override
+    public String toString() {
+        return "ObjIntPair{_1=" + _1 + ", _2=" + _2 + '}';
+    }
+}
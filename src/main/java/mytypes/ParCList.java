@@ -0,0 +1,262 @@
+package mytypes;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ParCList runs the bulk operations of a CList in parallel on a ForkJoinPool, created by CList.par().
+ * <p>
+ * The elements are first copied into an array, which is then split in halves recursively
+ * until a segment holds no more than threshold elements. Each segment is processed sequentially,
+ * and the results are combined in the order of the segments, so all results keep the order of the list.
+ * List results are built with one CList.Builder per segment, and the builders are concatenated by moving
+ * their buffered chunks, which copies at most one partial chunk per builder.
+ */
+public final class ParCList<A> {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 12;
+
+    private final CList<A> list;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParCList(CList<A> list) {
+        this(list, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    private ParCList(CList<A> list, ForkJoinPool pool, int threshold) {
+        this.list = list;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ParCList<A> withPool(ForkJoinPool pool) {
+        return new ParCList<>(list, pool, threshold);
+    }
+
+    /**
+     * Segments of at most threshold elements are not split any further.
+     */
+    public ParCList<A> withThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        return new ParCList<>(list, pool, threshold);
+    }
+
+    public CList<A> seq() {
+        return list;
+    }
+
+    // --- transformations
+
+    public <B> CList<B> map(Function<A, B> f) {
+        return this.<CList.Builder<B>>run((elems, lo, hi) -> {
+            CList.Builder<B> result = CList.builder();
+            for (int i = lo; i < hi; i++)
+                result.add(f.apply(elems[i]));
+            return result;
+        }, CList.Builder::appendAll).result();
+    }
+
+    public CList<A> filter(Predicate<A> p) {
+        return this.<CList.Builder<A>>run((elems, lo, hi) -> {
+            CList.Builder<A> result = CList.builder();
+            for (int i = lo; i < hi; i++)
+                if (p.test(elems[i]))
+                    result.add(elems[i]);
+            return result;
+        }, CList.Builder::appendAll).result();
+    }
+
+    public CList<A> filterNot(Predicate<A> p) {
+        return filter(p.negate());
+    }
+
+    public <B> CList<B> flatMap(Function<A, CList<B>> f) {
+        return this.<CList.Builder<B>>run((elems, lo, hi) -> {
+            CList.Builder<B> result = CList.builder();
+            for (int i = lo; i < hi; i++)
+                result.addAll(f.apply(elems[i]));
+            return result;
+        }, CList.Builder::appendAll).result();
+    }
+
+    // --- aggregations
+
+    /**
+     * Folds every segment with seqOp, starting from zero, and combines the segment results with combOp.
+     * zero is used once per segment, so it must be a neutral element of combOp and must not be mutated.
+     */
+    public <B> B aggregate(B zero, BiFunction<B, A, B> seqOp, BinaryOperator<B> combOp) {
+        return run((elems, lo, hi) -> {
+            B acc = zero;
+            for (int i = lo; i < hi; i++)
+                acc = seqOp.apply(acc, elems[i]);
+            return acc;
+        }, combOp);
+    }
+
+    /**
+     * op must be associative.
+     */
+    public A reduce(BinaryOperator<A> op) {
+        if (list.isEmpty())
+            throw new NoSuchElementException("reduce of empty CList");
+        return run((elems, lo, hi) -> {
+            A acc = elems[lo];
+            for (int i = lo + 1; i < hi; i++)
+                acc = op.apply(acc, elems[i]);
+            return acc;
+        }, op);
+    }
+
+    /**
+     * Stops all segments as soon as one of them has found an element satisfying p.
+     */
+    public boolean exists(Predicate<A> p) {
+        AtomicBoolean found = new AtomicBoolean();
+        run((elems, lo, hi) -> {
+            for (int i = lo; i < hi && !found.get(); i++)
+                if (p.test(elems[i])) {
+                    found.set(true);
+                    break;
+                }
+            return null;
+        }, (l, r) -> null, found);
+        return found.get();
+    }
+
+    public boolean forall(Predicate<A> p) {
+        return !exists(p.negate());
+    }
+
+    /**
+     * The keys are ordered by their first occurrence, the groups keep the order of the list.
+     */
+    public <K> Map<K, CList<A>> groupBy(Function<A, K> key) {
+        Map<K, CList.Builder<A>> groups = run((elems, lo, hi) -> {
+            Map<K, CList.Builder<A>> result = new LinkedHashMap<>();
+            for (int i = lo; i < hi; i++)
+                result.computeIfAbsent(key.apply(elems[i]), k -> CList.builder()).add(elems[i]);
+            return result;
+        }, (left, right) -> {
+            right.forEach((k, group) -> left.merge(k, group, CList.Builder::appendAll));
+            return left;
+        });
+        Map<K, CList<A>> result = new LinkedHashMap<>();
+        groups.forEach((k, group) -> result.put(k, group.result()));
+        return result;
+    }
+
+    /**
+     * See CList.groupMapReduce; reduce must be associative.
+     */
+    public <K, B> Map<K, B> groupMapReduce(Function<A, K> key, Function<A, B> f, BinaryOperator<B> reduce) {
+        return run((elems, lo, hi) -> {
+            Map<K, B> result = new LinkedHashMap<>();
+            for (int i = lo; i < hi; i++)
+                result.merge(key.apply(elems[i]), f.apply(elems[i]), reduce);
+            return result;
+        }, (left, right) -> {
+            right.forEach((k, b) -> left.merge(k, b, reduce));
+            return left;
+        });
+    }
+
+    public <K> Map<K, Integer> countBy(Function<A, K> key) {
+        return groupMapReduce(key, x -> 1, Integer::sum);
+    }
+
+    public CList.Pair<CList<A>, CList<A>> partition(Predicate<A> p) {
+        CList.Pair<CList.Builder<A>, CList.Builder<A>> parts = run((elems, lo, hi) -> {
+            CList.Builder<A> accepted = CList.builder();
+            CList.Builder<A> rejected = CList.builder();
+            for (int i = lo; i < hi; i++)
+                (p.test(elems[i]) ? accepted : rejected).add(elems[i]);
+            return CList.Pair.pair(accepted, rejected);
+        }, (left, right) -> CList.Pair.pair(left._1.appendAll(right._1), left._2.appendAll(right._2)));
+        return CList.Pair.pair(parts._1.result(), parts._2.result());
+    }
+
+    /**
+     * The first occurrence of every element, in the order of the list.
+     */
+    public CList<A> distinct() {
+        Set<A> distinct = run((elems, lo, hi) -> {
+            Set<A> result = new LinkedHashSet<>(CList.hashCapacity(hi - lo));
+            for (int i = lo; i < hi; i++)
+                result.add(elems[i]);
+            return result;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        return CList.fromIterable(distinct);
+    }
+
+    // --- fork-join machinery
+
+    @FunctionalInterface
+    private interface Segment<A, R> {
+        R apply(A[] elems, int lo, int hi);
+    }
+
+    private <R> R run(Segment<A, R> segment, BinaryOperator<R> combine) {
+        return run(segment, combine, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R run(Segment<A, R> segment, BinaryOperator<R> combine, AtomicBoolean cancelled) {
+        A[] elems = (A[]) new Object[list.length()];
+        int i = 0;
+        for (CList<A> xs = list; xs.nonEmpty(); xs = xs.tail())
+            elems[i++] = xs.head();
+        return pool.invoke(new Task<>(elems, 0, elems.length, threshold, segment, combine, cancelled));
+    }
+
+    private static final class Task<A, R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final A[] elems;
+        private final int lo;
+        private final int hi;
+        private final int threshold;
+        private final Segment<A, R> segment;
+        private final BinaryOperator<R> combine;
+        private final AtomicBoolean cancelled;      // null if the operation cannot be cancelled
+
+        Task(A[] elems, int lo, int hi, int threshold,
+             Segment<A, R> segment, BinaryOperator<R> combine, AtomicBoolean cancelled) {
+            this.elems = elems;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.segment = segment;
+            this.combine = combine;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected R compute() {
+            if (hi - lo <= threshold || cancelled != null && cancelled.get())
+                return segment.apply(elems, lo, hi);
+            int mid = (lo + hi) >>> 1;
+            Task<A, R> left = new Task<>(elems, lo, mid, threshold, segment, combine, cancelled);
+            Task<A, R> right = new Task<>(elems, mid, hi, threshold, segment, combine, cancelled);
+            left.fork();
+            R rightResult = right.compute();
+            return combine.apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package mytypes;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.cell;
+
+/**
+ * RealTimeCQueue is Okasaki's real-time queue: a persistent FIFO queue with worst-case O(1) enqueue and dequeue.
+ * <p>
+ * Like CQueue it keeps the back of the queue in reverse in rear, but the front is a CStream. When rear grows
+ * longer than front, front is replaced by the lazy rotation front ++ reverse(rear), which evaluates one cell
+ * per step. schedule points to the first unevaluated cell of front, and every operation evaluates one cell of it,
+ * so the rotation is complete before it is needed and no operation ever evaluates more than O(1) cells.
+ * <p>
+ * Invariant: size(schedule) == size(front) - size(rear).
+ */
+public final class RealTimeCQueue<A> implements Iterable<A> {
+
+    private static final RealTimeCQueue<?> EMPTY =
+            new RealTimeCQueue<>(CStream.empty(), 0, CList.nil(), 0, CStream.empty());
+
+    private final CStream<A> front;
+    private final int frontSize;
+    private final CList<A> rear;
+    private final int rearSize;
+    private final CStream<A> schedule;
+
+    private RealTimeCQueue(CStream<A> front, int frontSize, CList<A> rear, int rearSize, CStream<A> schedule) {
+        this.front = front;
+        this.frontSize = frontSize;
+        this.rear = rear;
+        this.rearSize = rearSize;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Evaluates one cell of the schedule, or starts a new rotation when the schedule is done.
+     */
+    private static <T> RealTimeCQueue<T> exec(CStream<T> front, int frontSize, CList<T> rear, int rearSize,
+                                              CStream<T> schedule) {
+        if (schedule.nonEmpty())
+            return new RealTimeCQueue<>(front, frontSize, rear, rearSize, schedule.tail());
+        if (frontSize + rearSize == 0)
+            return empty();
+        CStream<T> rotated = rotate(front, rear, CStream.empty());
+        return new RealTimeCQueue<>(rotated, frontSize + rearSize, CList.nil(), 0, rotated);
+    }
+
+    /**
+     * front ++ reverse(rear) ++ acc, where rear is exactly one element longer than front.
+     * Each cell takes one element of front and moves one element of rear onto acc.
+     */
+    private static <T> CStream<T> rotate(CStream<T> front, CList<T> rear, CStream<T> acc) {
+        if (front.isEmpty())
+            return CStream.cons(rear.head(), acc);
+        return CStream.cons(front.head(), () -> rotate(front.tail(), rear.tail(), CStream.cons(rear.head(), acc)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RealTimeCQueue<T> empty() {
+        return (RealTimeCQueue<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <T> RealTimeCQueue<T> realTimeCQueue(T... elems) {
+        RealTimeCQueue<T> result = empty();
+        for (T elem : elems)
+            result = result.enqueue(elem);
+        return result;
+    }
+
+    public static <T> RealTimeCQueue<T> fromCList(CList<T> xs) {
+        return RealTimeCQueue.<T>empty().enqueueAll(xs);
+    }
+
+    public int size() {
+        return frontSize + rearSize;
+    }
+
+    public boolean isEmpty() {
+        return frontSize == 0;
+    }
+
+    public boolean nonEmpty() {
+        return frontSize != 0;
+    }
+
+    public RealTimeCQueue<A> enqueue(A elem) {
+        return exec(front, frontSize, cell(elem, rear), rearSize + 1, schedule);
+    }
+
+    /**
+     * Enqueues the elements in iteration order, one after the other, in O(k) for k elements.
+     */
+    public RealTimeCQueue<A> enqueueAll(Iterable<? extends A> elems) {
+        RealTimeCQueue<A> result = this;
+        for (A elem : elems)
+            result = result.enqueue(elem);
+        return result;
+    }
+
+    /**
+     * The first element and the queue without it.
+     */
+    public CList.Pair<A, RealTimeCQueue<A>> dequeue() {
+        if (isEmpty())
+            throw new NoSuchElementException("dequeue on empty RealTimeCQueue");
+        return pair(front.head(), tail());
+    }
+
+    public Optional<CList.Pair<A, RealTimeCQueue<A>>> dequeueOption() {
+        return isEmpty() ? Optional.empty() : Optional.of(dequeue());
+    }
+
+    public A head() {
+        if (isEmpty())
+            throw new NoSuchElementException("head of empty RealTimeCQueue");
+        return front.head();
+    }
+
+    public Optional<A> headOption() {
+        return isEmpty() ? Optional.empty() : Optional.ofNullable(front.head());
+    }
+
+    public RealTimeCQueue<A> tail() {
+        if (isEmpty())
+            throw new NoSuchElementException("tail of empty RealTimeCQueue");
+        return exec(front.tail(), frontSize - 1, rear, rearSize, schedule);
+    }
+
+    public <B> B foldLeft(B zero, BiFunction<B, A, B> op) {
+        B acc = front.foldLeft(zero, op);
+        return rear.reverse().foldLeft(acc, op);
+    }
+
+    public void foreach(Consumer<A> c) {
+        front.foreach(c);
+        rear.reverse().foreach(c);
+    }
+
+    /**
+     * The elements in FIFO order.
+     */
+    public CList<A> toCList() {
+        return front.toCList().append(rear.reverse());
+    }
+
+    public List<A> toList() {
+        List<A> result = new ArrayList<>(size());
+        foreach(result::add);
+        return result;
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private final Iterator<A> fronts = front.iterator();
+            private Iterator<A> rears;
+
+            @Override
+            public boolean hasNext() {
+                if (fronts.hasNext())
+                    return true;
+                if (rears == null)
+                    rears = rear.reverse().iterator();
+                return rears.hasNext();
+            }
+
+            @Override
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return fronts.hasNext() ? fronts.next() : rears.next();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RealTimeCQueue<?> that = (RealTimeCQueue<?>) o;
+        if (size() != that.size()) return false;
+        Iterator<?> ys = that.iterator();
+        for (A elem : this)
+            if (!Objects.equals(elem, ys.next()))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (A elem : this)
+            h = 31 * h + Objects.hashCode(elem);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RealTimeCQueue(");
+        for (Iterator<A> it = iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext())
+                sb.append(", ");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,195 @@
+package mytypes;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncCListTest {
+
+    private static CList<Integer> range(int n) {
+        CList.Builder<Integer> builder = CList.builder();
+        for (int i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(30, TimeUnit.SECONDS);
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        try {
+            get(future);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("expected a failure");
+        return null;
+    }
+
+    @Test
+    public void test01_mapAsync_should_keep_the_order_of_the_list() throws Exception {
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(4);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            CList<Integer> xs = range(200);
+            CompletableFuture<CList<Integer>> result = xs.mapAsync(16, pool, x -> {
+                CompletableFuture<Integer> f = new CompletableFuture<>();
+                timer.schedule(() -> f.complete(x * 2), (x * 7) % 5, TimeUnit.MILLISECONDS);
+                return f;
+            });
+            assertThat(get(result), is(xs.map(x -> x * 2)));
+            assertThat(get(clist().mapAsync(4, pool, x -> CompletableFuture.completedFuture(x))), is(clist()));
+        } finally {
+            timer.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test02_mapAsync_should_bound_the_futures_in_flight() throws Exception {
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(4);
+        try {
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            CompletableFuture<CList<Integer>> result = range(100).mapAsync(3, Runnable::run, x -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<Integer> f = new CompletableFuture<>();
+                timer.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    f.complete(x);
+                }, 1, TimeUnit.MILLISECONDS);
+                return f;
+            });
+            assertThat(get(result), is(range(100)));
+            assertThat(maxInFlight.get(), is(3));
+        } finally {
+            timer.shutdownNow();
+        }
+        try {
+            range(3).mapAsync(0, Runnable::run, CompletableFuture::completedFuture);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("parallelism must be positive: 0"));
+        }
+    }
+
+    @Test
+    public void test03_mapAsync_should_fail_fast_and_cancel_the_running_futures() throws Exception {
+        IllegalStateException boom = new IllegalStateException("boom");
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<CList<Integer>> result = range(1000).mapAsync(2, Runnable::run, x -> {
+            calls.incrementAndGet();
+            if (x == 0)
+                return pending;
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            if (x == 5)
+                f.completeExceptionally(boom);
+            else
+                f.complete(x);
+            return f;
+        });
+        assertThat(failure(result), sameInstance(boom));
+        assertThat(pending.isCancelled(), is(true));
+        assertThat(calls.get(), is(6));
+
+        RuntimeException thrown = new RuntimeException("thrown");
+        assertThat(failure(range(10).mapAsync(4, Runnable::run, x -> {
+            if (x == 3)
+                throw thrown;
+            return CompletableFuture.completedFuture(x);
+        })), sameInstance(thrown));
+    }
+
+    @Test
+    public void test04_cancelling_the_result_should_cancel_the_running_futures() {
+        CompletableFuture<Integer> a = new CompletableFuture<>();
+        CompletableFuture<Integer> b = new CompletableFuture<>();
+        CompletableFuture<CList<Integer>> result = clist(a, b, new CompletableFuture<Integer>())
+                .mapAsync(2, Runnable::run, f -> f);
+        result.cancel(true);
+        assertThat(a.isCancelled(), is(true));
+        assertThat(b.isCancelled(), is(true));
+    }
+
+    @Test
+    public void test05_synchronous_futures_should_not_overflow_the_stack() throws Exception {
+        CList<Integer> xs = range(200_000);
+        assertThat(get(xs.mapAsync(4, Runnable::run, x -> CompletableFuture.completedFuture(x + 1))),
+                is(xs.map(x -> x + 1)));
+        assertThat(get(xs.traverse(x -> CompletableFuture.completedFuture(x + 1))), is(xs.map(x -> x + 1)));
+    }
+
+    @Test
+    public void test06_sequence_and_traverse_should_collect_the_results_in_order() throws Exception {
+        CompletableFuture<Integer> a = new CompletableFuture<>();
+        CompletableFuture<Integer> b = new CompletableFuture<>();
+        CompletableFuture<CList<Integer>> result = CList.sequence(clist(a, b));
+        b.complete(2);
+        assertThat(result.isDone(), is(false));
+        a.complete(1);
+        assertThat(get(result), is(clist(1, 2)));
+        assertThat(get(CList.sequence(CList.<CompletableFuture<Integer>>clist())), is(clist()));
+
+        IllegalStateException boom = new IllegalStateException("boom");
+        CompletableFuture<Integer> c = new CompletableFuture<>();
+        CompletableFuture<Integer> d = new CompletableFuture<>();
+        CompletableFuture<CList<Integer>> failed = CList.sequence(clist(c, d));
+        d.completeExceptionally(boom);
+        assertThat(failure(failed), sameInstance(boom));
+        assertThat(c.isCancelled(), is(true));
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<CList<Integer>> traversed = range(10).traverse(x -> {
+            calls.incrementAndGet();
+            if (x == 2)
+                throw boom;
+            return new CompletableFuture<>();
+        });
+        assertThat(failure(traversed), sameInstance(boom));
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void test07_mapAsync_should_run_blocking_calls_on_virtual_threads() throws Exception {
+        ExecutorService virtual;
+        try {
+            virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            Assume.assumeTrue("no virtual threads on this JDK", false);
+            return;
+        }
+        try {
+            Executor executor = virtual;
+            CList<Integer> xs = range(1000);
+            CompletableFuture<CList<Integer>> result = xs.mapAsync(500, executor, x -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CompletableFuture.completedFuture(x);
+            });
+            assertThat(get(result), is(xs));
+            assertTrue(result.isDone());
+        } finally {
+            virtual.shutdownNow();
+        }
+    }
+}
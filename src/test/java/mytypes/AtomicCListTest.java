@@ -0,0 +1,158 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static mytypes.CList.clist;
+import static mytypes.CList.cons;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AtomicCListTest {
+
+    private static final int THREADS = 8;
+    private static final int OPS = 20_000;
+
+    /**
+     * Runs task(t) on THREADS threads, started at the same time, and waits for all of them.
+     */
+    private static void race(ThrowingIntConsumer task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.accept(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures)
+                f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface ThrowingIntConsumer {
+        void accept(int t) throws Exception;
+    }
+
+    @Test
+    public void test01_AtomicCList_should_work_as_a_stack() {
+        AtomicCList<Integer> stack = new AtomicCList<>();
+        assertThat(stack.get(), is(clist()));
+        assertThat(stack.popOption(), is(Optional.empty()));
+        stack.push(1);
+        stack.push(2);
+        stack.pushAll(clist(3, 4));
+        assertThat(stack.get(), is(clist(3, 4, 2, 1)));
+        assertThat(stack.pop(), is(3));
+        assertThat(stack.popOption(), is(Optional.of(4)));
+        assertThat(stack.getAndTransform(xs -> xs.map(x -> x * 10)), is(clist(2, 1)));
+        assertThat(stack.updateAndGet(xs -> xs.tail()), is(clist(10)));
+        assertThat(stack.getAndSet(clist(7)), is(clist(10)));
+        assertThat(stack.compareAndSet(clist(7), clist()), is(false));
+        assertThat(stack.compareAndSet(stack.get(), clist()), is(true));
+        assertThat(stack.toString(), is("AtomicCList(Nil)"));
+        try {
+            stack.pop();
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("pop on empty AtomicCList"));
+        }
+    }
+
+    @Test
+    public void test02_concurrent_pushes_should_keep_every_element_and_the_order_of_each_thread() throws Exception {
+        AtomicCList<Integer> stack = new AtomicCList<>();
+        race(t -> {
+            for (int i = 0; i < OPS; i++)
+                stack.push(t * OPS + i);
+        });
+        CList<Integer> xs = stack.get();
+        assertThat(xs.length(), is(THREADS * OPS));
+        int[] last = new int[THREADS];
+        Arrays.fill(last, OPS);
+        for (CList<Integer> ys = xs; ys.nonEmpty(); ys = ys.tail()) {
+            int t = ys.head() / OPS;
+            int i = ys.head() % OPS;
+            assertThat(i, is(last[t] - 1));      // pushed later, so nearer to the head
+            last[t] = i;
+        }
+    }
+
+    @Test
+    public void test03_concurrent_pushes_and_pops_should_pop_every_element_once() throws Exception {
+        AtomicCList<Integer> stack = new AtomicCList<>();
+        AtomicIntegerArray popped = new AtomicIntegerArray(THREADS * OPS);
+        race(t -> {
+            for (int i = 0; i < OPS; i++) {
+                stack.push(t * OPS + i);
+                if (i % 2 == 1)
+                    stack.popOption().ifPresent(x -> popped.incrementAndGet(x));
+            }
+        });
+        stack.get().foreach(x -> popped.incrementAndGet(x));
+        for (int i = 0; i < THREADS * OPS; i++)
+            assertThat(popped.get(i), is(1));
+    }
+
+    @Test
+    public void test04_concurrent_updates_should_be_linearizable() throws Exception {
+        AtomicCList<Integer> stack = new AtomicCList<>();
+        AtomicIntegerArray seen = new AtomicIntegerArray(THREADS * OPS);
+        race(t -> {
+            for (int i = 0; i < OPS; i++) {
+                CList<Integer> before = stack.getAndTransform(xs -> cons(xs.length(), xs));
+                seen.incrementAndGet(before.length());
+            }
+        });
+        for (int i = 0; i < THREADS * OPS; i++)
+            assertThat(seen.get(i), is(1));     // every update saw a different predecessor
+        CList<Integer> xs = stack.get();
+        for (int n = THREADS * OPS - 1; xs.nonEmpty(); xs = xs.tail(), n--)
+            assertThat(xs.head(), is(n));
+    }
+
+    @Test
+    public void test05_snapshots_should_never_change() throws Exception {
+        AtomicCList<Integer> stack = new AtomicCList<>(clist(0));
+        race(t -> {
+            if (t == 0) {
+                for (int i = 1; i <= OPS; i++)
+                    stack.updateAndGet(xs -> cons(xs.head() + 1, xs));
+            } else {
+                for (int i = 0; i < OPS; i++) {
+                    CList<Integer> snapshot = stack.get();
+                    int head = snapshot.head();
+                    assertThat(snapshot.length(), is(head + 1));
+                    assertThat(snapshot.head(), is(head));
+                }
+            }
+        });
+        assertThat(stack.get().head(), is(OPS));
+    }
+
+    @Test
+    public void test06_backoff_should_double_its_limit_up_to_the_maximum() {
+        assertThat(AtomicCList.backoff(AtomicCList.MIN_BACKOFF), is(AtomicCList.MIN_BACKOFF << 1));
+        assertThat(AtomicCList.backoff(AtomicCList.MAX_BACKOFF >> 1), is(AtomicCList.MAX_BACKOFF));
+        assertThat(AtomicCList.backoff(AtomicCList.MAX_BACKOFF), is(AtomicCList.MAX_BACKOFF));
+    }
+}
@@ -0,0 +1,83 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static mytypes.CChain.cchain;
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CChainTest {
+
+    private static final int N = 1_000_000;
+
+    @Test
+    public void test01_CChain_should_concatenate_in_order() {
+        CChain<Integer> c = cchain(2, 3).prepended(1).appended(4).append(clist(5, 6)).prepend(clist(-1, 0));
+        assertThat(c.toCList(), is(clist(-1, 0, 1, 2, 3, 4, 5, 6)));
+        assertThat(c.size(), is(8));
+        assertThat(c.headOption(), is(Optional.of(-1)));
+        assertThat(c.toString(), is("CChain(-1, 0, 1, 2, 3, 4, 5, 6)"));
+        assertThat(c, is(CChain.fromCList(clist(-1, 0, 1, 2, 3, 4, 5, 6))));
+        assertThat(c.hashCode(), is(Arrays.asList(-1, 0, 1, 2, 3, 4, 5, 6).hashCode()));
+        assertThat(c.map(x -> x * 2).toList(), is(Arrays.asList(-2, 0, 2, 4, 6, 8, 10, 12)));
+        assertThat(c.foldLeft(0, Integer::sum), is(20));
+        assertThat(CChain.empty().append(CChain.empty()).isEmpty(), is(true));
+        assertThat(CChain.<Integer>empty().append(clist()).isEmpty(), is(true));
+        assertThat(CChain.empty().uncons(), is(Optional.empty()));
+    }
+
+    @Test
+    public void test02_toCList_should_share_the_last_chunk() {
+        CList<Integer> last = clist(3, 4);
+        CList<Integer> xs = cchain(1, 2).append(last).append(clist()).toCList();
+        assertThat(xs, is(clist(1, 2, 3, 4)));
+        assertThat(xs.drop(2) == last, is(true));
+        assertThat(CChain.fromCList(last).toCList() == last, is(true));
+    }
+
+    @Test
+    public void test03_left_nested_appends_should_not_overflow_the_stack() {
+        CChain<Integer> left = CChain.empty();
+        CChain<Integer> right = CChain.empty();
+        for (int i = 0; i < N; i++) {
+            left = left.appended(i % 100);
+            right = right.prepended((N - 1 - i) % 100);
+        }
+        assertThat(left.toCList(), is(right.toCList()));
+        assertThat(left.size(), is(N));
+        assertThat(left, is(right));
+        long sum = 0;
+        for (Integer x : left)
+            sum += x;
+        assertThat(sum, is(N / 100 * 4950L));
+    }
+
+    @Test
+    public void test04_draining_with_uncons_should_take_linear_time() {
+        CChain<Integer> c = CChain.empty();
+        for (int i = 0; i < N; i++)
+            c = c.appended(i);
+        int expected = 0;
+        for (Optional<CList.Pair<Integer, CChain<Integer>>> next = c.uncons(); next.isPresent(); next = next.get()._2.uncons())
+            assertThat(next.get()._1, is(expected++));
+        assertThat(expected, is(N));
+    }
+
+    @Test
+    public void test05_concat_should_combine_many_lists_linearly() {
+        List<CList<Integer>> lists = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++)
+            lists.add(clist(i, i));
+        CList<Integer> xs = CChain.concat(lists).toCList();
+        assertThat(xs.length(), is(200_000));
+        assertThat(xs.take(4), is(clist(0, 0, 1, 1)));
+        CChain<Integer> folded = CList.fromIterable(lists).foldLeft(CChain.empty(), CChain::append);
+        assertThat(folded.toCList(), is(xs));
+    }
+}
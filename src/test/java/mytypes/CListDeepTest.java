@@ -0,0 +1,150 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static mytypes.CList.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Runs the core operations on lists that are far too long for a recursive implementation.
+ * Elements are kept in the range of the Integer cache to keep the heap footprint small.
+ */
+public class CListDeepTest {
+
+    private static final int N = 10_000_000;
+
+    private static CList<Integer> deepList(int n) {
+        CList<Integer> xs = clist();
+        for (int i = n - 1; i >= 0; i--)
+            xs = cons(i % 100, xs);
+        return xs;
+    }
+
+    @Test
+    public void test01_clist_of_a_List_should_not_overflow_the_stack() {
+        List<Integer> elems = new ArrayList<>(N);
+        for (int i = 0; i < N; i++)
+            elems.add(i % 100);
+        CList<Integer> xs = clist(elems);
+        assertThat(xs.length(), is(N));
+        assertThat(xs.drop(N - 1).head(), is((N - 1) % 100));
+    }
+
+    @Test
+    public void test02_length_and_size_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        assertThat(xs.length(), is(N));
+        assertThat(xs.size(), is(N));
+        assertThat(xs.isDefinedAt(N - 1), is(true));
+        assertThat(xs.isDefinedAt(N), is(false));
+    }
+
+    @Test
+    public void test03_map_and_filter_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        assertThat(xs.map(x -> x + 1).length(), is(N));
+        assertThat(xs.filter(x -> x < 50).length(), is(N / 2));
+        assertThat(xs.filterNot(x -> x < 50).length(), is(N / 2));
+    }
+
+    @Test
+    public void test04_append_take_and_drop_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N / 2);
+        CList<Integer> ys = xs.append(xs);
+        assertThat(ys.length(), is(N));
+        assertThat(ys.take(N - 1).length(), is(N - 1));
+        assertThat(ys.drop(N / 2).length(), is(N / 2));
+    }
+
+    @Test
+    public void test05_folds_and_foreach_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        long expected = (long) (N / 100) * (99 * 100 / 2);
+        assertThat(xs.foldLeft(0L, (acc, x) -> acc + x), is(expected));
+        assertThat(xs.foldRight(0L, (x, acc) -> acc + x), is(expected));
+        long[] sum = {0L};
+        xs.foreach(x -> sum[0] += x);
+        assertThat(sum[0], is(expected));
+    }
+
+    @Test
+    public void test06_zipWith_and_zipWithIndex_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N / 2);
+        CList<Integer> sums = xs.zipWith((x, y) -> x + y, xs);
+        assertThat(sums.length(), is(N / 2));
+        assertThat(sums.head(), is(0));
+        CList<Pair<Integer, Integer>> indexed = xs.zipWithIndex();
+        assertThat(indexed.length(), is(N / 2));
+        assertThat(indexed.drop(N / 2 - 1).head()._2, is(N / 2 - 1));
+    }
+
+    @Test
+    public void test07_toList_and_toSet_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        assertThat(xs.toList().size(), is(N));
+        assertThat(xs.toList().get(N - 1), is((N - 1) % 100));
+        assertThat(xs.toSet().size(), is(100));
+    }
+
+    @Test
+    public void test08_equals_and_hashCode_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        CList<Integer> ys = deepList(N);
+        assertThat(xs.equals(ys), is(true));
+        assertThat(xs.hashCode(), is(ys.hashCode()));
+        assertThat(xs.equals(ys.tail()), is(false));
+    }
+
+    @Test
+    public void test09_toString_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N / 10);
+        String s = xs.toString();
+        assertThat(s.startsWith("Cons(0, Cons(1, "), is(true));
+        assertThat(s.length(), is(s.lastIndexOf("Nil") + 3 + N / 10));
+    }
+
+    @Test
+    public void test10_reverse_and_flatten_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N / 2);
+        assertThat(xs.reverse().head(), is((N / 2 - 1) % 100));
+        CList<CList<Integer>> xss = clist(xs, xs);
+        assertThat(xss.flatten().length(), is(N));
+        assertThat(xs.flatMap(x -> clist(x, x)).length(), is(N));
+    }
+
+    @Test
+    public void test11_serialization_should_not_overflow_the_stack() throws Exception {
+        CList<Integer> xs = deepList(N);
+        assertThat(CListTest.roundTrip(xs), is(xs));
+    }
+
+    @Test
+    public void test12_sorted_should_sort_long_lists_stably_in_parallel() {
+        CList<Integer> xs = deepList(N / 2);
+        CList<Integer> sorted = xs.sortBy(x -> x / 10);
+        assertThat(sorted.length(), is(N / 2));
+        assertThat(sorted.isSorted(Comparator.comparing(x -> x / 10)), is(true));
+        assertThat(sorted.take(3), is(clist(0, 1, 2)));
+        assertThat(xs.sorted().isSorted(), is(true));
+    }
+
+    @Test
+    public void test13_searches_should_not_overflow_the_stack() {
+        CList<Integer> xs = deepList(N);
+        assertThat(xs.exists(x -> x == 0), is(true));
+        assertThat(xs.exists(x -> x < 0), is(false));
+        assertThat(xs.forall(x -> x < 100), is(true));
+        assertThat(xs.contains(99), is(true));
+        assertThat(xs.lastOption().get(), is(99));
+        assertThat(xs.takeWhile(x -> x >= 0) == xs, is(true));
+        assertThat(xs.dropWhile(x -> x >= 0).isEmpty(), is(true));
+        assertThat(xs.splitAt(N / 2)._1.length(), is(N / 2));
+        assertThat(xs.startsWith(deepList(N / 2)), is(true));
+        assertThat(xs.corresponds(deepList(N), Integer::equals), is(true));
+    }
+}
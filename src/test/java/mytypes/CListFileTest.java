@@ -0,0 +1,121 @@
+package mytypes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CListFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private <A> CList<A> writeAndMap(CList<A> xs, int chunkSize) throws IOException {
+        Path file = folder.newFile().toPath();
+        CListFile.write(xs, file, chunkSize);
+        return CListFile.map(file);
+    }
+
+    private static CList<Long> range(int n) {
+        CList.Builder<Long> builder = CList.builder();
+        for (long i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    @Test
+    public void test01_a_mapped_CList_should_equal_the_written_CList() throws IOException {
+        CList<Long> longs = range(1000);
+        CList<Long> mapped = writeAndMap(longs, 64);
+        assertThat(mapped, is(longs));
+        assertThat(longs, is(mapped));
+        assertThat(mapped.hashCode(), is(longs.hashCode()));
+        assertThat(mapped.length(), is(1000));
+        assertThat(mapped.toString(), is(longs.toString()));
+
+        CList<String> strings = clist("stra\u00dfe", "", "\u65e5\u672c\u8a9e", "x");
+        assertThat(writeAndMap(strings, 3), is(strings));
+        CList<Object> mixed = clist(1, 2L, 3.5, "four", null);
+        assertThat(writeAndMap(mixed, 2), is(mixed));
+        assertThat(writeAndMap(clist(), 2).isEmpty(), is(true));
+    }
+
+    @Test
+    public void test02_head_tail_drop_and_take_of_a_mapped_CList() throws IOException {
+        CList<Long> mapped = writeAndMap(range(1000), 64);
+        assertThat(mapped.head(), is(0L));
+        assertThat(mapped.tail().head(), is(1L));
+        assertThat(mapped.drop(63).tail().head(), is(64L));
+        assertThat(mapped.drop(500).head(), is(500L));
+        assertThat(mapped.drop(500).drop(200).head(), is(700L));
+        assertThat(mapped.drop(999).tail().isEmpty(), is(true));
+        assertThat(mapped.drop(1000).isEmpty(), is(true));
+        assertThat(mapped.drop(500).length(), is(500));
+        assertThat(mapped.take(3), is(clist(0L, 1L, 2L)));
+        assertThat(mapped.drop(998).take(5), is(clist(998L, 999L)));
+
+        CList<String> strings = writeAndMap(clist("a", "bb", "ccc", "dddd", "eeeee"), 2);
+        assertThat(strings.drop(3).head(), is("dddd"));
+        assertThat(strings.drop(1).drop(1).head(), is("ccc"));
+    }
+
+    @Test
+    public void test03_bulk_operations_of_a_mapped_CList() throws IOException {
+        CList<Long> xs = range(1000);
+        CList<Long> mapped = writeAndMap(xs, 100);
+        assertThat(mapped.foldLeft(0L, (acc, x) -> acc + x), is(999L * 1000 / 2));
+        assertThat(mapped.foldRight(clist(), (x, acc) -> acc.append(clist(x))), is(xs.reverse()));
+        assertThat(mapped.filter(x -> x % 3 == 0), is(xs.filter(x -> x % 3 == 0)));
+        assertThat(mapped.map(x -> x * 2), is(xs.map(x -> x * 2)));
+        assertThat(mapped.exists(x -> x == 999L), is(true));
+        assertThat(mapped.forall(x -> x < 999L), is(false));
+        assertThat(mapped.contains(500L), is(true));
+        assertThat(mapped.reverse(), is(xs.reverse()));
+        assertThat(mapped.append(clist(1000L)).length(), is(1001));
+        assertThat(mapped.toList(), is(xs.toList()));
+        assertThat(CList.cons(-1L, mapped).tail(), is(xs));
+    }
+
+    @Test
+    public void test04_CListFile_should_reject_unsupported_elements_and_files() throws IOException {
+        try {
+            writeAndMap(clist(new Object()), 2);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[32]);
+        try {
+            CListFile.map(file);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void test05_lists_in_front_of_a_mapped_CList_should_know_their_length() throws IOException {
+        CList<Long> mapped = writeAndMap(range(100), 16);
+        CList<Long> xs = clist(-2L, -1L).append(mapped);
+        assertThat(xs.length(), is(102));
+        assertThat(xs.tail().length(), is(101));
+        assertThat(xs, is(clist(-2L, -1L).append(range(100))));
+        assertThat(CList.cons(-1L, mapped).length(), is(101));
+        assertThat(CList.<Long>builder().add(-1L).prependTo(mapped.drop(50)).length(), is(51));
+    }
+
+    @Test
+    public void test06_strings_with_unpaired_surrogates_should_survive_a_mapping() throws IOException {
+        CList<String> xs = clist("ok", "\uD800x", "\uDC00", "x\uDBFF", "\uDC00\uD800", "\uD83D\uDE00", "");
+        assertThat(writeAndMap(xs, 3), is(xs));
+        CList<Object> mixed = clist("\uD800", 1, null, "\uDFFF");
+        assertThat(writeAndMap(mixed, 2), is(mixed));
+    }
+}
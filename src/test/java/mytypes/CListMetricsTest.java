@@ -0,0 +1,101 @@
+package mytypes;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CListMetricsTest {
+
+    /**
+     * Keeps the number of increments of every counter and the number and sum of the values of every histogram.
+     */
+    static final class MapRegistry implements CListMetrics.Registry {
+        final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> sums = new ConcurrentHashMap<>();
+
+        long count(String name) {
+            return counts.getOrDefault(name, new LongAdder()).sum();
+        }
+
+        long sum(String name) {
+            return sums.getOrDefault(name, new LongAdder()).sum();
+        }
+
+        @Override
+        public CListMetrics.Counter counter(String name) {
+            LongAdder count = counts.computeIfAbsent(name, n -> new LongAdder());
+            return count::increment;
+        }
+
+        @Override
+        public CListMetrics.Histogram histogram(String name) {
+            LongAdder count = counts.computeIfAbsent(name, n -> new LongAdder());
+            LongAdder sum = sums.computeIfAbsent(name, n -> new LongAdder());
+            return value -> {
+                count.increment();
+                sum.add(value);
+            };
+        }
+    }
+
+    @After
+    public void disable() {
+        CListMetrics.disable();
+        CListMetrics.setMinSize(CListMetrics.DEFAULT_MIN_SIZE);
+    }
+
+    private static CList<Integer> range(int n) {
+        CList.Builder<Integer> result = CList.builder();
+        for (int i = 0; i < n; i++)
+            result.add(i % 100);
+        return result.result();
+    }
+
+    @Test
+    public void test01_installed_registry_should_see_the_calls_on_long_lists() {
+        MapRegistry registry = new MapRegistry();
+        CListMetrics.install(registry);
+        assertThat(CListMetrics.isEnabled(), is(true));
+        CList<Integer> xs = range(2000);
+        xs.reverse();
+        xs.reverse();
+        xs.append(clist(1));
+        xs.toList();
+        xs.toSet();
+        assertThat(xs.equals(range(2000)), is(true));
+        clist(xs, xs).flatten();
+        range(10).reverse();
+        assertThat(registry.count("clist.reverse.calls"), is(2L));
+        assertThat(registry.count("clist.reverse.size"), is(2L));
+        assertThat(registry.sum("clist.reverse.size"), is(4000L));
+        assertThat(registry.count("clist.reverse.nanos"), is(2L));
+        assertThat(registry.count("clist.append.calls"), is(1L));
+        assertThat(registry.count("clist.toList.calls"), is(1L));
+        assertThat(registry.count("clist.toSet.calls"), is(1L));
+        assertThat(registry.count("clist.equals.calls"), is(1L));
+        assertThat(registry.sum("clist.flatten.size"), is(4000L));
+    }
+
+    @Test
+    public void test02_nothing_should_be_reported_when_disabled_or_below_minSize() {
+        MapRegistry registry = new MapRegistry();
+        CListMetrics.install(registry);
+        CListMetrics.setMinSize(5000);
+        range(2000).reverse();
+        assertThat(registry.count("clist.reverse.calls"), is(0L));
+        CListMetrics.setMinSize(0);
+        range(2).reverse();
+        assertThat(registry.count("clist.reverse.calls"), is(1L));
+        CListMetrics.uninstall();
+        assertThat(CListMetrics.isEnabled(), is(false));
+        range(2000).reverse();
+        assertThat(registry.count("clist.reverse.calls"), is(1L));
+    }
+}
@@ -0,0 +1,76 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static mytypes.CList.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CListSpliteratorTest {
+
+    private static CList<Integer> range(int n) {
+        Builder<Integer> builder = builder();
+        for (int i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    @Test
+    public void test01_CListIterator_should_return_all_elements_in_order() {
+        Iterator<Integer> it = clist(1, 2, 3).iterator();
+        assertThat(it.next(), is(1));
+        assertThat(it.next(), is(2));
+        assertThat(it.hasNext(), is(true));
+        assertThat(it.next(), is(3));
+        assertThat(it.hasNext(), is(false));
+        assertThat(clist().iterator().hasNext(), is(false));
+        List<String> elems = new ArrayList<>();
+        for (String s : clist("Scala", "is", "fun"))
+            elems.add(s);
+        assertThat(elems, is(asList("Scala", "is", "fun")));
+    }
+
+    @Test
+    public void test02_CListSpliterator_should_report_size_and_characteristics() {
+        Spliterator<Integer> spliterator = clist(1, 2, 3).spliterator();
+        assertThat(spliterator.estimateSize(), is(3L));
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), is(true));
+        assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED), is(true));
+        assertThat(spliterator.hasCharacteristics(Spliterator.IMMUTABLE), is(true));
+        assertThat(clist().spliterator().trySplit(), is(nullValue()));
+    }
+
+    @Test
+    public void test03_CListSpliterator_trySplit_should_hand_out_a_prefix_and_keep_the_rest() {
+        Spliterator<Integer> rest = range(5000).spliterator();
+        Spliterator<Integer> prefix = rest.trySplit();
+        assertThat(prefix.estimateSize(), is((long) CListSpliterator.BATCH_UNIT));
+        assertThat(rest.estimateSize(), is(5000L - CListSpliterator.BATCH_UNIT));
+        List<Integer> elems = new ArrayList<>();
+        prefix.forEachRemaining(elems::add);
+        rest.forEachRemaining(elems::add);
+        assertThat(elems, is(range(5000).toList()));
+    }
+
+    @Test
+    public void test04_CListStream_should_process_the_elements_in_order() {
+        assertThat(clist(1, 2, 3).stream().map(x -> x * 2).collect(Collectors.toList()), is(asList(2, 4, 6)));
+        assertThat(clist().stream().count(), is(0L));
+    }
+
+    @Test
+    public void test05_CListParallelStream_should_return_the_same_result_as_the_sequential_stream() {
+        CList<Integer> xs = range(1_000_000);
+        assertThat(xs.parallelStream().mapToLong(x -> x).sum(), is(xs.stream().mapToLong(x -> x).sum()));
+        assertThat(xs.parallelStream().filter(x -> x % 3 == 0).collect(Collectors.toList()),
+                is(xs.filter(x -> x % 3 == 0).toList()));
+    }
+}
@@ -2,7 +2,15 @@ package mytypes;
 
 import org.junit.Test;
 
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
@@ -322,4 +330,384 @@ public class CListTest {
         assertThat(clist(1, 2, 3).zipWithIndex(), is(clist(pair(1, 0), pair(2, 1), pair(3, 2))));
         assertThat(clist("Scala", "is", "fun").zipWithIndex(), is(clist(pair("Scala", 0), pair("is", 1), pair("fun", 2))));
     }
+
+    @Test
+    public void test34_CListFolds_should_process_the_elements_in_the_expected_order() {
+        assertThat(clist("a", "b", "c").foldLeft("", (acc, elem) -> acc + elem), is("abc"));
+        assertThat(clist("a", "b", "c").foldRight("", (elem, acc) -> elem + acc), is("abc"));
+        assertThat(clist("a", "b", "c").foldRight("", (elem, acc) -> acc + elem), is("cba"));
+    }
+
+    @Test
+    public void test35_CLists_of_different_lengths_should_not_be_equal() {
+        assertThat(clist(1).equals(clist(1, 2)), is(false));
+        assertThat(clist(1, 2).equals(clist(1)), is(false));
+        assertThat(clist().equals(clist(1)), is(false));
+        assertThat(clist(1, 2).map(x -> x).hashCode(), is(clist(1, 2).hashCode()));
+        assertThat(clist(1, 2).toString(), is("Cons(1, Cons(2, Nil))"));
+    }
+
+    @Test
+    public void test36_CListHashCode_should_depend_on_the_order_of_the_elements() {
+        assertThat(clist(1, 2, 3).hashCode(), is(clist(1, 2, 3).hashCode()));
+        assertThat(clist(1, 2, 3).hashCode() == clist(3, 2, 1).hashCode(), is(false));
+        CList<Integer> xs = clist(1, 2, 3);
+        assertThat(xs.hashCode(), is(xs.hashCode()));
+        assertThat(cons(0, xs).hashCode(), is(clist(0, 1, 2, 3).hashCode()));
+    }
+
+    @Test
+    public void test37_CLists_should_work_as_HashMap_keys() {
+        Map<CList<String>, Integer> map = new HashMap<>();
+        map.put(clist("Scala", "is", "fun"), 1);
+        map.put(clist("Java", "is", "fun"), 2);
+        assertThat(map.get(clist("Scala", "is", "fun")), is(1));
+        assertThat(map.get(clist("Java", "is", "fun")), is(2));
+        assertThat(map.containsKey(clist("Scala", "is")), is(false));
+        assertThat(map.containsKey(clist("fun", "is", "Scala")), is(false));
+    }
+
+    @Test
+    public void test38_CListBuilder_should_build_a_CList_in_insertion_order() {
+        CList.Builder<Integer> builder = CList.builder();
+        assertThat(builder.isEmpty(), is(true));
+        assertThat(builder.result(), is(clist()));
+        builder.add(1).add(2).addAll(clist(3, 4)).addAll(asList(5, 6));
+        assertThat(builder.size(), is(6));
+        CList<Integer> xs = builder.result();
+        assertThat(xs, is(clist(1, 2, 3, 4, 5, 6)));
+        assertThat(xs.length(), is(6));
+        assertThat(xs.tail().length(), is(5));
+        // the builder is reset by result(), so xs cannot change any more
+        assertThat(builder.isEmpty(), is(true));
+        builder.add(7);
+        assertThat(xs, is(clist(1, 2, 3, 4, 5, 6)));
+        assertThat(builder.prependTo(xs), is(clist(7, 1, 2, 3, 4, 5, 6)));
+        assertThat(cons(0, builder.add(1).result()).length(), is(2));
+    }
+
+    @Test
+    public void test39_CList_factories_should_preserve_the_order_of_the_elements() {
+        assertThat(fromArray(new Integer[]{1, 2, 3}), is(clist(1, 2, 3)));
+        assertThat(fromIterable(asList(1, 2, 3)), is(clist(1, 2, 3)));
+        assertThat(fromIterator(asList(1, 2, 3).iterator()), is(clist(1, 2, 3)));
+        assertThat(fromIterable(emptyList()), is(clist()));
+    }
+
+    @Test
+    public void test40_CList_operations_should_share_unchanged_suffixes() {
+        CList<Integer> xs = clist(1, 2, 3, 4, 5);
+        assertThat(xs.filter(x -> x > 0) == xs, is(true));
+        assertThat(xs.filter(x -> x != 2).tail() == xs.drop(2), is(true));
+        assertThat(xs.filter(x -> x != 2), is(clist(1, 3, 4, 5)));
+        assertThat(xs.filter(x -> x != 4), is(clist(1, 2, 3, 5)));
+        assertThat(xs.filterNot(x -> x == 1) == xs.tail(), is(true));
+        assertThat(xs.filter(x -> x % 2 == 1), is(clist(1, 3, 5)));
+        assertThat(xs.map(x -> x) == xs, is(true));
+        CList<Integer> mapped = xs.map(x -> x == 2 ? 20 : x);
+        assertThat(mapped, is(clist(1, 20, 3, 4, 5)));
+        assertThat(mapped.drop(2) == xs.drop(2), is(true));
+        assertThat(xs.take(5) == xs, is(true));
+        assertThat(xs.take(9) == xs, is(true));
+        assertThat(xs.append(clist()) == xs, is(true));
+        assertThat(xs.drop(2) == xs.tail().tail(), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T roundTrip(T obj) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialize(obj)))) {
+            return (T) in.readObject();
+        }
+    }
+
+    static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(obj);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void test41_CList_should_survive_serialization() throws Exception {
+        assertThat(roundTrip(clist(1, 2, 3)), is(clist(1, 2, 3)));
+        assertThat(roundTrip(clist(1L, 2L)), is(clist(1L, 2L)));
+        assertThat(roundTrip(clist(1.5, -0.0)), is(clist(1.5, -0.0)));
+        assertThat(roundTrip(clist("a", "", "\u00e9\u20ac")), is(clist("a", "", "\u00e9\u20ac")));
+        CList<Object> mixed = clist(1, "two", null, 3L, BigInteger.TEN, clist(4, 5));
+        assertThat(roundTrip(mixed), is(mixed));
+        assertThat(roundTrip(clist()) == clist(), is(true));
+        assertThat(roundTrip(new Nil<Integer>()) == CList.<Integer>clist(), is(true));
+        assertThat(roundTrip(pair("a", clist(1))), is(pair("a", clist(1))));
+        CList<Integer> xs = clist(1, 2);
+        Pair<CList<Integer>, CList<Integer>> shared = roundTrip(pair(xs, xs));
+        assertThat(shared._1 == shared._2, is(true));
+    }
+
+    @Test
+    public void test42_serialized_CList_should_be_smaller_than_a_serialized_ArrayList() throws Exception {
+        ArrayList<Integer> elems = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            elems.add(i * 1000);
+        assertThat(serialize(clist(elems)).length < serialize(elems).length / 2, is(true));
+    }
+
+    @Test
+    public void test43_sorted_should_be_stable() {
+        assertThat(clist(3, 1, 2).sorted(), is(clist(1, 2, 3)));
+        assertThat(clist(3, 1, 2).sorted(Comparator.reverseOrder()), is(clist(3, 2, 1)));
+        assertThat(CList.<Integer>clist().sorted(), is(clist()));
+        CList<Integer> one = clist(1);
+        assertThat(one.sorted() == one, is(true));
+        CList<IntPair> xs = clist(intPair(2, 0), intPair(1, 1), intPair(2, 2), intPair(1, 3));
+        assertThat(xs.sorted(Comparator.comparing(x -> x._1)),
+                is(clist(intPair(1, 1), intPair(1, 3), intPair(2, 0), intPair(2, 2))));
+        assertThat(xs.sortBy(x -> x._1), is(clist(intPair(1, 1), intPair(1, 3), intPair(2, 0), intPair(2, 2))));
+        assertThat(xs.sortWith((x, y) -> x._1 > y._1), is(clist(intPair(2, 0), intPair(2, 2), intPair(1, 1), intPair(1, 3))));
+    }
+
+    @Test
+    public void test44_sortBy_should_evaluate_the_key_once_per_element() {
+        int[] calls = {0};
+        CList<String> xs = clist("ccc", "a", "bb", "dddd", "");
+        assertThat(xs.sortBy(s -> {
+            calls[0]++;
+            return s.length();
+        }), is(clist("", "a", "bb", "ccc", "dddd")));
+        assertThat(calls[0], is(5));
+        assertThat(xs.sortBy(String::length, Comparator.reverseOrder()), is(clist("dddd", "ccc", "bb", "a", "")));
+    }
+
+    @Test
+    public void test45_isSorted_min_and_max() {
+        assertThat(clist(1, 2, 2, 3).isSorted(), is(true));
+        assertThat(clist(1, 3, 2).isSorted(), is(false));
+        assertThat(CList.<Integer>clist().isSorted(), is(true));
+        assertThat(clist(3, 2, 1).isSorted(Comparator.reverseOrder()), is(true));
+        assertThat(clist(3, 1, 4, 1, 5).min(Comparator.naturalOrder()), is(1));
+        assertThat(clist(3, 1, 4, 1, 5).max(Comparator.naturalOrder()), is(5));
+        assertThat(clist("bb", "a", "cc").minBy(String::length), is("a"));
+        assertThat(clist("bb", "a", "cc").maxBy(String::length), is("bb"));
+        try {
+            CList.<Integer>clist().min(Comparator.naturalOrder());
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("min of empty CList"));
+        }
+        try {
+            CList.<String>clist().maxBy(String::length);
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("maxBy of empty CList"));
+        }
+    }
+
+    @Test
+    public void test46_flatten_and_flatMap_should_share_the_last_list() {
+        CList<Integer> last = clist(5, 6);
+        CList<CList<Integer>> xss = clist(clist(1, 2), clist(), clist(3, 4), last, clist());
+        assertThat(xss.flatten(), is(clist(1, 2, 3, 4, 5, 6)));
+        assertThat((Object) xss.flatten().drop(4) == last, is(true));
+        assertThat((Object) xss.concat().drop(4) == last, is(true));
+        assertThat(clist(1, 2).flatMap(x -> x == 2 ? last : clist(x)).drop(1) == last, is(true));
+        assertThat(CList.<CList<Integer>>clist(clist(), clist()).flatten(), is(clist()));
+    }
+
+    @Test
+    public void test47_Pair_should_be_null_safe_and_cache_its_hash() {
+        assertThat(pair(null, 1), is(pair(null, 1)));
+        assertThat(pair(null, 1).equals(pair(1, null)), is(false));
+        assertThat(pair("a", null).hashCode(), is(31 * "a".hashCode()));
+        Pair<String, Integer> p = pair("a", 1);
+        assertThat(p.hashCode(), is(p.hashCode()));
+        assertThat(p.hashCode(), is(31 * "a".hashCode() + 1));
+        Map<Pair<String, Integer>, String> m = new HashMap<>();
+        m.put(pair(null, null), "x");
+        assertThat(m.get(pair(null, null)), is("x"));
+    }
+
+    @Test
+    public void test48_primitive_pairs_should_hash_like_their_boxed_Pairs() {
+        assertThat(mytypes.IntPair.intPair(1, 2), is(new mytypes.IntPair(1, 2)));
+        assertThat(mytypes.IntPair.intPair(1, 2).hashCode(), is(pair(1, 2).hashCode()));
+        assertThat(mytypes.IntPair.intPair(1, 2).boxed(), is(pair(1, 2)));
+        assertThat(LongPair.longPair(1L << 40, -1).hashCode(), is(pair(1L << 40, -1L).hashCode()));
+        assertThat(LongPair.longPair(1, 2).toString(), is("LongPair{_1=1, _2=2}"));
+        assertThat(ObjIntPair.objIntPair("a", 3).hashCode(), is(pair("a", 3).hashCode()));
+        assertThat(ObjIntPair.objIntPair(null, 3), is(ObjIntPair.objIntPair(null, 3)));
+        assertThat(ObjIntPair.objIntPair("a", 3).equals(ObjIntPair.objIntPair("a", 4)), is(false));
+    }
+
+    @Test
+    public void test49_indexed_operations_should_pass_the_index_of_each_element() {
+        CList<String> xs = clist("a", "b", "c", "b");
+        StringBuilder sb = new StringBuilder();
+        xs.foreachIndexed((x, i) -> sb.append(i).append(x));
+        assertThat(sb.toString(), is("0a1b2c3b"));
+        assertThat(xs.mapIndexed((x, i) -> x + i), is(clist("a0", "b1", "c2", "b3")));
+        assertThat(xs.foldLeftIndexed(0, (acc, x, i) -> acc + i), is(6));
+        assertThat(xs.zipWithIntIndex().drop(3).head(), is(ObjIntPair.objIntPair("b", 3)));
+        assertThat(xs.indexOf("b"), is(1));
+        assertThat(xs.indexOf("b", 2), is(3));
+        assertThat(xs.indexOf("z"), is(-1));
+        assertThat(xs.lastIndexOf("b"), is(3));
+        assertThat(xs.lastIndexOf("z"), is(-1));
+        assertThat(xs.indexWhere(x -> x.compareTo("b") > 0), is(2));
+        assertThat(xs.indexWhere(x -> x.equals("a"), 1), is(-1));
+        assertThat(xs.lastIndexWhere(x -> x.compareTo("b") <= 0), is(3));
+        assertThat(clist("a", null).indexOf(null), is(1));
+        assertThat(CList.<String>clist().indexOf("a"), is(-1));
+    }
+
+    @Test
+    public void test50_exists_forall_and_contains_should_stop_at_the_first_decisive_element() {
+        int[] tested = {0};
+        CList<Integer> xs = clist(1, 2, 3, 4, 5);
+        assertThat(xs.exists(x -> ++tested[0] > 0 && x == 2), is(true));
+        assertThat(tested[0], is(2));
+        tested[0] = 0;
+        assertThat(xs.forall(x -> ++tested[0] > 0 && x < 3), is(false));
+        assertThat(tested[0], is(3));
+        assertThat(xs.contains(5), is(true));
+        assertThat(xs.contains(6), is(false));
+        assertThat(clist("a", null).contains(null), is(true));
+        assertThat(clist(null, "a").contains("a"), is(true));
+    }
+
+    @Test
+    public void test51_find_and_collectFirst() {
+        CList<String> xs = clist("a", "bb", "cc");
+        assertThat(xs.find(x -> x.length() == 2), is(Optional.of("bb")));
+        assertThat(xs.find(String::isEmpty), is(Optional.empty()));
+        assertThat(xs.collectFirst(x -> x.startsWith("c") ? Optional.of(x.length()) : Optional.empty()),
+                is(Optional.of(2)));
+        assertThat(CList.<String>clist().collectFirst(Optional::of), is(Optional.empty()));
+        assertThat(xs.lastOption(), is(Optional.of("cc")));
+        assertThat(CList.<String>clist().lastOption(), is(Optional.empty()));
+    }
+
+    @Test
+    public void test52_prefix_operations_should_share_the_suffix() {
+        CList<Integer> xs = clist(1, 2, 3, 4, 1);
+        assertThat(xs.takeWhile(x -> x < 3), is(clist(1, 2)));
+        assertThat(xs.takeWhile(x -> x < 10) == xs, is(true));
+        assertThat(xs.dropWhile(x -> x < 3) == xs.drop(2), is(true));
+        assertThat(xs.dropWhile(x -> x < 10), is(clist()));
+        Pair<CList<Integer>, CList<Integer>> span = xs.span(x -> x < 3);
+        assertThat(span._1, is(clist(1, 2)));
+        assertThat(span._2 == xs.drop(2), is(true));
+        Pair<CList<Integer>, CList<Integer>> split = xs.splitAt(3);
+        assertThat(split._1, is(clist(1, 2, 3)));
+        assertThat(split._2 == xs.drop(3), is(true));
+        assertThat(xs.splitAt(9)._1 == xs, is(true));
+        assertThat(xs.splitAt(0)._1, is(clist()));
+        assertThat(xs.startsWith(clist(1, 2)), is(true));
+        assertThat(xs.startsWith(clist()), is(true));
+        assertThat(xs.startsWith(clist(1, 3)), is(false));
+        assertThat(clist(1).startsWith(clist(1, 2)), is(false));
+        assertThat(xs.startsWith(xs), is(true));
+    }
+
+    @Test
+    public void test53_corresponds_should_compare_pairwise() {
+        assertThat(clist(1, 2, 3).corresponds(clist("a", "bb", "ccc"), (x, s) -> s.length() == x), is(true));
+        assertThat(clist(1, 2).corresponds(clist("a", "bb", "ccc"), (x, s) -> s.length() == x), is(false));
+        assertThat(clist(1, 2, 3).corresponds(clist("a", "b", "ccc"), (x, s) -> s.length() == x), is(false));
+        assertThat(clist().corresponds(clist(), (x, y) -> false), is(true));
+    }
+
+    @Test
+    public void test54_groupBy_groupMapReduce_and_countBy_should_keep_the_order_of_first_occurrence() {
+        CList<String> xs = clist("bb", "a", "cc", "d", "eee");
+        Map<Integer, CList<String>> groups = xs.groupBy(String::length);
+        assertThat(new ArrayList<>(groups.keySet()), is(asList(2, 1, 3)));
+        assertThat(groups.get(2), is(clist("bb", "cc")));
+        assertThat(groups.get(1), is(clist("a", "d")));
+        Map<Integer, String> joined = xs.groupMapReduce(String::length, String::toUpperCase, String::concat);
+        assertThat(joined.get(2), is("BBCC"));
+        assertThat(new ArrayList<>(joined.keySet()), is(asList(2, 1, 3)));
+        Map<Integer, Integer> counts = xs.countBy(String::length);
+        assertThat(counts.get(1), is(2));
+        assertThat(counts.get(3), is(1));
+        assertThat(CList.<String>clist().groupBy(String::length).isEmpty(), is(true));
+        CList.Builder<Integer> numbers = CList.builder();
+        for (int i = 0; i < 1000; i++)
+            numbers.add(i);
+        CList<Integer> ys = numbers.result();
+        Map<Integer, Integer> large = ys.countBy(x -> x % 3);
+        assertThat(new ArrayList<>(large.keySet()), is(asList(0, 1, 2)));
+        assertThat(large.get(0), is(334));
+        assertThat(large.get(2), is(333));
+        assertThat(ys.groupBy(x -> x % 3).get(1).length(), is(333));
+    }
+
+    @Test
+    public void test55_partition_should_split_in_one_pass() {
+        CList<Integer> xs = clist(1, 2, 3, 4, 5);
+        Pair<CList<Integer>, CList<Integer>> parts = xs.partition(x -> x % 2 == 0);
+        assertThat(parts._1, is(clist(2, 4)));
+        assertThat(parts._2, is(clist(1, 3, 5)));
+        assertThat(xs.partition(x -> x > 0)._1 == xs, is(true));
+        assertThat(xs.partition(x -> x > 0)._2, is(clist()));
+        assertThat(xs.partition(x -> x < 0)._2 == xs, is(true));
+    }
+
+    @Test
+    public void test56_distinct_should_keep_first_occurrences() {
+        CList<Integer> xs = clist(3, 1, 3, 2, 1, 4, 5);
+        assertThat(xs.distinct(), is(clist(3, 1, 2, 4, 5)));
+        assertThat(xs.distinct().drop(3) == xs.drop(5), is(true));
+        CList<Integer> ys = clist(1, 2, 3);
+        assertThat(ys.distinct() == ys, is(true));
+        assertThat(clist("a", "B", "b", "A", null, null).distinctBy(s -> s == null ? null : s.toLowerCase()),
+                is(clist("a", "B", null)));
+    }
+
+    @Test
+    public void test57_diff_intersect_and_union_should_count_occurrences() {
+        CList<Integer> xs = clist(1, 2, 2, 3, 1, 4);
+        CList<Integer> ys = clist(2, 1, 5, 2, 2);
+        assertThat(xs.diff(ys), is(clist(3, 1, 4)));
+        assertThat(xs.intersect(ys), is(clist(1, 2, 2)));
+        assertThat(xs.union(ys), is(clist(1, 2, 2, 3, 1, 4, 5, 2)));
+        assertThat(xs.diff(clist()) == xs, is(true));
+        assertThat(xs.intersect(clist()), is(clist()));
+        assertThat(CList.<Integer>clist().union(ys) == ys, is(true));
+        assertThat(xs.diff(xs), is(clist()));
+        assertThat(xs.intersect(xs) == xs, is(true));
+    }
+
+    @Test
+    public void test58_built_lists_should_have_final_cells_and_known_lengths() throws Exception {
+        for (String field : asList("head", "tail", "length"))
+            assertThat(java.lang.reflect.Modifier.isFinal(Cons.class.getDeclaredField(field).getModifiers()), is(true));
+        CList.Builder<Integer> left = CList.builder();
+        CList.Builder<Integer> right = CList.builder();
+        for (int i = 0; i < 5000; i++)
+            (i < 37 || i >= 3000 ? left : right).add(i);
+        left.appendAll(right).appendAll(CList.<Integer>builder().add(5000));
+        assertThat(right.isEmpty(), is(true));
+        assertThat(left.size(), is(5001));
+        CList<Integer> xs = left.result();
+        assertThat(xs.length(), is(5001));
+        assertThat(xs.drop(100).length(), is(4901));
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 37; i++)
+            expected.add(i);
+        for (int i = 3000; i < 5000; i++)
+            expected.add(i);
+        for (int i = 37; i < 3000; i++)
+            expected.add(i);
+        expected.add(5000);
+        assertThat(xs.toList(), is(expected));
+    }
+
+    @Test
+    public void test59_strings_with_unpaired_surrogates_should_survive_serialization() throws Exception {
+        CList<String> xs = clist("ok", "\uD800x", "\uDC00", "x\uDBFF", "\uDC00\uD800", "\uD83D\uDE00", "\u0000");
+        assertThat(roundTrip(xs), is(xs));
+        CList<Object> mixed = clist(1, "\uD800", null, "\uDFFF\uDFFF");
+        assertThat(roundTrip(mixed), is(mixed));
+        assertThat(CListFile.encodeString("\u00e9\uD83D\uDE00"), is("\u00e9\uD83D\uDE00".getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,63 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CListViewTest {
+
+    private static CList<Integer> range(int n) {
+        CList.Builder<Integer> builder = CList.builder();
+        for (int i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    @Test
+    public void test01_CListView_should_return_the_same_results_as_the_strict_operations() {
+        CList<Integer> xs = range(100);
+        assertThat(xs.view().map(x -> x + 1).filter(x -> x % 3 == 0).map(x -> x * 2).toCList(),
+                is(xs.map(x -> x + 1).filter(x -> x % 3 == 0).map(x -> x * 2)));
+        assertThat(xs.view().flatMap(x -> clist(x, -x)).take(5).toCList(), is(clist(0, 0, 1, -1, 2)));
+        assertThat(xs.view().drop(97).toCList(), is(clist(97, 98, 99)));
+        assertThat(xs.view().takeWhile(x -> x < 3).toList(), is(asList(0, 1, 2)));
+        assertThat(clist("a", "b").view().zipWithIndex().toCList(), is(clist(pair("a", 0), pair("b", 1))));
+        assertThat(xs.view().filterNot(x -> x < 98).foldLeft(0, (acc, x) -> acc + x), is(197));
+        assertThat(xs.view().take(0).toCList(), is(clist()));
+    }
+
+    @Test
+    public void test02_CListView_should_stop_as_soon_as_the_terminal_operation_is_satisfied() {
+        AtomicInteger calls = new AtomicInteger();
+        CList<Integer> result = range(1_000_000).view()
+                .map(x -> {
+                    calls.incrementAndGet();
+                    return x * 2;
+                })
+                .filter(x -> x % 3 == 0)
+                .take(3)
+                .toCList();
+        assertThat(result, is(clist(0, 6, 12)));
+        assertThat(calls.get(), is(7));
+        calls.set(0);
+        assertThat(range(1_000_000).view().map(x -> calls.incrementAndGet()).exists(x -> x == 10), is(true));
+        assertThat(calls.get(), is(10));
+        assertThat(range(10).view().forall(x -> x < 10), is(true));
+    }
+
+    @Test
+    public void test03_CListView_should_be_reusable() {
+        CListView<CList.Pair<Integer, Integer>> view = range(10).view().drop(2).take(3).zipWithIndex();
+        assertThat(view.toCList(), is(clist(pair(2, 0), pair(3, 1), pair(4, 2))));
+        assertThat(view.toCList(), is(clist(pair(2, 0), pair(3, 1), pair(4, 2))));
+        int[] sum = {0};
+        view.foreach(p -> sum[0] += p._1);
+        assertThat(sum[0], is(9));
+    }
+}
@@ -0,0 +1,161 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.clist;
+import static mytypes.CMap.cmap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CMapTest {
+
+    /**
+     * A key with a chosen hash code, to force collisions.
+     */
+    static final class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + id;
+        }
+    }
+
+    @Test
+    public void test01_CMap_should_map_keys_to_values() {
+        CMap<String, Integer> m = cmap(pair("a", 1), pair("b", 2), pair("a", 3));
+        assertThat(m.size(), is(2));
+        assertThat(m.get("a"), is(Optional.of(3)));
+        assertThat(m.get("c"), is(Optional.empty()));
+        assertThat(m.getOrElse("c", 0), is(0));
+        assertThat(m.containsKey("b"), is(true));
+        assertThat(CMap.<String, Integer>empty().isEmpty(), is(true));
+        assertThat(cmap(pair("x", 1)).toString(), is("CMap(x -> 1)"));
+        assertThat(cmap(pair(null, null)).containsKey(null), is(true));
+    }
+
+    @Test
+    public void test02_updated_and_removed_should_leave_the_original_map_unchanged() {
+        CMap<String, Integer> m = cmap(pair("a", 1), pair("b", 2));
+        CMap<String, Integer> m2 = m.updated("c", 3).updated("a", 10);
+        CMap<String, Integer> m3 = m2.removed("b");
+        assertThat(m, is(cmap(pair("a", 1), pair("b", 2))));
+        assertThat(m2, is(cmap(pair("a", 10), pair("b", 2), pair("c", 3))));
+        assertThat(m3, is(cmap(pair("a", 10), pair("c", 3))));
+        assertThat(m.updated("a", m.getOrElse("a", 0)) == m, is(true));
+        assertThat(m.removed("z") == m, is(true));
+        assertThat(m.removed("a").removed("b").isEmpty(), is(true));
+    }
+
+    @Test
+    public void test03_CMap_should_behave_like_a_HashMap_under_random_updates() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        CMap<Integer, Integer> m = CMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                m = m.removed(key);
+            } else {
+                expected.put(key, i);
+                m = m.updated(key, i);
+            }
+        }
+        assertThat(m.size(), is(expected.size()));
+        assertThat(m.toMap(), is(expected));
+        assertThat(m.hashCode(), is(expected.hashCode()));
+        int count = 0;
+        for (CList.Pair<Integer, Integer> entry : m) {
+            assertThat(entry._2, is(expected.get(entry._1)));
+            count++;
+        }
+        assertThat(count, is(expected.size()));
+    }
+
+    @Test
+    public void test04_CMap_should_handle_colliding_hash_codes() {
+        CMap<Key, Integer> m = CMap.empty();
+        for (int i = 0; i < 100; i++)
+            m = m.updated(new Key(i, i % 3), i);
+        assertThat(m.size(), is(100));
+        for (int i = 0; i < 100; i++)
+            assertThat(m.get(new Key(i, i % 3)), is(Optional.of(i)));
+        for (int i = 0; i < 100; i += 2)
+            m = m.removed(new Key(i, i % 3));
+        assertThat(m.size(), is(50));
+        assertThat(m.containsKey(new Key(2, 2)), is(false));
+        assertThat(m.containsKey(new Key(3, 0)), is(true));
+        assertThat(m.toCList().length(), is(50));
+    }
+
+    @Test
+    public void test05_union_and_intersect_should_combine_the_entries() {
+        CMap<Integer, String> a = CMap.empty();
+        CMap<Integer, String> b = CMap.empty();
+        Map<Integer, String> union = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            a = a.updated(i, "a" + i);
+            union.put(i, "a" + i);
+        }
+        for (int i = 2500; i < 10_000; i += 3) {
+            b = b.updated(i, "b" + i);
+            union.put(i, "b" + i);
+        }
+        CMap<Integer, String> ab = a.union(b);
+        assertThat(ab.size(), is(union.size()));
+        assertThat(ab.toMap(), is(union));
+        assertThat(a.union(a) == a, is(true));
+        assertThat(a.union(CMap.empty()) == a, is(true));
+
+        CMap<Integer, String> both = a.intersect(b);
+        assertThat(both.size(), is(b.filter((k, v) -> k < 5000).size()));
+        assertThat(both.get(2500), is(Optional.of("a2500")));
+        assertThat(b.intersect(a).get(2500), is(Optional.of("b2500")));
+        assertThat(a.intersect(a.updated(-1, "x")) == a, is(true));
+
+        CMap<Key, Integer> c = cmap(pair(new Key(1, 7), 1), pair(new Key(2, 7), 2));
+        CMap<Key, Integer> d = cmap(pair(new Key(2, 7), 20), pair(new Key(3, 7), 30));
+        assertThat(c.union(d), is(cmap(pair(new Key(1, 7), 1), pair(new Key(2, 7), 20), pair(new Key(3, 7), 30))));
+    }
+
+    @Test
+    public void test06_CMap_conversions() {
+        CMap<String, Integer> m = clist("a", "bb", "ccc", "dd").toCMap(s -> s.substring(0, 1), String::length);
+        assertThat(m, is(cmap(pair("a", 1), pair("b", 2), pair("c", 3), pair("d", 2))));
+        assertThat(m.keys(), is(CSet.cset("a", "b", "c", "d")));
+        assertThat(m.values().foldLeft(0, Integer::sum), is(8));
+        assertThat(m.mapValues(v -> v * 10).get("c"), is(Optional.of(30)));
+        assertThat(CMap.fromCList(m.toCList()), is(m));
+        CMap.Builder<Integer, Integer> builder = CMap.builder();
+        for (int i = 0; i < 1000; i++)
+            builder.put(i % 100, i);
+        CMap<Integer, Integer> built = builder.result();
+        assertThat(built.size(), is(100));
+        assertThat(built.get(7), is(Optional.of(907)));
+        assertThat(builder.put(1, 1).result().size(), is(1));
+        assertThat(built.get(1), is(Optional.of(901)));
+    }
+}
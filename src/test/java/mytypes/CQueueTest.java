@@ -0,0 +1,81 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+
+import static mytypes.CList.clist;
+import static mytypes.CQueue.cqueue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CQueueTest {
+
+    @Test
+    public void test01_CQueue_should_dequeue_in_FIFO_order() {
+        CQueue<Integer> q = CQueue.<Integer>empty().enqueue(1).enqueue(2).enqueue(3);
+        assertThat(q.size(), is(3));
+        assertThat(q.head(), is(1));
+        CList.Pair<Integer, CQueue<Integer>> first = q.dequeue();
+        assertThat(first._1, is(1));
+        assertThat(first._2, is(cqueue(2, 3)));
+        assertThat(first._2.enqueue(4).toCList(), is(clist(2, 3, 4)));
+        assertThat(q, is(cqueue(1, 2, 3)));
+        assertThat(q.toString(), is("CQueue(1, 2, 3)"));
+        assertThat(q.hashCode(), is(Arrays.asList(1, 2, 3).hashCode()));
+        assertThat(CQueue.empty().dequeueOption(), is(Optional.empty()));
+        try {
+            CQueue.empty().dequeue();
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("dequeue on empty CQueue"));
+        }
+    }
+
+    @Test
+    public void test02_CQueue_conversions() {
+        CList<Integer> xs = clist(1, 2, 3);
+        assertThat(xs.toCQueue().toCList() == xs, is(true));
+        assertThat(CQueue.fromCList(xs).enqueueAll(clist(4, 5)).toCList(), is(clist(1, 2, 3, 4, 5)));
+        assertThat(cqueue(1, 2).enqueueAll(Arrays.asList(3, 4)).toList(), is(Arrays.asList(1, 2, 3, 4)));
+        assertThat(cqueue(1, 2).enqueueAll(clist()).size(), is(2));
+        assertThat(cqueue(1, 2, 3).foldLeft(0, (acc, x) -> acc * 10 + x), is(123));
+    }
+
+    @Test
+    public void test03_CQueue_should_behave_like_an_ArrayDeque() {
+        Random random = new Random(42);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        CQueue<Integer> q = CQueue.empty();
+        for (int i = 0; i < 100_000; i++) {
+            if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                CList.Pair<Integer, CQueue<Integer>> next = q.dequeue();
+                assertThat(next._1, is(expected.poll()));
+                q = next._2;
+            } else {
+                expected.add(i);
+                q = q.enqueue(i);
+            }
+            assertThat(q.size(), is(expected.size()));
+        }
+        assertThat(q.toList(), is(Arrays.asList(expected.toArray(new Integer[0]))));
+    }
+
+    @Test
+    public void test04_draining_a_long_CQueue_should_take_linear_time() {
+        CQueue<Integer> q = CQueue.empty();
+        for (int i = 0; i < 1_000_000; i++)
+            q = q.enqueue(i % 100);
+        long sum = 0;
+        while (q.nonEmpty()) {
+            sum += q.head();
+            q = q.tail();
+        }
+        assertThat(sum, is(49_500_000L));
+    }
+}
@@ -0,0 +1,78 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static mytypes.CList.clist;
+import static mytypes.CSet.cset;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CSetTest {
+
+    @Test
+    public void test01_CSet_should_contain_each_element_once() {
+        CSet<Integer> s = cset(3, 1, 2, 3, 1);
+        assertThat(s.size(), is(3));
+        assertThat(s.contains(2), is(true));
+        assertThat(s.contains(4), is(false));
+        assertThat(s, is(cset(1, 2, 3)));
+        assertThat(s.hashCode(), is(cset(1, 2, 3).toSet().hashCode()));
+        assertThat(CSet.empty().toString(), is("CSet()"));
+        assertThat(cset("x").toString(), is("CSet(x)"));
+    }
+
+    @Test
+    public void test02_added_and_removed_should_share_unchanged_sets() {
+        CSet<Integer> s = cset(1, 2, 3);
+        assertThat(s.added(2) == s, is(true));
+        assertThat(s.removed(4) == s, is(true));
+        assertThat(s.added(4), is(cset(1, 2, 3, 4)));
+        assertThat(s.removed(1), is(cset(2, 3)));
+        assertThat(s, is(cset(1, 2, 3)));
+        assertThat(s.removed(1).removed(2).removed(3).isEmpty(), is(true));
+    }
+
+    @Test
+    public void test03_set_operations_should_behave_like_HashSet() {
+        Random random = new Random(7);
+        CSet<Integer> a = CSet.empty();
+        CSet<Integer> b = CSet.empty();
+        Set<Integer> expectedA = new HashSet<>();
+        Set<Integer> expectedB = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt(30_000);
+            int y = random.nextInt(30_000);
+            a = a.added(x);
+            b = b.added(y);
+            expectedA.add(x);
+            expectedB.add(y);
+        }
+        Set<Integer> union = new HashSet<>(expectedA);
+        union.addAll(expectedB);
+        Set<Integer> intersection = new HashSet<>(expectedA);
+        intersection.retainAll(expectedB);
+        Set<Integer> difference = new HashSet<>(expectedA);
+        difference.removeAll(expectedB);
+        assertThat(a.union(b).toSet(), is(union));
+        assertThat(a.union(b).size(), is(union.size()));
+        assertThat(a.intersect(b).toSet(), is(intersection));
+        assertThat(a.diff(b).toSet(), is(difference));
+        assertThat(a.intersect(b).subsetOf(a), is(true));
+        assertThat(a.union(b), is(b.union(a)));
+    }
+
+    @Test
+    public void test04_CSet_conversions() {
+        CList<Integer> xs = clist(1, 2, 2, 3, 3, 3);
+        assertThat(xs.toCSet(), is(cset(1, 2, 3)));
+        assertThat(xs.toCSet().toCList().length(), is(3));
+        assertThat(CSet.fromCList(xs).filter(x -> x > 1), is(cset(2, 3)));
+        assertThat(cset(1, 2).forall(x -> x > 0), is(true));
+        assertThat(cset(1, 2).exists(x -> x > 1), is(true));
+        assertThat(CSet.<Integer>builder().addAll(xs).result().size(), is(3));
+    }
+}
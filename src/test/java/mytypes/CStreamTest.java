@@ -0,0 +1,133 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.clist;
+import static mytypes.CStream.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CStreamTest {
+
+    @Test
+    public void test01_CStream_should_convert_to_and_from_CList() {
+        assertThat(cstream(1, 2, 3).toCList(), is(clist(1, 2, 3)));
+        assertThat(fromCList(clist(1, 2, 3)).toCList(), is(clist(1, 2, 3)));
+        assertThat(clist(1, 2, 3).toCStream().map(x -> x * 2).toCList(), is(clist(2, 4, 6)));
+        assertThat(CStream.<Integer>empty().toCList(), is(clist()));
+        try {
+            empty().head();
+            fail("Expected a NoSuchElementException to be thrown");
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("head of empty CStream"));
+        }
+    }
+
+    @Test
+    public void test02_CStream_transformations_should_only_evaluate_what_is_needed() {
+        AtomicInteger calls = new AtomicInteger();
+        CStream<Integer> mapped = from(0).map(x -> {
+            calls.incrementAndGet();
+            return x * 2;
+        });
+        assertThat(calls.get(), is(1));
+        assertThat(mapped.filter(x -> x % 3 == 0).take(3).toCList(), is(clist(0, 6, 12)));
+        assertThat(calls.get(), is(7));
+    }
+
+    @Test
+    public void test03_CStream_tails_should_be_memoized() {
+        AtomicInteger calls = new AtomicInteger();
+        CStream<Integer> xs = continually(calls::incrementAndGet).take(3);
+        assertThat(xs.toCList(), is(clist(1, 2, 3)));
+        assertThat(xs.toCList(), is(clist(1, 2, 3)));
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void test04_CStream_should_support_infinite_sequences() {
+        assertThat(iterate(1, x -> x * 2).take(5).toCList(), is(clist(1, 2, 4, 8, 16)));
+        assertThat(from(10, 5).drop(2).head(), is(20));
+        assertThat(from(0).takeWhile(x -> x < 4).toCList(), is(clist(0, 1, 2, 3)));
+        assertThat(from(0).dropWhile(x -> x < 4).head(), is(4));
+        assertThat(from(1).flatMap(x -> cstream(x, -x)).take(4).toCList(), is(clist(1, -1, 2, -2)));
+        assertThat(from(0).exists(x -> x > 100), is(true));
+        assertThat(cstream("a", "b").zipWithIndex().toCList(), is(clist(pair("a", 0), pair("b", 1))));
+    }
+
+    @Test
+    public void test05_CStream_should_append_lazily() {
+        AtomicInteger calls = new AtomicInteger();
+        CStream<Integer> xs = cstream(1, 2).append(() -> {
+            calls.incrementAndGet();
+            return cstream(3);
+        });
+        assertThat(xs.take(2).toCList(), is(clist(1, 2)));
+        assertThat(calls.get(), is(0));
+        assertThat(xs.toCList(), is(clist(1, 2, 3)));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void test06_CStream_toString_should_show_the_evaluated_prefix() {
+        assertThat(empty().toString(), is("CStream()"));
+        assertThat(from(1).toString(), is("CStream(1, ?)"));
+        CStream<Integer> xs = from(1).take(3);
+        assertThat(xs.force().toString(), is("CStream(1, 2, 3)"));
+    }
+
+    @Test
+    public void test07_CStream_should_be_stack_safe_on_long_streams() {
+        int n = 10_000_000;
+        assertThat(from(0).filter(x -> x >= n).head(), is(n));
+        assertThat(from(0).drop(n).head(), is(n));
+        assertThat(from(0).take(n).foldLeft(0L, (acc, x) -> acc + 1), is((long) n));
+        assertThat(from(0).map(x -> x + 1).take(n).length(), is(n));
+        assertThat(from(0).flatMap(x -> x < n ? CStream.<Integer>empty() : cstream(x)).head(), is(n));
+    }
+
+    @Test
+    public void test08_a_cell_with_an_evaluated_tail_should_not_be_lazy() {
+        CStream<Integer> xs = CStream.cons(1, CStream.cons(2, CStream.<Integer>empty()));
+        assertThat(xs.toString(), is("CStream(1, 2)"));
+        assertThat(xs.toCList(), is(CList.clist(1, 2)));
+    }
+
+    /**
+     * Whether the cell referred to by ref is collected once the garbage collector runs, giving it a few chances.
+     */
+    private static boolean collected(WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        return ref.get() == null;
+    }
+
+    @Test
+    public void test09_iterators_should_not_keep_the_consumed_head() throws Exception {
+        CStream<Integer> xs = from(0);
+        WeakReference<CStream<Integer>> head = new WeakReference<>(xs);
+        Iterator<Integer> it = xs.iterator();
+        xs = null;
+        for (int i = 0; i < 1000; i++)
+            assertThat(it.next(), is(i));
+        assertThat(collected(head), is(true));
+
+        xs = from(0);
+        head = new WeakReference<>(xs);
+        Spliterator<Integer> split = xs.spliterator();
+        xs = null;
+        for (int i = 0; i < 1000; i++)
+            split.tryAdvance(x -> { });
+        assertThat(collected(head), is(true));
+    }
+}
@@ -0,0 +1,139 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.clist;
+import static mytypes.CTreeMap.ctreeMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CTreeMapTest {
+
+    /**
+     * Checks the red-black invariants and returns the black height.
+     */
+    private static int blackHeight(CTreeMap.Tree<?, ?> tree) {
+        if (tree == null)
+            return 1;
+        if (tree.red)
+            assertThat(tree.left == null || !tree.left.red, is(true));
+        if (tree.red)
+            assertThat(tree.right == null || !tree.right.red, is(true));
+        int left = blackHeight(tree.left);
+        assertThat(blackHeight(tree.right), is(left));
+        assertThat(tree.count, is(1 + CTreeMap.count(tree.left) + CTreeMap.count(tree.right)));
+        return left + (tree.red ? 0 : 1);
+    }
+
+    private static void checkInvariants(CTreeMap<?, ?> m) throws Exception {
+        java.lang.reflect.Field root = CTreeMap.class.getDeclaredField("root");
+        root.setAccessible(true);
+        CTreeMap.Tree<?, ?> tree = (CTreeMap.Tree<?, ?>) root.get(m);
+        assertThat(tree == null || !tree.red, is(true));
+        blackHeight(tree);
+    }
+
+    @Test
+    public void test01_CTreeMap_should_keep_its_keys_sorted() {
+        CTreeMap<String, Integer> m = ctreeMap(pair("c", 3), pair("a", 1), pair("b", 2), pair("a", 10));
+        assertThat(m.size(), is(3));
+        assertThat(m.keys(), is(clist("a", "b", "c")));
+        assertThat(m.values(), is(clist(10, 2, 3)));
+        assertThat(m.get("a"), is(Optional.of(10)));
+        assertThat(m.get("d"), is(Optional.empty()));
+        assertThat(m.getOrElse("d", 0), is(0));
+        assertThat(m.firstKey(), is("a"));
+        assertThat(m.lastKey(), is("c"));
+        assertThat(m.toString(), is("CTreeMap(a -> 10, b -> 2, c -> 3)"));
+        assertThat(CTreeMap.<String, Integer>empty(Comparator.reverseOrder()).updated("a", 1).updated("b", 2).keys(),
+                is(clist("b", "a")));
+        try {
+            CTreeMap.<String, Integer>empty().firstKey();
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("firstKey of empty CTreeMap"));
+        }
+    }
+
+    @Test
+    public void test02_CTreeMap_should_behave_like_a_TreeMap_under_random_updates() throws Exception {
+        Random random = new Random(42);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        CTreeMap<Integer, Integer> m = CTreeMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                m = m.removed(key);
+            } else {
+                expected.put(key, i);
+                m = m.updated(key, i);
+            }
+            if (i % 10_000 == 0)
+                checkInvariants(m);
+        }
+        checkInvariants(m);
+        assertThat(m.size(), is(expected.size()));
+        assertThat(m.hashCode(), is(expected.hashCode()));
+        List<Integer> keys = new ArrayList<>();
+        for (CList.Pair<Integer, Integer> entry : m) {
+            assertThat(entry._2, is(expected.get(entry._1)));
+            keys.add(entry._1);
+        }
+        assertThat(keys, is(new ArrayList<>(expected.keySet())));
+        for (int key = -1; key <= 5000; key += 7) {
+            assertThat(m.floorKey(key), is(Optional.ofNullable(expected.floorKey(key))));
+            assertThat(m.ceilingKey(key), is(Optional.ofNullable(expected.ceilingKey(key))));
+            assertThat(m.rank(key), is(expected.headMap(key).size()));
+        }
+        while (m.nonEmpty()) {
+            m = m.removed(m.firstKey());
+            if (m.size() % 500 == 0)
+                checkInvariants(m);
+        }
+    }
+
+    @Test
+    public void test03_range_should_return_a_balanced_tree_of_the_keys_in_range() throws Exception {
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        CTreeMap<Integer, String> m = CTreeMap.empty();
+        for (int i = 0; i < 1000; i += 2) {
+            expected.put(i, "v" + i);
+            m = m.updated(i, "v" + i);
+        }
+        for (int[] bounds : new int[][]{{0, 1000}, {1, 2}, {10, 11}, {10, 12}, {3, 600}, {-5, 77}, {500, 5000}}) {
+            CTreeMap<Integer, String> slice = m.range(bounds[0], bounds[1]);
+            Map<Integer, String> expectedSlice = expected.subMap(bounds[0], bounds[1]);
+            checkInvariants(slice);
+            assertThat(slice.size(), is(expectedSlice.size()));
+            assertThat(slice.keys(), is(CList.fromIterable(expectedSlice.keySet())));
+            checkInvariants(slice.updated(7, "x").removed(bounds[0] + 2));
+        }
+        assertThat(m.range(0, 1000) == m, is(true));
+        assertThat(m.from(990).keys(), is(clist(990, 992, 994, 996, 998)));
+        assertThat(m.until(5).keys(), is(clist(0, 2, 4)));
+    }
+
+    @Test
+    public void test04_updates_should_leave_the_original_map_unchanged() {
+        CTreeMap<Integer, String> m = ctreeMap(pair(1, "a"), pair(2, "b"));
+        CTreeMap<Integer, String> m2 = m.updated(3, "c").removed(1);
+        assertThat(m, is(ctreeMap(pair(1, "a"), pair(2, "b"))));
+        assertThat(m2, is(ctreeMap(pair(2, "b"), pair(3, "c"))));
+        assertThat(m.removed(5) == m, is(true));
+        String b = m.getOrElse(2, null);
+        assertThat(m.updated(2, b) == m, is(true));
+        assertThat(m2.toCList(), is(clist(pair(2, "b"), pair(3, "c"))));
+    }
+}
@@ -0,0 +1,56 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static mytypes.CList.clist;
+import static mytypes.CTreeSet.ctreeSet;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CTreeSetTest {
+
+    @Test
+    public void test01_CTreeSet_should_keep_its_elements_sorted() {
+        CTreeSet<Integer> s = ctreeSet(5, 3, 8, 3, 1);
+        assertThat(s.size(), is(4));
+        assertThat(s.toCList(), is(clist(1, 3, 5, 8)));
+        assertThat(s.first(), is(1));
+        assertThat(s.last(), is(8));
+        assertThat(s.contains(5), is(true));
+        assertThat(s.contains(4), is(false));
+        assertThat(s.floor(4), is(Optional.of(3)));
+        assertThat(s.ceiling(9), is(Optional.empty()));
+        assertThat(s.toString(), is("CTreeSet(1, 3, 5, 8)"));
+        assertThat(s.added(5) == s, is(true));
+        assertThat(s.removed(4) == s, is(true));
+        assertThat(s.removed(3).added(3), is(s));
+        assertThat(CTreeSet.fromCList(clist("b", "a", "c"), Comparator.reverseOrder()).toCList(), is(clist("c", "b", "a")));
+    }
+
+    @Test
+    public void test02_CTreeSet_should_behave_like_a_TreeSet() {
+        Random random = new Random(7);
+        TreeSet<Integer> expected = new TreeSet<>();
+        CTreeSet<Integer> s = CTreeSet.empty();
+        for (int i = 0; i < 50_000; i++) {
+            int elem = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                expected.add(elem);
+                s = s.added(elem);
+            } else {
+                expected.remove(elem);
+                s = s.removed(elem);
+            }
+        }
+        assertThat(s.toCList(), is(CList.fromIterable(expected)));
+        assertThat(s.hashCode(), is(expected.hashCode()));
+        assertThat(s.range(100, 300).toCList(), is(CList.fromIterable(expected.subSet(100, 300))));
+        assertThat(s.rank(1000), is(expected.headSet(1000).size()));
+        assertThat(s.filter(x -> x % 2 == 0).toCList(), is(CList.fromIterable(expected).filter(x -> x % 2 == 0)));
+    }
+}
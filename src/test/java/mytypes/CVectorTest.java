@@ -0,0 +1,116 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static mytypes.CList.Pair.pair;
+import static mytypes.CList.clist;
+import static mytypes.CVector.cvector;
+import static mytypes.CVector.empty;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CVectorTest {
+
+    private static CVector<Integer> range(int n) {
+        CVector.Builder<Integer> builder = CVector.builder();
+        for (int i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    @Test
+    public void test01_CVector_should_support_indexed_access() {
+        CVector<Integer> xs = range(100_000);
+        assertThat(xs.size(), is(100_000));
+        for (int i = 0; i < xs.size(); i++)
+            assertThat(xs.apply(i), is(i));
+        assertThat(xs.isDefinedAt(99_999), is(true));
+        assertThat(xs.isDefinedAt(100_000), is(false));
+        try {
+            xs.apply(100_000);
+            fail("Expected an IndexOutOfBoundsException to be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            assertThat(e.getMessage(), is("index 100000 out of bounds for CVector of size 100000"));
+        }
+    }
+
+    @Test
+    public void test02_CVector_updated_should_not_change_the_original() {
+        CVector<Integer> xs = range(5000);
+        CVector<Integer> ys = xs.updated(0, -1).updated(2500, -2).updated(4999, -3);
+        assertThat(ys.apply(0), is(-1));
+        assertThat(ys.apply(2500), is(-2));
+        assertThat(ys.apply(4999), is(-3));
+        assertThat(xs, is(range(5000)));
+    }
+
+    @Test
+    public void test03_CVector_appended_and_prepended_should_behave_like_a_list() {
+        CVector<Integer> xs = empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            if (i % 3 == 0) {
+                xs = xs.prepended(i);
+                expected.add(0, i);
+            } else {
+                xs = xs.appended(i);
+                expected.add(i);
+            }
+        }
+        assertThat(xs.toList(), is(expected));
+        for (int i = 0; i < expected.size(); i += 97)
+            assertThat(xs.apply(i), is(expected.get(i)));
+    }
+
+    @Test
+    public void test04_CVector_slice_should_return_the_elements_in_the_given_range() {
+        Random random = new Random(42);
+        CVector<Integer> xs = range(3000).prepended(-1).prepended(-2);
+        List<Integer> list = xs.toList();
+        for (int k = 0; k < 200; k++) {
+            int from = random.nextInt(xs.size());
+            int until = from + random.nextInt(xs.size() - from + 1);
+            CVector<Integer> slice = xs.slice(from, until);
+            assertThat(slice.toList(), is(list.subList(from, until)));
+            assertThat(slice.appended(7).prepended(8).size(), is(until - from + 2));
+        }
+        assertThat(xs.take(3), is(cvector(-2, -1, 0)));
+        assertThat(xs.drop(2999), is(cvector(2997, 2998, 2999)));
+        assertThat(xs.tail().head(), is(-1));
+    }
+
+    @Test
+    public void test05_CVector_should_support_the_CList_combinators() {
+        assertThat(cvector(1, 2, 3).map(x -> x * x), is(cvector(1, 4, 9)));
+        assertThat(cvector(1, 2, 3, 4, 5).filter(x -> x % 2 == 0), is(cvector(2, 4)));
+        assertThat(cvector(1, 2).flatMap(x -> cvector(x, -x)), is(cvector(1, -1, 2, -2)));
+        assertThat(cvector(1, 2, 3).foldLeft("", (acc, x) -> acc + x), is("123"));
+        assertThat(cvector(1, 2, 3).foldRight("", (x, acc) -> acc + x), is("321"));
+        assertThat(cvector(1, 2, 3).reverse(), is(cvector(3, 2, 1)));
+        assertThat(cvector(1, 2).append(cvector(3)), is(cvector(1, 2, 3)));
+        assertThat(cvector("a", "b").zipWithIndex(), is(cvector(pair("a", 0), pair("b", 1))));
+        assertThat(cvector(cvector(1), cvector(2, 3)).flatten(), is(cvector(1, 2, 3)));
+        assertThat(cvector(1, 2, 3).exists(x -> x == 3), is(true));
+        assertThat(cvector(1, 2, 3).toString(), is("CVector(1, 2, 3)"));
+        try {
+            empty().head();
+            fail("Expected a NoSuchElementException to be thrown");
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("head of empty CVector"));
+        }
+    }
+
+    @Test
+    public void test06_CVector_should_convert_to_and_from_CList() {
+        assertThat(clist(1, 2, 3).toCVector(), is(cvector(1, 2, 3)));
+        assertThat(range(1000).toCList().toCVector(), is(range(1000)));
+        assertThat(CVector.fromIterable(asList(1, 2, 3)).toCList(), is(clist(1, 2, 3)));
+    }
+}
@@ -0,0 +1,185 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static mytypes.CList.Representation.CHUNKED;
+import static mytypes.CList.Representation.CONS;
+import static mytypes.CList.chunked;
+import static mytypes.CList.clist;
+import static mytypes.CList.cons;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ChunkedCListTest {
+
+    private static final int N = 1_000_000;
+
+    private static Integer[] range(int n) {
+        return IntStream.range(0, n).boxed().toArray(Integer[]::new);
+    }
+
+    @Test
+    public void test01_chunked_lists_should_equal_cons_lists_with_the_same_elements() {
+        for (int n = 0; n <= 40; n++) {
+            CList<Integer> xs = CList.fromArray(range(n), CHUNKED);
+            CList<Integer> ys = CList.fromArray(range(n), CONS);
+            CList<Integer> zs = CList.fromIterator(Arrays.asList(range(n)).iterator(), CHUNKED);
+            assertThat(xs, is(ys));
+            assertThat(ys, is(xs));
+            assertThat(zs, is(xs));
+            assertThat(xs.hashCode(), is(ys.hashCode()));
+            assertThat(zs.hashCode(), is(ys.hashCode()));
+            assertThat(xs.toString(), is(ys.toString()));
+            assertThat(xs.length(), is(n));
+        }
+        assertThat(chunked(1, 2, 3).equals(clist(1, 2, 4)), is(false));
+        assertThat(clist(1, 2, 3).equals(chunked(1, 2)), is(false));
+        assertThat(chunked(1, null).equals(clist(1, null)), is(true));
+    }
+
+    @Test
+    public void test02_head_and_tail_should_walk_through_the_chunks() {
+        CList<Integer> xs = CList.fromArray(range(35), CHUNKED);
+        for (int i = 0; i < 35; i++) {
+            assertThat(xs.head(), is(i));
+            assertThat(xs.length(), is(35 - i));
+            assertThat(xs, is(CList.fromArray(range(35), CONS).drop(i)));
+            xs = xs.tail();
+        }
+        assertThat(xs.isEmpty(), is(true));
+        assertThat(CList.fromArray(range(35), CHUNKED).drop(17).head(), is(17));
+        assertThat(CList.fromArray(range(35), CHUNKED).drop(32), is(clist(32, 33, 34)));
+        assertThat(CList.fromArray(range(35), CHUNKED).drop(40).isEmpty(), is(true));
+    }
+
+    @Test
+    public void test03_bulk_operations_should_return_the_results_of_cons_lists() {
+        CList<Integer> cs = CList.fromArray(range(50), CONS);
+        CList<Integer> xs = CList.fromArray(range(50), CHUNKED);
+        assertThat(xs.map(x -> x * 2), is(cs.map(x -> x * 2)));
+        assertThat(xs.filter(x -> x % 3 == 0), is(cs.filter(x -> x % 3 == 0)));
+        assertThat(xs.filter(x -> x >= 0) == xs, is(true));
+        assertThat(xs.foldLeft(0, Integer::sum), is(1225));
+        assertThat(xs.foldRight("", (x, acc) -> acc + x), is(cs.foldRight("", (x, acc) -> acc + x)));
+        assertThat(xs.reverse(), is(cs.reverse()));
+        assertThat(xs.reverse().reverse(), is(cs));
+        assertThat(xs.toList(), is(cs.toList()));
+        assertThat(xs.toSet(), is(new HashSet<>(cs.toList())));
+        assertThat(xs.take(20), is(cs.take(20)));
+        assertThat(xs.take(50) == xs, is(true));
+        assertThat(xs.append(cs), is(cs.append(cs)));
+        assertThat(xs.append(clist()) == xs, is(true));
+        assertThat(xs.flatMap(x -> clist(x, x)), is(cs.flatMap(x -> clist(x, x))));
+        assertThat(chunked(xs, cs).flatten(), is(cs.append(cs)));
+        assertThat(xs.exists(x -> x == 49), is(true));
+        assertThat(xs.forall(x -> x < 49), is(false));
+        assertThat(xs.contains(17), is(true));
+        assertThat(xs.contains(50), is(false));
+        List<Integer> seen = new ArrayList<>();
+        xs.foreach(seen::add);
+        assertThat(seen, is(cs.toList()));
+        assertThat(xs.stream().collect(Collectors.toList()), is(cs.toList()));
+    }
+
+    @Test
+    public void test04_representations_should_mix() {
+        CList<Integer> xs = cons(-1, CList.fromArray(range(20), CHUNKED));
+        assertThat(xs.length(), is(21));
+        assertThat(xs, is(cons(-1, CList.fromArray(range(20), CONS))));
+        assertThat(xs.hashCode(), is(cons(-1, CList.fromArray(range(20), CONS)).hashCode()));
+        CList<Integer> ys = chunked(1, 2).append(clist(3, 4));
+        assertThat(ys, is(clist(1, 2, 3, 4)));
+        assertThat(ys.drop(2) instanceof Cons, is(true));
+        assertThat(ys.reverse(), is(clist(4, 3, 2, 1)));
+        assertThat(ys.foldLeft(0, Integer::sum), is(10));
+        assertThat(ys.map(x -> -x), is(clist(-1, -2, -3, -4)));
+    }
+
+    @Test
+    public void test05_the_default_representation_should_select_the_factories() {
+        assertThat(CList.defaultRepresentation(), is(CONS));
+        assertThat(clist(1, 2) instanceof Cons, is(true));
+        try {
+            CList.setDefaultRepresentation(CHUNKED);
+            assertThat(clist(1, 2) instanceof ChunkedCList, is(true));
+            assertThat(CList.fromIterable(Arrays.asList(1, 2)) instanceof ChunkedCList, is(true));
+            assertThat(clist(1, 2), is(CList.fromArray(new Integer[]{1, 2}, CONS)));
+            assertThat(clist(2, 1).sorted() instanceof ChunkedCList, is(true));
+            assertThat(clist(2, 1).sortBy(x -> -x) instanceof ChunkedCList, is(true));
+        } finally {
+            CList.setDefaultRepresentation(CONS);
+        }
+        assertThat(chunked(1, 2) instanceof ChunkedCList, is(true));
+        assertThat(chunked().isEmpty(), is(true));
+    }
+
+    @Test
+    public void test06_long_chunked_lists_should_not_overflow_the_stack() throws Exception {
+        CList<Integer> xs = CList.fromArray(range(N), CHUNKED);
+        CList<Integer> ys = CList.fromArray(range(N), CONS);
+        assertThat(xs.length(), is(N));
+        assertThat(xs, is(ys));
+        assertThat(xs.hashCode(), is(ys.hashCode()));
+        assertThat(xs.reverse().head(), is(N - 1));
+        assertThat(xs.foldRight(0L, (x, acc) -> acc + x), is((long) N * (N - 1) / 2));
+        assertThat(xs.map(x -> x + 1).drop(N - 1).head(), is(N));
+        assertThat(CListTest.roundTrip(xs.take(1000)), is(ys.take(1000)));
+    }
+
+    @Test
+    public void test07_tails_should_keep_the_length_and_the_hash_of_their_list() {
+        CList<Integer> xs = CList.fromArray(range(40), CHUNKED);
+        int hash = xs.hashCode();
+        CList<Integer> ys = CList.fromArray(range(40), CONS);
+        for (int i = 0; i < 40; i++, xs = xs.tail(), ys = ys.tail()) {
+            assertThat(xs.length(), is(40 - i));
+            assertThat(xs.hashCode(), is(ys.hashCode()));
+        }
+        assertThat(cons(-1, CList.fromArray(range(40), CHUNKED).drop(3)).length(), is(38));
+        assertThat(CList.fromArray(range(40), CHUNKED).hashCode(), is(hash));
+        try {
+            chunked((Integer) null).headOption();
+            fail();
+        } catch (NullPointerException e) {
+            // like Cons
+        }
+    }
+
+    @Test
+    public void test08_generic_operations_should_run_through_the_chunks() {
+        CList<Integer> xs = CList.fromArray(range(40), CHUNKED).append(clist(40, 41)).append(CList.fromArray(range(5), CHUNKED));
+        CList<Integer> ys = CList.fromArray(range(40), CONS).append(clist(40, 41)).append(CList.fromArray(range(5), CONS));
+        List<Integer> elems = new ArrayList<>();
+        for (Integer x : xs)
+            elems.add(x);
+        assertThat(elems, is(ys.toList()));
+        assertThat(xs.span(x -> x < 20), is(ys.span(x -> x < 20)));
+        assertThat(xs.span(x -> x < 100)._1 == xs, is(true));
+        assertThat(xs.dropWhile(x -> x < 41), is(ys.dropWhile(x -> x < 41)));
+        assertThat(xs.splitAt(17), is(ys.splitAt(17)));
+        assertThat(xs.indexWhere(x -> x == 3, 10), is(45));
+        assertThat(xs.lastIndexWhere(x -> x == 3), is(45));
+        assertThat(xs.find(x -> x > 40), is(ys.find(x -> x > 40)));
+        assertThat(xs.sortBy(x -> -x), is(ys.sortBy(x -> -x)));
+        assertThat(xs.groupBy(x -> x % 3), is(ys.groupBy(x -> x % 3)));
+        assertThat(xs.max(Integer::compare), is(41));
+        assertThat(xs.zip(ys).forall(p -> p._1.equals(p._2)), is(true));
+        assertThat(xs.stream().collect(Collectors.toList()), is(ys.toList()));
+        assertThat(xs.parallelStream().mapToInt(x -> x).sum(), is(ys.foldLeft(0, Integer::sum)));
+    }
+
+    @Test
+    public void test09_an_unknown_default_representation_should_fall_back_to_cons() {
+        assertThat(CList.representation("chunked"), is(CHUNKED));
+        assertThat(CList.representation(" Cons "), is(CONS));
+        assertThat(CList.representation("unrolled"), is(CONS));
+    }
+}
@@ -0,0 +1,39 @@
+package mytypes;
+
+import org.junit.Test;
+
+import static mytypes.CList.clist;
+import static mytypes.DoubleCList.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DoubleCListTest {
+
+    @Test
+    public void test01_DoubleCList_should_transform_with_primitive_functions() {
+        assertThat(doubleClist(1, 2, 3).map(x -> x / 2), is(doubleClist(0.5, 1.0, 1.5)));
+        assertThat(doubleClist(1.5, -2.5, 3.5).filter(x -> x > 0), is(doubleClist(1.5, 3.5)));
+        assertThat(doubleClist(1, 2).zipWith(Double::sum, doubleClist(0.5, 0.5)), is(doubleClist(1.5, 2.5)));
+    }
+
+    @Test
+    public void test02_DoubleCList_should_aggregate_without_boxing() {
+        assertThat(doubleClist(0.5, 1.5, 2.0).sum(), is(4.0));
+        assertThat(doubleClist(3, -1.5, 5, 2).min(), is(-1.5));
+        assertThat(doubleClist(3, -1.5, 5, 2).max(), is(5.0));
+    }
+
+    @Test
+    public void test03_DoubleCList_equals_should_behave_like_Double_equals() {
+        assertThat(doubleClist(Double.NaN), is(doubleClist(Double.NaN)));
+        assertThat(doubleClist(0.0).equals(doubleClist(-0.0)), is(false));
+        assertThat(doubleClist(1, 2).hashCode(), is(doubleClist(1, 2).map(x -> x).hashCode()));
+    }
+
+    @Test
+    public void test04_DoubleCList_should_convert_to_and_from_CList() {
+        assertThat(doubleClist(1, 2, 3).boxed(), is(clist(1.0, 2.0, 3.0)));
+        assertThat(fromCList(clist(1.0, 2.0, 3.0)), is(doubleClist(1, 2, 3)));
+        assertThat(clist("Scala", "is", "fun").mapToDouble(String::length), is(doubleClist(5, 2, 3)));
+    }
+}
@@ -0,0 +1,79 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static mytypes.CList.clist;
+import static mytypes.IntCList.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class IntCListTest {
+
+    @Test
+    public void test01_IntCList_should_support_the_basic_CList_operations() {
+        assertThat(intClist(1, 2, 3).head(), is(1));
+        assertThat(intClist(1, 2, 3).tail(), is(intClist(2, 3)));
+        assertThat(intClist(1, 2, 3).length(), is(3));
+        assertThat(intClist().isEmpty(), is(true));
+        assertThat(cons(0, intClist(1, 2)), is(intClist(0, 1, 2)));
+        assertThat(intClist(1, 2).append(intClist(3)), is(intClist(1, 2, 3)));
+        assertThat(intClist(1, 2, 3).reverse(), is(intClist(3, 2, 1)));
+        assertThat(intClist(1, 2, 3, 4, 5).take(2), is(intClist(1, 2)));
+        assertThat(intClist(1, 2, 3, 4, 5).drop(3), is(intClist(4, 5)));
+        assertThat(intClist(1, 2, 3).toString(), is("IntCons(1, IntCons(2, IntCons(3, IntNil)))"));
+        try {
+            intClist().head();
+            fail("Expected a NoSuchElementException to be thrown");
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("head of empty IntCList"));
+        }
+    }
+
+    @Test
+    public void test02_IntCList_should_transform_with_primitive_functions() {
+        assertThat(intClist(1, 2, 3).map(x -> x * x), is(intClist(1, 4, 9)));
+        assertThat(intClist(1, 2, 3, 4, 5).filter(x -> x % 2 == 0), is(intClist(2, 4)));
+        assertThat(intClist(1, 2, 3, 4, 5).filterNot(x -> x % 2 == 0), is(intClist(1, 3, 5)));
+        assertThat(intClist(1, 2).flatMap(x -> intClist(x, -x)), is(intClist(1, -1, 2, -2)));
+        assertThat(intClist(1, 2, 3).zipWith((x, y) -> x * y, intClist(4, 5)), is(intClist(4, 10)));
+        assertThat(intClist(1, 2, 3).exists(x -> x == 2), is(true));
+        assertThat(intClist(1, 2, 3).forall(x -> x > 1), is(false));
+        assertThat(intClist(1, 2, 3).contains(3), is(true));
+    }
+
+    @Test
+    public void test03_IntCList_should_aggregate_without_boxing() {
+        assertThat(intClist(1, 2, 3, 4, 5).sum(), is(15));
+        assertThat(intClist(3, 1, 5, 2).min(), is(1));
+        assertThat(intClist(3, 1, 5, 2).max(), is(5));
+        assertThat(intClist(1, 2, 3).foldLeft(0, (acc, x) -> acc * 10 + x), is(123));
+        assertThat(intClist(1, 2, 3).foldRight(0, (x, acc) -> acc * 10 + x), is(321));
+        assertThat(intClist().sum(), is(0));
+        try {
+            intClist().max();
+            fail("Expected a NoSuchElementException to be thrown");
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("max of empty IntCList"));
+        }
+    }
+
+    @Test
+    public void test04_IntCList_should_convert_to_and_from_CList() {
+        assertThat(intClist(1, 2, 3).boxed(), is(clist(1, 2, 3)));
+        assertThat(fromCList(clist(1, 2, 3)), is(intClist(1, 2, 3)));
+        assertThat(clist("Scala", "is", "fun").mapToInt(String::length), is(intClist(5, 2, 3)));
+        assertThat(intClist(1, 2, 3).mapToObj(Integer::toString), is(clist("1", "2", "3")));
+        assertThat(intClist(1, 2, 3).toArray(), is(new int[]{1, 2, 3}));
+    }
+
+    @Test
+    public void test05_IntCList_equals_and_hashCode_should_be_structural() {
+        assertThat(intClist(1, 2, 3).map(x -> x), is(intClist(1, 2, 3)));
+        assertThat(intClist(1, 2, 3).hashCode(), is(intClist(1, 2, 3).map(x -> x).hashCode()));
+        assertThat(intClist(1, 2).equals(intClist(1, 2, 3)), is(false));
+        assertThat(intClist(1, 2, 1).isPalindrom(), is(true));
+    }
+}
@@ -0,0 +1,110 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static mytypes.CList.clist;
+import static mytypes.CList.interned;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InternerTest {
+
+    @Test
+    public void test01_equal_interned_lists_should_be_identical() {
+        CList<String> xs = interned("usr", "local", "bin");
+        assertThat(xs == interned("usr", "local", "bin"), is(true));
+        assertThat(xs.tail() == interned("local", "bin"), is(true));
+        assertThat(xs, is(clist("usr", "local", "bin")));
+        assertThat(clist("usr", "local", "bin"), is(xs));
+        assertThat(xs.equals(interned("usr", "local", "sbin")), is(false));
+        assertThat(interned().isEmpty(), is(true));
+    }
+
+    @Test
+    public void test02_lists_with_equal_suffixes_should_share_their_cells() {
+        Interner interner = new Interner();
+        CList<Integer> xs = interner.clist(1, 2, 3, 4);
+        CList<Integer> ys = interner.clist(9, 2, 3, 4);
+        assertThat(xs.tail() == ys.tail(), is(true));
+        assertThat(interner.cons(0, clist(1, 2, 3, 4)).tail() == xs, is(true));
+        assertThat(interner.intern(clist(1, 2, 3, 4)) == xs, is(true));
+        assertThat(interner.intern(xs) == xs, is(true));
+    }
+
+    @Test
+    public void test03_Interner_should_count_hits_misses_and_entries() {
+        Interner interner = new Interner();
+        CList<Integer> xs = interner.clist(1, 2, 3);
+        assertThat(interner.misses(), is(3L));
+        assertThat(interner.hits(), is(0L));
+        CList<Integer> ys = interner.clist(0, 2, 3);
+        assertThat(interner.misses(), is(4L));
+        assertThat(interner.hits(), is(2L));
+        assertThat(interner.size(), is(4));
+        assertThat(interner.isInterned(xs), is(true));
+        assertThat(interner.isInterned(ys.tail()), is(true));
+        assertThat(interner.isInterned(clist(1, 2, 3)), is(false));
+        assertThat(interner.toString(), is("Interner(size = 4, hits = 2, misses = 4)"));
+    }
+
+    @Test
+    public void test04_lists_of_different_Interners_should_be_compared_by_their_elements() {
+        Interner a = new Interner();
+        Interner b = new Interner();
+        CList<Integer> xs = a.clist(1, 2, 3);
+        CList<Integer> ys = b.clist(1, 2, 3);
+        assertThat(xs == ys, is(false));
+        assertThat(xs, is(ys));
+        assertThat(xs.hashCode(), is(ys.hashCode()));
+        assertThat(a.clist(1, 2).equals(a.clist(1, 3)), is(false));
+    }
+
+    @Test
+    public void test05_concurrently_interned_lists_should_be_identical() throws Exception {
+        Interner interner = new Interner();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CList<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+                results.add(executor.submit(() -> {
+                    CList<Integer> xs = clist();
+                    for (int i = 0; i < 10_000; i++)
+                        xs = interner.cons(i % 10, xs);
+                    return xs;
+                }));
+            CList<Integer> first = results.get(0).get();
+            for (Future<CList<Integer>> result : results)
+                assertThat(result.get() == first, is(true));
+            assertThat(interner.misses(), is(10_000L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test06_intern_should_not_overflow_the_stack() {
+        CList.Builder<Integer> builder = CList.builder();
+        for (int i = 0; i < 1_000_000; i++)
+            builder.add(i % 100);
+        Interner interner = new Interner();
+        CList<Integer> xs = interner.intern(builder.result());
+        assertThat(xs.length(), is(1_000_000));
+        assertThat(interner.intern(xs.drop(10)) == xs.drop(10), is(true));
+    }
+
+    @Test
+    public void test07_only_interned_cells_should_reference_their_Interner() {
+        for (java.lang.reflect.Field field : Cons.class.getDeclaredFields())
+            assertThat(field.getType() == Interner.class, is(false));
+        Interner interner = new Interner();
+        assertThat(interner.clist(1, 2) instanceof InternedCons, is(true));
+        assertThat(clist(1, 2) instanceof InternedCons, is(false));
+        assertThat(interner.isInterned(new Interner().clist(1, 2)), is(false));
+    }
+}
@@ -0,0 +1,35 @@
+package mytypes;
+
+import org.junit.Test;
+
+import static mytypes.CList.clist;
+import static mytypes.LongCList.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LongCListTest {
+
+    @Test
+    public void test01_LongCList_should_transform_with_primitive_functions() {
+        assertThat(longClist(1, 2, 3).map(x -> x * 1_000_000_000L), is(longClist(1_000_000_000L, 2_000_000_000L, 3_000_000_000L)));
+        assertThat(longClist(1, 2, 3, 4, 5).filter(x -> x % 2 == 0), is(longClist(2, 4)));
+        assertThat(longClist(1, 2).flatMap(x -> longClist(x, -x)), is(longClist(1, -1, 2, -2)));
+        assertThat(cons(0, longClist(1, 2)).reverse(), is(longClist(2, 1, 0)));
+    }
+
+    @Test
+    public void test02_LongCList_should_aggregate_without_boxing() {
+        assertThat(longClist(Integer.MAX_VALUE, Integer.MAX_VALUE).sum(), is(2L * Integer.MAX_VALUE));
+        assertThat(longClist(3, 1, 5, 2).min(), is(1L));
+        assertThat(longClist(3, 1, 5, 2).max(), is(5L));
+        assertThat(longClist(1, 2, 3).foldLeft(0, (acc, x) -> acc * 10 + x), is(123L));
+    }
+
+    @Test
+    public void test03_LongCList_should_convert_to_and_from_CList() {
+        assertThat(longClist(1, 2, 3).boxed(), is(clist(1L, 2L, 3L)));
+        assertThat(fromCList(clist(1L, 2L, 3L)), is(longClist(1, 2, 3)));
+        assertThat(clist("Scala", "is", "fun").mapToLong(String::length), is(longClist(5, 2, 3)));
+        assertThat(longClist(1, 2, 3).toArray(), is(new long[]{1, 2, 3}));
+    }
+}
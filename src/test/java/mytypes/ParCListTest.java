@@ -0,0 +1,101 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mytypes.CList.clist;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParCListTest {
+
+    private static CList<Integer> range(int n) {
+        CList.Builder<Integer> builder = CList.builder();
+        for (int i = 0; i < n; i++)
+            builder.add(i);
+        return builder.result();
+    }
+
+    @Test
+    public void test01_ParCList_transformations_should_keep_the_order_of_the_list() {
+        CList<Integer> xs = range(100_000);
+        ParCList<Integer> par = xs.par().withThreshold(1000);
+        assertThat(par.map(x -> x * 2), is(xs.map(x -> x * 2)));
+        assertThat(par.filter(x -> x % 7 == 0), is(xs.filter(x -> x % 7 == 0)));
+        assertThat(par.filterNot(x -> x % 7 == 0), is(xs.filterNot(x -> x % 7 == 0)));
+        assertThat(par.flatMap(x -> clist(x, -x)), is(xs.flatMap(x -> clist(x, -x))));
+        assertThat(par.map(x -> x).length(), is(100_000));
+        assertThat(clist().par().map(x -> x), is(clist()));
+    }
+
+    @Test
+    public void test02_ParCList_aggregations_should_return_the_sequential_results() {
+        CList<Integer> xs = range(100_000);
+        ParCList<Integer> par = xs.par().withThreshold(1000);
+        assertThat(par.aggregate(0L, (acc, x) -> acc + x, Long::sum), is(xs.foldLeft(0L, (acc, x) -> acc + x)));
+        assertThat(par.reduce(Math::max), is(99_999));
+        assertThat(clist("a", "b", "c").par().withThreshold(1).reduce(String::concat), is("abc"));
+        try {
+            CList.<Integer>clist().par().reduce(Integer::sum);
+            fail("Expected a NoSuchElementException to be thrown");
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("reduce of empty CList"));
+        }
+    }
+
+    @Test
+    public void test03_ParCList_exists_should_stop_early() {
+        CList<Integer> xs = range(1_000_000);
+        AtomicInteger tests = new AtomicInteger();
+        assertThat(xs.par().withThreshold(1000).exists(x -> tests.incrementAndGet() > 0 && x == 10), is(true));
+        assertTrue(tests.get() < 1_000_000);
+        assertThat(xs.par().exists(x -> x < 0), is(false));
+        assertThat(xs.par().forall(x -> x >= 0), is(true));
+        assertThat(xs.par().forall(x -> x < 999_999), is(false));
+    }
+
+    @Test
+    public void test04_ParCList_groupBy_should_keep_the_order_of_keys_and_elements() {
+        CList<Integer> xs = range(10_000);
+        Map<Integer, CList<Integer>> groups = xs.par().withThreshold(100).groupBy(x -> x % 3);
+        Map<Integer, CList<Integer>> expected = new LinkedHashMap<>();
+        for (int k = 0; k < 3; k++) {
+            int key = k;
+            expected.put(k, xs.filter(x -> x % 3 == key));
+        }
+        assertThat(groups, is(expected));
+        assertThat(groups.keySet().iterator().next(), is(0));
+    }
+
+    @Test
+    public void test05_ParCList_should_run_on_the_given_pool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertThat(range(10_000).par().withPool(pool).withThreshold(10).map(x -> x + 1), is(range(10_001).tail()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test06_ParCList_grouping_should_return_the_sequential_results() {
+        CList<Integer> xs = range(100_000).map(x -> x * 7919 % 1000);
+        ParCList<Integer> par = xs.par().withThreshold(1000);
+        assertThat(par.distinct(), is(xs.distinct()));
+        assertThat(par.countBy(x -> x % 7), is(xs.countBy(x -> x % 7)));
+        assertThat(new ArrayList<>(par.countBy(x -> x % 7).keySet()),
+                is(new ArrayList<>(xs.countBy(x -> x % 7).keySet())));
+        assertThat(par.groupMapReduce(x -> x % 10, x -> (long) x, Long::sum), is(xs.groupMapReduce(x -> x % 10, x -> (long) x, Long::sum)));
+        CList.Pair<CList<Integer>, CList<Integer>> parts = par.partition(x -> x % 3 == 0);
+        assertThat(parts._1, is(xs.filter(x -> x % 3 == 0)));
+        assertThat(parts._2, is(xs.filter(x -> x % 3 != 0)));
+    }
+}
@@ -0,0 +1,83 @@
+package mytypes;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static mytypes.CList.clist;
+import static mytypes.RealTimeCQueue.realTimeCQueue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RealTimeCQueueTest {
+
+    @Test
+    public void test01_RealTimeCQueue_should_dequeue_in_FIFO_order() {
+        RealTimeCQueue<Integer> q = realTimeCQueue(1, 2, 3);
+        assertThat(q.size(), is(3));
+        assertThat(q.head(), is(1));
+        assertThat(q.dequeue()._2, is(realTimeCQueue(2, 3)));
+        assertThat(q.tail().enqueue(4).toCList(), is(clist(2, 3, 4)));
+        assertThat(q.toString(), is("RealTimeCQueue(1, 2, 3)"));
+        assertThat(RealTimeCQueue.fromCList(clist(1, 2)).enqueueAll(clist(3)).toList(), is(Arrays.asList(1, 2, 3)));
+        assertThat(q.tail().tail().tail().isEmpty(), is(true));
+        try {
+            q.tail().tail().tail().tail();
+            fail();
+        } catch (NoSuchElementException e) {
+            assertThat(e.getMessage(), is("tail of empty RealTimeCQueue"));
+        }
+    }
+
+    @Test
+    public void test02_RealTimeCQueue_should_behave_like_an_ArrayDeque() {
+        Random random = new Random(42);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        RealTimeCQueue<Integer> q = RealTimeCQueue.empty();
+        for (int i = 0; i < 100_000; i++) {
+            if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                assertThat(q.head(), is(expected.poll()));
+                q = q.tail();
+            } else {
+                expected.add(i);
+                q = q.enqueue(i);
+            }
+            assertThat(q.size(), is(expected.size()));
+        }
+        assertThat(q.toList(), is(Arrays.asList(expected.toArray(new Integer[0]))));
+    }
+
+    @Test
+    public void test03_old_versions_should_stay_valid() {
+        List<RealTimeCQueue<Integer>> versions = new ArrayList<>();
+        RealTimeCQueue<Integer> q = RealTimeCQueue.empty();
+        for (int i = 0; i < 1000; i++) {
+            versions.add(q);
+            q = i % 3 == 2 ? q.tail() : q.enqueue(i);
+        }
+        for (int i = 0; i < versions.size(); i += 97) {
+            RealTimeCQueue<Integer> version = versions.get(i);
+            assertThat(version.toCList().length(), is(version.size()));
+            assertThat(version.enqueue(-1).toCList(), is(version.toCList().append(clist(-1))));
+        }
+    }
+
+    @Test
+    public void test04_draining_a_long_RealTimeCQueue_should_not_overflow_the_stack() {
+        RealTimeCQueue<Integer> q = RealTimeCQueue.empty();
+        for (int i = 0; i < 1_000_000; i++)
+            q = q.enqueue(i % 100);
+        long sum = 0;
+        while (q.nonEmpty()) {
+            sum += q.head();
+            q = q.tail();
+        }
+        assertThat(sum, is(49_500_000L));
+    }
+}